@@ -18,17 +18,26 @@ package no.laukvik.csv;
 import no.laukvik.csv.columns.*;
 import no.laukvik.csv.io.*;
 import no.laukvik.csv.query.Query;
+import no.laukvik.csv.query.RowSorter;
 import no.laukvik.csv.query.ValueMatcher;
 import no.laukvik.csv.statistics.FrequencyDistribution;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Flow;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The main class for building, reading, writing and querying the CSV datasets.
@@ -76,7 +85,7 @@ import java.util.stream.Stream;
  *     csv.addRow().set( first, "John" ).set( last, "Doe" );
  * }</pre>
  */
-public final class CSV implements Serializable {
+public final class CSV implements Serializable, AutoCloseable {
 
     /**
      * The character representing LF.
@@ -127,6 +136,14 @@ public final class CSV implements Serializable {
      * The list of columns.
      */
     private final List<Column> columns;
+    /**
+     * The index of each column.
+     */
+    private final Map<Column, Integer> columnIndexes;
+    /**
+     * The index of the first column with each name, by the name in a case that ignores the case.
+     */
+    private final Map<String, Integer> columnNames;
     /**
      * The list of Rows.
      */
@@ -155,6 +172,28 @@ public final class CSV implements Serializable {
      * Automatically detects quote.
      */
     private boolean autoDetectQuote;
+    /**
+     * Parses the values of the rows read from files the first time they are read.
+     */
+    private boolean lazyParsing;
+    /**
+     * The dialect used when reading files, or null to detect the separator in the first row.
+     */
+    private Dialect dialect;
+    /**
+     * The inference of the column types used when reading files, or null to read columns without a type as
+     * StringColumn.
+     */
+    private ColumnTypeInference typeInference;
+    /**
+     * The collector of values that can not be parsed when reading files, or null to stop at the first such value.
+     */
+    private ParseErrors parseErrors;
+
+    /**
+     * The values of the rows stored column by column, or null when each row stores its own values.
+     */
+    private ColumnStore store;
 
     /**
      * The file opened.
@@ -166,6 +205,8 @@ public final class CSV implements Serializable {
      */
     public CSV() {
         columns = new ArrayList<>();
+        columnIndexes = new IdentityHashMap<>();
+        columnNames = new HashMap<>();
         rows = new ArrayList<>();
         charset = Charset.defaultCharset();
         autoDetectCharset = true;
@@ -248,6 +289,106 @@ public final class CSV implements Serializable {
         this.autoDetectQuote = autoDetectQuote;
     }
 
+    /**
+     * Returns the dialect used when reading files.
+     *
+     * @return the dialect or null when not specified
+     */
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Sets the dialect used when reading files. A dialect detected for one file can be reused for other files
+     * from the same source without detecting it again.
+     *
+     * @param dialect the dialect or null to detect the separator in the first row
+     */
+    public void setDialect(final Dialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * Detects the dialect from a sample of the start of the file and uses it when reading files.
+     *
+     * @param csvFile the file to detect the dialect of
+     * @return the dialect
+     * @throws CsvReaderException when the file could not be read
+     */
+    public Dialect detectDialect(final File csvFile) throws CsvReaderException {
+        this.dialect = new DialectSniffer(DialectSniffer.DEFAULT_SAMPLE_SIZE, autoDetectCharset ? null : charset)
+                .sniff(csvFile);
+        return dialect;
+    }
+
+    /**
+     * Returns true if the values of the rows read from files are parsed the first time they are read.
+     *
+     * @return true when lazy parsing
+     */
+    public boolean isLazyParsing() {
+        return lazyParsing;
+    }
+
+    /**
+     * Set whether the values of the rows read from files are parsed the first time they are read instead of when
+     * the file is read. This makes reading wide files with columns that are expensive to parse, such as dates,
+     * urls and bytes, much faster when only some of the values are used.
+     *
+     * @param lazyParsing parse the values when they are read when setRaw to true
+     */
+    public void setLazyParsing(final boolean lazyParsing) {
+        this.lazyParsing = lazyParsing;
+    }
+
+    /**
+     * Returns the inference of the column types used when reading files.
+     *
+     * @return the type inference or null when not specified
+     */
+    public ColumnTypeInference getTypeInference() {
+        return typeInference;
+    }
+
+    /**
+     * Sets the inference of the types of columns without a type in the column definition. The types are inferred
+     * from a sample of the first rows, so sorting, querying and reporting works on typed values instead of
+     * Strings.
+     * <pre>{@code
+     * csv.setTypeInference(new ColumnTypeInference());
+     * csv.readFile(file);
+     * }</pre>
+     *
+     * @param typeInference the type inference or null to read columns without a type as StringColumn
+     */
+    public void setTypeInference(final ColumnTypeInference typeInference) {
+        this.typeInference = typeInference;
+    }
+
+    /**
+     * Returns the collector of values that could not be parsed when reading files.
+     *
+     * @return the collector or null when not specified
+     */
+    public ParseErrors getParseErrors() {
+        return parseErrors;
+    }
+
+    /**
+     * Sets the collector of values that can not be parsed when reading files. The values are then left null and
+     * reading continues until the error budget is exceeded, instead of stopping at the first value.
+     * <pre>{@code
+     * csv.setParseErrors(new ParseErrors(1000));
+     * csv.readFile(file);
+     * csv.getParseErrors().getErrors();
+     * }</pre>
+     *
+     * @param parseErrors the collector or null to stop reading at the first value that can not be parsed
+     */
+    public void setParseErrors(final ParseErrors parseErrors) {
+        this.parseErrors = parseErrors;
+    }
+
     /**
      * Returns the column with the specified name.
      *
@@ -263,12 +404,12 @@ public final class CSV implements Serializable {
     }
 
     /**
-     * Returns all columns
+     * Returns all columns. The list can not be changed, use the methods of the CSV to change the columns.
      *
      * @return the columns
      */
     public List<Column> getColumns() {
-        return columns;
+        return Collections.unmodifiableList(columns);
     }
 
     /**
@@ -432,6 +573,7 @@ public final class CSV implements Serializable {
             throw new ColumnAlreadyExistException(column);
         }
         columns.add(column);
+        index(column, columns.size() - 1);
         return column;
     }
 
@@ -443,8 +585,13 @@ public final class CSV implements Serializable {
     public void removeColumn(final Column column) {
         column.setCSV(null);
         columns.remove(column);
-        for (Row r : findRows()) {
-            r.setNull(column);
+        reindexColumns();
+        if (store == null) {
+            for (Row r : findRows()) {
+                r.setNull(column);
+            }
+        } else {
+            store.remove(column);
         }
     }
 
@@ -456,6 +603,7 @@ public final class CSV implements Serializable {
      */
     public void swapColumn(final int fromIndex, final int toIndex) {
         Collections.swap(columns, fromIndex, toIndex);
+        reindexColumns();
     }
 
     /**
@@ -468,6 +616,7 @@ public final class CSV implements Serializable {
         Column c1 = getColumn(fromIndex);
         columns.remove(c1);
         columns.add(toIndex, c1);
+        reindexColumns();
     }
 
     /**
@@ -477,7 +626,8 @@ public final class CSV implements Serializable {
      * @return the index
      */
     public int indexOf(final Column column) {
-        return columns.indexOf(column);
+        Integer index = columnIndexes.get(column);
+        return index == null ? COLUMN_NOT_FOUND : index;
     }
 
     /**
@@ -487,14 +637,60 @@ public final class CSV implements Serializable {
      * @return the index
      */
     public int indexOf(final String columnName) {
-        int x = 0;
-        for (Column c : columns) {
-            if (c.getName().equalsIgnoreCase(columnName)) {
-                return x;
-            }
-            x++;
+        Integer index = columnName == null ? null : columnNames.get(toKey(columnName));
+        return index == null ? COLUMN_NOT_FOUND : index;
+    }
+
+    /**
+     * Updates the index of the column names after a column in the CSV is renamed. This is for internal use by
+     * {@link Column#setName(String)} and should not be called directly. Columns that are not in this CSV are
+     * ignored.
+     *
+     * @param column the renamed column
+     */
+    public void updateColumnName(final Column column) {
+        if (column != null && column.getCSV() == this && columnIndexes.containsKey(column)) {
+            reindexColumns();
+        }
+    }
+
+    /**
+     * Adds the column to the index of the columns and the column names.
+     *
+     * @param column the column
+     * @param index  the index of the column
+     */
+    private void index(final Column column, final int index) {
+        columnIndexes.put(column, index);
+        if (column.getName() != null) {
+            columnNames.putIfAbsent(toKey(column.getName()), index);
+        }
+    }
+
+    /**
+     * Builds the index of the columns and the column names again after the columns are changed.
+     */
+    private void reindexColumns() {
+        columnIndexes.clear();
+        columnNames.clear();
+        for (int x = 0; x < columns.size(); x++) {
+            index(columns.get(x), x);
         }
-        return COLUMN_NOT_FOUND;
+    }
+
+    /**
+     * Returns the name of a column in a case that ignores the case, so names that are equal ignoring the case have
+     * the same key like {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param columnName the name of the column
+     * @return the key
+     */
+    private static String toKey(final String columnName) {
+        char[] chars = columnName.toCharArray();
+        for (int x = 0; x < chars.length; x++) {
+            chars[x] = Character.toLowerCase(Character.toUpperCase(chars[x]));
+        }
+        return new String(chars);
     }
 
     /**
@@ -503,8 +699,7 @@ public final class CSV implements Serializable {
      * @param columnIndex the column index
      */
     public void removeColumn(final int columnIndex) {
-        Column c = columns.get(columnIndex);
-        columns.remove(c);
+        removeColumn(columns.get(columnIndex));
     }
 
     /**
@@ -633,20 +828,36 @@ public final class CSV implements Serializable {
      * @return the newly created row
      */
     public Row addRow(final int rowIndex) {
-        Row r = new Row();
+        Row r = store(new Row());
         rows.add(rowIndex, r);
         return r;
     }
 
     /**
-     * Adds a new row.
+     * Adds a new row. When columnar, a row stored in another columnar CSV is copied and the copy is added.
      *
      * @param row the row to add
      * @return the row being added
      */
-    private Row addRow(final Row row) {
-        rows.add(row);
-        return row;
+    public Row addRow(final Row row) {
+        Row r = store(row);
+        rows.add(r);
+        return r;
+    }
+
+    /**
+     * Moves the values of the row to the column store when columnar.
+     *
+     * @param row the row
+     * @return the row, or a copy when the row is stored in another CSV
+     */
+    private Row store(final Row row) {
+        if (store == null || row.isStoredIn(store)) {
+            return row;
+        }
+        Row r = row.isStoredIn(null) ? row : new Row(row.copyValues());
+        r.attach(store);
+        return r;
     }
 
     /**
@@ -655,7 +866,10 @@ public final class CSV implements Serializable {
      * @param index the index to setNull
      */
     public void removeRow(final int index) {
-        rows.remove(index);
+        Row r = rows.remove(index);
+        if (store != null && r.isStoredIn(store)) {
+            r.detach();
+        }
     }
 
     /**
@@ -665,14 +879,25 @@ public final class CSV implements Serializable {
      * @param endRowIndex  the end index
      */
     public void removeRowsBetween(final int fromRowIndex, final int endRowIndex) {
-        rows.subList(fromRowIndex, endRowIndex + 1).clear();
+        List<Row> removed = rows.subList(fromRowIndex, endRowIndex + 1);
+        if (store != null) {
+            for (Row r : removed) {
+                if (r.isStoredIn(store)) {
+                    r.detach();
+                }
+            }
+        }
+        removed.clear();
     }
 
     /**
-     * Removes all rows.
+     * Removes all rows. When columnar, the removed rows keep their values in the previous column store.
      */
     public void removeRows() {
         rows.clear();
+        if (store != null) {
+            store = new ColumnStore(store.isOffHeap());
+        }
     }
 
     /**
@@ -680,7 +905,101 @@ public final class CSV implements Serializable {
      */
     public void clear() {
         columns.clear();
+        reindexColumns();
+        removeRows();
+    }
+
+    /**
+     * Returns true if the values of the rows are stored column by column.
+     *
+     * @return true when columnar
+     */
+    public boolean isColumnar() {
+        return store != null;
+    }
+
+    /**
+     * Sets whether the values of the rows are stored column by column. Each column then keeps the values of all
+     * rows in one array, and each row is a view of its index in the arrays. This uses far less memory than a map
+     * of values in each row, and the values of a column are read faster by queries and reports. The values of
+     * existing rows are moved to the new storage.
+     * <pre>{@code
+     * CSV csv = new CSV();
+     * csv.setColumnar(true);
+     * csv.readFile(file);
+     * }</pre>
+     *
+     * @param columnar true to store the values column by column
+     */
+    public void setColumnar(final boolean columnar) {
+        if (columnar != isColumnar()) {
+            moveRows(columnar ? new ColumnStore() : null);
+        }
+    }
+
+    /**
+     * Returns true if the values of the rows are stored column by column outside the Java heap.
+     *
+     * @return true when off heap
+     */
+    public boolean isOffHeap() {
+        return store != null && store.isOffHeap();
+    }
+
+    /**
+     * Sets whether the values of the rows are stored column by column outside the Java heap. The values then take
+     * no room in the heap and are not traversed by the garbage collector, so datasets larger than the heap can be
+     * read. The memory is released when the CSV is closed. Turning it off moves the values back to columns in the
+     * heap.
+     * <pre>{@code
+     * try (CSV csv = new CSV()) {
+     *     csv.setOffHeap(true);
+     *     csv.readFile(file);
+     * }
+     * }</pre>
+     *
+     * @param offHeap true to store the values outside the Java heap
+     * @see #close()
+     */
+    public void setOffHeap(final boolean offHeap) {
+        if (offHeap != isOffHeap()) {
+            moveRows(new ColumnStore(offHeap));
+        }
+    }
+
+    /**
+     * Moves the values of the rows to the store, and releases the previous store.
+     *
+     * @param next the store, or null to store the values in each row
+     */
+    private void moveRows(final ColumnStore next) {
+        ColumnStore previous = store;
+        store = next;
+        for (int x = 0; x < rows.size(); x++) {
+            Row r = rows.get(x);
+            if (previous != null && r.isStoredIn(previous)) {
+                r.detach();
+            }
+            if (next != null) {
+                rows.set(x, store(r));
+            }
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Removes all rows and releases the memory of their values when stored off heap. Rows kept after closing can
+     * no longer be read when they were stored off heap.
+     */
+    @Override
+    public void close() {
         rows.clear();
+        if (store != null) {
+            store.close();
+            store = new ColumnStore(store.isOffHeap());
+        }
     }
 
     /**
@@ -860,6 +1179,22 @@ public final class CSV implements Serializable {
         return c;
     }
 
+    /**
+     * Creates a reader using the charset, separator and quote character of this CSV.
+     *
+     * @return the reader
+     */
+    private CsvReader createReader() {
+        CsvReader reader = new CsvReader(charset, separatorChar, quoteChar);
+        reader.setLazyParsing(lazyParsing);
+        reader.setTypeInference(typeInference);
+        reader.setParseErrors(parseErrors);
+        if (dialect != null) {
+            reader.setDialect(dialect);
+        }
+        return reader;
+    }
+
     /**
      * Reads the File using the specified reader. System default charset is used when the charset is not
      * specified.
@@ -874,6 +1209,45 @@ public final class CSV implements Serializable {
         reader.readFile(csvFile, this);
     }
 
+    /**
+     * Reads the rows from fromRow to toRow of the CSV file, where 0 is the first row after the column names. The
+     * byte offset of every row is stored in a {@link RowIndex} next to the file the first time, so paging through
+     * large files does not parse the rows before the page. Compressed files and files in charsets that can not be
+     * indexed are read without an index.
+     *
+     * @param csvFile the file to read
+     * @param fromRow the index of the first row to read
+     * @param toRow   the index after the last row to read
+     * @throws CsvReaderException when the file could not be read
+     */
+    public void readRows(final File csvFile, final int fromRow, final int toRow) throws CsvReaderException {
+        clear();
+        this.file = csvFile;
+        CsvReader reader = createReader();
+        char quote = getIndexQuoteChar();
+        try {
+            if (RowIndex.isSupported(csvFile, getCharset(), quote)
+                    && (dialect == null || !Dialect.CR.equals(dialect.getLineEnding()))) {
+                reader.setRowIndex(RowIndex.open(csvFile, quote));
+            }
+        } catch (IOException e) {
+            throw new CsvReaderException(csvFile, e);
+        }
+        reader.readRows(csvFile, this, fromRow, toRow);
+    }
+
+    /**
+     * Returns the quote character the files are read with.
+     *
+     * @return the quote character
+     */
+    private char getIndexQuoteChar() {
+        if (dialect != null) {
+            return dialect.getQuoteChar();
+        }
+        return quoteChar == null ? QUOTE_DOUBLE : quoteChar;
+    }
+
     /**
      * Reads the CSV file with the specified separator and quote character.
      *
@@ -881,16 +1255,177 @@ public final class CSV implements Serializable {
      * @throws CsvReaderException when the file could not be read
      */
     public void readFile(final File csvFile) throws CsvReaderException {
-        CsvReader reader = new CsvReader(charset, separatorChar, quoteChar);
+        CsvReader reader = createReader();
+        readDatasetFile(csvFile, reader);
+    }
+
+    /**
+     * Reads only the specified columns of the CSV file. The other columns are skipped while reading and are not
+     * added to this CSV.
+     *
+     * @param csvFile     the file to read
+     * @param columnNames the names of the columns to read
+     * @throws CsvReaderException when the file could not be read
+     */
+    public void readFile(final File csvFile, final String... columnNames) throws CsvReaderException {
+        CsvReader reader = createReader();
+        reader.setProjection(columnNames);
+        readDatasetFile(csvFile, reader);
+    }
+
+    /**
+     * Reads only the rows of the CSV file that matches the query. The query is evaluated while the file is read,
+     * and only the fields used by the query are parsed for rows that do not match. The rows are sorted by the
+     * sort orders of the query.
+     * <pre>{@code
+     * Query query = new Query();
+     * query.isGreaterThan(new IntegerColumn("Presidency"), 40);
+     * csv.readFile(file, query);
+     * }</pre>
+     *
+     * @param csvFile the file to read
+     * @param query   the query the rows must match
+     * @throws CsvReaderException when the file could not be read
+     */
+    public void readFile(final File csvFile, final Query query) throws CsvReaderException {
+        CsvReader reader = createReader();
+        reader.setQuery(query);
+        readDatasetFile(csvFile, reader);
+        if (!query.getSorters().isEmpty()) {
+            rows.sort(new RowSorter(query.getSorters()));
+        }
+    }
+
+    /**
+     * Reads the CSV file using the specified amount of threads. Large files with an ASCII compatible charset are
+     * split into ranges that are parsed in parallel. The rows are kept in the same order as in the file.
+     *
+     * @param csvFile     the file to read
+     * @param parallelism the amount of threads
+     * @throws CsvReaderException when the file could not be read
+     */
+    public void readFile(final File csvFile, final int parallelism) throws CsvReaderException {
+        CsvReader reader = createReader();
+        reader.setParallelism(parallelism);
         readDatasetFile(csvFile, reader);
     }
 
+    /**
+     * Reads the CSV file with the path. The path may belong to any file system, such as a zip file system.
+     *
+     * @param path the path of the file to read
+     * @throws CsvReaderException when the file could not be read
+     */
+    public void readFile(final Path path) throws CsvReaderException {
+        clear();
+        this.file = path.getFileSystem() == FileSystems.getDefault() ? path.toFile() : null;
+        createReader().readPath(path, this);
+    }
+
+    /**
+     * Reads CSV from the stream without storing it in a file first. The stream is closed when all rows are read.
+     *
+     * @param in the stream to read
+     * @throws CsvReaderException when the stream could not be read
+     */
+    public void readStream(final InputStream in) throws CsvReaderException {
+        clear();
+        this.file = null;
+        createReader().readStream(in, this);
+    }
+
+    /**
+     * Reads CSV from the channel without storing it in a file first. The channel is closed when all rows are read.
+     *
+     * @param channel the channel to read
+     * @throws CsvReaderException when the channel could not be read
+     */
+    public void readChannel(final ReadableByteChannel channel) throws CsvReaderException {
+        clear();
+        this.file = null;
+        createReader().readChannel(channel, this);
+    }
+
+    /**
+     * Reads CSV from the classpath resource with the name.
+     *
+     * @param name the name of the resource
+     * @throws CsvReaderException when the resource could not be found or read
+     */
+    public void readResource(final String name) throws CsvReaderException {
+        clear();
+        this.file = null;
+        createReader().readResource(name, this);
+    }
+
+    /**
+     * Opens the CSV file and returns a lazy stream of its rows. The columns are read into this CSV, but the rows
+     * are read one at a time while the stream is consumed and are never added to this CSV. The stream must be
+     * closed to close the file.
+     * <pre>{@code
+     * try (Stream<Row> rows = csv.readFileStream(file)) {
+     *     rows.filter(r -> r.get(presidency) > 10).forEach(System.out::println);
+     * }
+     * }</pre>
+     *
+     * @param csvFile the file to read
+     * @return the stream of rows
+     * @throws CsvReaderException when the file could not be read
+     */
     public Stream<Row> readFileStream(final File csvFile) throws CsvReaderException {
-        CsvReader reader = new CsvReader(charset, separatorChar, quoteChar);
-        return null;
+        clear();
+        this.file = csvFile;
+        CsvReader reader = createReader();
+        reader.openFile(csvFile, this);
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
     }
 
 
+    /**
+     * Returns a publisher of the rows in the CSV file for subscribers that may be slower than the parser. The rows
+     * are parsed ahead into a bounded buffer and only delivered as requested. The columns are read into this CSV
+     * when the file is opened, but the rows are not added.
+     *
+     * @param csvFile the file to read
+     * @return the publisher
+     */
+    public Flow.Publisher<Row> readFilePublisher(final File csvFile) {
+        clear();
+        this.file = csvFile;
+        return new CsvPublisher(csvFile, createReader(), this);
+    }
+
+    /**
+     * Follows a CSV file that is appended to. The column names and the rows written so far are read immediately,
+     * and each {@link CsvFollower#poll()} then adds only the rows appended since the last poll.
+     * <pre>{@code
+     * try (CsvFollower follower = csv.followFile(file)) {
+     *     follower.poll();
+     * }
+     * }</pre>
+     *
+     * @param csvFile the file to follow
+     * @return the follower
+     * @throws CsvReaderException when the file could not be read
+     */
+    public CsvFollower followFile(final File csvFile) throws CsvReaderException {
+        clear();
+        this.file = csvFile;
+        Character separator = dialect == null ? separatorChar : (Character) dialect.getSeparatorChar();
+        Character quote = dialect == null ? quoteChar : (Character) dialect.getQuoteChar();
+        CsvFollower follower = new CsvFollower(csvFile, this, autoDetectCharset ? null : charset, separator, quote);
+        follower.poll();
+        return follower;
+    }
+
     /**
      * Reads the csvFile and appends the rows after the last row.
      *
@@ -902,19 +1437,55 @@ public final class CSV implements Serializable {
     }
 
     /**
-     * Reads the csvFile from the specified rowIndex and appends the rows after the last row.
+     * Reads the csvFile from the specified rowIndex and appends the rows after the last row. A stored row index
+     * that is not stale is used to move directly to the row.
      *
      * @param file the file to open
      * @param rowIndex start reading from this row
      * @throws CsvReaderException when the csv file is corrupt or could not be read
      */
     public void appendFile(final File file, final int rowIndex) throws CsvReaderException {
-        CsvReader reader = new CsvReader(charset, separatorChar, quoteChar);
+        CsvReader reader = createReader();
+        reader.setRowIndex(RowIndex.load(file, getIndexQuoteChar()));
         reader.setAppendMode(true);
         reader.setSkipRows(rowIndex);
         reader.readFile(file, this);
     }
 
+    /**
+     * Reads the files concurrently and appends their rows after the last row in the order of the files. The files
+     * must have the same columns as this CSV, or as the first file when this CSV has no columns.
+     *
+     * @param files       the files to read
+     * @param parallelism the amount of files to read at a time
+     * @throws CsvReaderException when a file could not be read or has other columns
+     */
+    public void appendFiles(final List<File> files, final int parallelism) throws CsvReaderException {
+        new CsvFilesReader(this::createReader, parallelism).appendFiles(files, this);
+    }
+
+    /**
+     * Reads the files in the folder with names matching the glob concurrently, and appends their rows after the
+     * last row in the order of the file names.
+     * <pre>{@code
+     * csv.appendFiles(Paths.get("partitions"), "*.csv", 8);
+     * }</pre>
+     *
+     * @param folder      the folder
+     * @param glob        the glob pattern, like <code>*.csv</code>
+     * @param parallelism the amount of files to read at a time
+     * @throws CsvReaderException when a file could not be read or has other columns
+     */
+    public void appendFiles(final Path folder, final String glob, final int parallelism) throws CsvReaderException {
+        List<File> files;
+        try {
+            files = CsvFilesReader.listFiles(folder, glob);
+        } catch (IOException e) {
+            throw new CsvReaderException(folder.toFile(), e);
+        }
+        appendFiles(files, parallelism);
+    }
+
     /**
      * Writes the contents to a file using the specified Writer.
      *
@@ -967,14 +1538,35 @@ public final class CSV implements Serializable {
     }
 
     /**
-     * Builds a FrequencyDistribution table for the specified column.
+     * Builds a FrequencyDistribution table for the specified column. When columnar, the codes of the values are
+     * counted instead of the values.
      *
      * @param column the column
      * @return a FrequencyDistribution table
      */
     public FrequencyDistribution<String> buildFrequencyDistribution(final StringColumn column) {
         FrequencyDistribution<String> cv = new FrequencyDistribution<>(column);
-        rows.stream().forEach(r -> cv.addValue(r.get(column)));
+        StringDictionary dictionary = store == null ? null : store.getDictionary(column);
+        if (dictionary == null) {
+            rows.stream().forEach(r -> cv.addValue(r.get(column)));
+            return cv;
+        }
+        int[] counts = new int[dictionary.size()];
+        int nulls = 0;
+        for (Row r : rows) {
+            int code = r.getCode(column);
+            if (code < 0) {
+                nulls++;
+            } else {
+                counts[code]++;
+            }
+        }
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                cv.addValue(dictionary.getValue(code), counts[code]);
+            }
+        }
+        cv.addValue(null, nulls);
         return cv;
     }
 
@@ -0,0 +1,344 @@
+package no.laukvik.csv;
+
+import no.laukvik.csv.columns.Column;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the values of the rows in a CSV column by column, where each column keeps its values in its own array.
+ * Integer, float, double, boolean and date columns keep their values in primitive arrays, and string columns keep
+ * the codes of their values in a dictionary, see {@link ColumnVector}.
+ *
+ * <p>Each row is given a slot, which is its index in the arrays of every column. The slot of a row never changes,
+ * so rows can be moved and sorted without moving their values. The slot of a removed row is reused by the next
+ * row added.</p>
+ *
+ * <p>The columns are found by identity, and then by name like the map of a row, so a column with the same name as
+ * a column in the store finds the same values.</p>
+ *
+ * <p>An off heap store keeps the values in direct buffers outside the Java heap, see {@link OffHeapVector}. The
+ * values can no longer be read or changed after the store is closed.</p>
+ */
+final class ColumnStore implements Serializable {
+
+    /**
+     * The initial amount of slots in each column.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The values of each column, including columns found by name.
+     */
+    private final Map<Column, ColumnVector> columns;
+    /**
+     * The values of each column in the order they were added.
+     */
+    private final List<ColumnVector> values;
+    /**
+     * The amount of slots given to rows, including the free slots.
+     */
+    private int slotCount;
+    /**
+     * The slots of removed rows.
+     */
+    private int[] freeSlots;
+    /**
+     * The amount of free slots.
+     */
+    private int freeCount;
+    /**
+     * Whether the values are stored outside the Java heap.
+     */
+    private final boolean offHeap;
+    /**
+     * Whether the store is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates an empty store.
+     */
+    ColumnStore() {
+        this(false);
+    }
+
+    /**
+     * Creates an empty store keeping the values on or off the Java heap.
+     *
+     * @param offHeap true to store the values outside the Java heap
+     */
+    ColumnStore(final boolean offHeap) {
+        this.columns = new IdentityHashMap<>();
+        this.values = new ArrayList<>();
+        this.freeSlots = new int[INITIAL_CAPACITY];
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Returns true if the values are stored outside the Java heap.
+     *
+     * @return true when off heap
+     */
+    boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Releases the values of all columns. The store can not be used after it is closed.
+     */
+    void close() {
+        for (ColumnVector v : values) {
+            v.free();
+        }
+        values.clear();
+        columns.clear();
+        closed = true;
+    }
+
+    /**
+     * Returns a slot for a new row.
+     *
+     * @return the slot
+     */
+    int allocate() {
+        checkOpen();
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Clears the values of the slot and makes it available for a new row.
+     *
+     * @param slot the slot
+     */
+    void release(final int slot) {
+        checkOpen();
+        for (ColumnVector v : values) {
+            v.set(slot, null);
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Returns the value of the column in the slot.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return the value, or null when not set
+     */
+    Object get(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        return v == null ? null : v.get(slot);
+    }
+
+    /**
+     * Returns true if the values of the column are parsed before they are stored, which they are in a primitive
+     * array and off heap.
+     *
+     * @param column the column
+     * @return true when parsed
+     */
+    boolean isParsed(final Column column) {
+        ColumnVector v = find(column, false);
+        if (v == null) {
+            return offHeap || ColumnVector.isPrimitiveType(column);
+        }
+        return v.isParsed();
+    }
+
+    /**
+     * Returns true if the value of the column in the slot is null.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return true when null
+     */
+    boolean isNull(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        return v == null || v.isNull(slot);
+    }
+
+    /**
+     * Returns the value of the column in the slot as an int, or 0 when null.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return the value
+     */
+    int getInt(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        return v == null || v.isNull(slot) ? 0 : v.getInt(slot);
+    }
+
+    /**
+     * Returns the value of the column in the slot as a float, or 0 when null.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return the value
+     */
+    float getFloat(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        return v == null || v.isNull(slot) ? 0 : v.getFloat(slot);
+    }
+
+    /**
+     * Returns the value of the column in the slot as a double, or 0 when null.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return the value
+     */
+    double getDouble(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        return v == null || v.isNull(slot) ? 0 : v.getDouble(slot);
+    }
+
+    /**
+     * Returns the value of the column in the slot as a boolean, or false when null.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return the value
+     */
+    boolean getBoolean(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        return v != null && !v.isNull(slot) && v.getBoolean(slot);
+    }
+
+    /**
+     * Returns the value of the column in the slot as a long, or 0 when null. Dates are returned as the epoch day of
+     * a LocalDate and the epoch milliseconds of a Date.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return the value
+     */
+    long getLong(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        return v == null || v.isNull(slot) ? 0 : v.getLong(slot);
+    }
+
+    /**
+     * Returns the dictionary of the values of the column.
+     *
+     * @param column the column
+     * @return the dictionary, or null when the values are not encoded
+     */
+    StringDictionary getDictionary(final Column column) {
+        ColumnVector v = find(column, false);
+        return v instanceof ColumnVector.StringVector ? ((ColumnVector.StringVector) v).getDictionary() : null;
+    }
+
+    /**
+     * Returns the code of the value of the column in the slot.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @return the code, or -1 when the value is null or not encoded
+     */
+    int getCode(final Column column, final int slot) {
+        ColumnVector v = find(column, false);
+        if (v instanceof ColumnVector.StringVector && !v.isNull(slot)) {
+            return ((ColumnVector.StringVector) v).getCode(slot);
+        }
+        return -1;
+    }
+
+    /**
+     * Sets the value of the column in the slot.
+     *
+     * @param column the column
+     * @param slot   the slot
+     * @param value  the value, or null
+     */
+    void set(final Column column, final int slot, final Object value) {
+        ColumnVector v = find(column, true);
+        if (v == null) {
+            if (value == null) {
+                return;
+            }
+            if (offHeap) {
+                v = OffHeapVector.create(column);
+            } else {
+                v = ColumnVector.create(column, Math.max(INITIAL_CAPACITY, slotCount));
+            }
+            columns.put(column, v);
+            values.add(v);
+        }
+        v.set(slot, value);
+    }
+
+    /**
+     * Copies the values in the slot to the map.
+     *
+     * @param slot the slot
+     * @param map  the map
+     */
+    void copy(final int slot, final Map<Column, Object> map) {
+        checkOpen();
+        for (ColumnVector v : values) {
+            if (!v.isNull(slot)) {
+                map.put(v.getColumn(), v.getValue(slot));
+            }
+        }
+    }
+
+    /**
+     * Removes the values of the column.
+     *
+     * @param column the column
+     */
+    void remove(final Column column) {
+        ColumnVector v = find(column, false);
+        if (v != null) {
+            v.free();
+            values.remove(v);
+            columns.values().removeIf(found -> found == v);
+        }
+    }
+
+    /**
+     * Returns the values of the column by identity, or by name when the column is another instance. Only changes
+     * remember the other instance, so reading values does not change the store.
+     *
+     * @param column   the column
+     * @param remember whether to remember the other instance of the column
+     * @return the values, or null when the column has no values
+     */
+    private ColumnVector find(final Column column, final boolean remember) {
+        checkOpen();
+        ColumnVector v = columns.get(column);
+        if (v == null) {
+            String name = column.getName();
+            for (ColumnVector other : values) {
+                if (other.getColumn().getName().equals(name)) {
+                    if (remember) {
+                        columns.put(column, other);
+                    }
+                    return other;
+                }
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Throws an exception when the store is closed.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The values are released");
+        }
+    }
+}
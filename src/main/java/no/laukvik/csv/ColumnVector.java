@@ -0,0 +1,700 @@
+package no.laukvik.csv;
+
+import no.laukvik.csv.columns.BooleanColumn;
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.DateColumn;
+import no.laukvik.csv.columns.DoubleColumn;
+import no.laukvik.csv.columns.FloatColumn;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
+import no.laukvik.csv.columns.StringColumn;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * The values of a column in a {@link ColumnStore}, stored in a growable array indexed by the slot of the row.
+ *
+ * <p>Integer, float, double and boolean columns are stored in primitive arrays, and dates as the epoch day or
+ * epoch milliseconds in a long array. Which slots are null is kept in a separate bitmap, so the primitive values
+ * can be read without boxing. String columns are stored as int codes in a {@link StringDictionary}. Other columns
+ * are stored as objects.</p>
+ */
+abstract class ColumnVector implements Serializable {
+
+    /**
+     * The amount of bits in a word of a bitmap.
+     */
+    private static final int WORD_BITS = 64;
+    /**
+     * The amount of bits to shift the slot to find its word.
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * The column.
+     */
+    private final Column column;
+    /**
+     * The bitmap of the slots that are not null.
+     */
+    private long[] validity;
+
+    /**
+     * Creates the values of the column.
+     *
+     * @param column the column
+     */
+    ColumnVector(final Column column) {
+        this.column = column;
+        this.validity = new long[0];
+    }
+
+    /**
+     * Creates the values of the column, using a primitive array when the column type has one.
+     *
+     * @param column   the column
+     * @param capacity the initial amount of slots
+     * @return the values
+     */
+    static ColumnVector create(final Column column, final int capacity) {
+        if (column instanceof IntegerColumn) {
+            return new IntVector(column, capacity);
+        } else if (column instanceof FloatColumn) {
+            return new FloatVector(column, capacity);
+        } else if (column instanceof DoubleColumn) {
+            return new DoubleVector(column, capacity);
+        } else if (column instanceof BooleanColumn) {
+            return new BooleanVector(column, capacity);
+        } else if (column instanceof LocalDateColumn) {
+            return new LocalDateVector(column, capacity);
+        } else if (column instanceof DateColumn) {
+            return new DateVector(column, capacity);
+        } else if (column instanceof StringColumn) {
+            return new StringVector(column, capacity);
+        }
+        return new ObjectVector(column, capacity);
+    }
+
+    /**
+     * Returns true if the values of the column are stored in a primitive array, including the codes of strings.
+     *
+     * @param column the column
+     * @return true when primitive
+     */
+    static boolean isPrimitiveType(final Column column) {
+        return column instanceof IntegerColumn || column instanceof FloatColumn || column instanceof DoubleColumn
+                || column instanceof BooleanColumn || column instanceof LocalDateColumn || column instanceof DateColumn
+                || column instanceof StringColumn;
+    }
+
+    /**
+     * Returns the column.
+     *
+     * @return the column
+     */
+    final Column getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns true if the slot is null.
+     *
+     * @param slot the slot
+     * @return true when null
+     */
+    boolean isNull(final int slot) {
+        int word = slot >>> WORD_SHIFT;
+        return word >= validity.length || (validity[word] & (1L << slot)) == 0;
+    }
+
+    /**
+     * Returns the value in the slot.
+     *
+     * @param slot the slot
+     * @return the value, or null
+     */
+    Object get(final int slot) {
+        return isNull(slot) ? null : getValue(slot);
+    }
+
+    /**
+     * Sets the value in the slot.
+     *
+     * @param slot  the slot
+     * @param value the value, or null
+     */
+    void set(final int slot, final Object value) {
+        int word = slot >>> WORD_SHIFT;
+        if (value == null) {
+            if (word < validity.length) {
+                validity[word] &= ~(1L << slot);
+                clearValue(slot);
+            }
+            return;
+        }
+        if (slot >= capacity()) {
+            grow(slot + 1);
+        }
+        if (word >= validity.length) {
+            validity = Arrays.copyOf(validity, Math.max(word + 1, (capacity() + WORD_BITS - 1) / WORD_BITS));
+        }
+        setValue(slot, value);
+        validity[word] |= 1L << slot;
+    }
+
+    /**
+     * Returns true if only parsed values are stored, so the values that are null are known without reading them.
+     *
+     * @return true when parsed
+     */
+    boolean isParsed() {
+        return true;
+    }
+
+    /**
+     * Returns the amount of slots in the array.
+     *
+     * @return the amount of slots
+     */
+    abstract int capacity();
+
+    /**
+     * Grows the array to hold at least the amount of slots.
+     *
+     * @param minCapacity the minimum amount of slots
+     */
+    abstract void grow(int minCapacity);
+
+    /**
+     * Releases the memory used by the values.
+     */
+    void free() {
+    }
+
+    /**
+     * Returns the value in a slot that is not null.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    abstract Object getValue(int slot);
+
+    /**
+     * Sets the value in the slot.
+     *
+     * @param slot  the slot
+     * @param value the value
+     */
+    abstract void setValue(int slot, Object value);
+
+    /**
+     * Releases the value in the slot after it is set to null.
+     *
+     * @param slot the slot
+     */
+    void clearValue(final int slot) {
+    }
+
+    /**
+     * Returns the value in a slot that is not null as an int.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    int getInt(final int slot) {
+        return ((Number) getValue(slot)).intValue();
+    }
+
+    /**
+     * Returns the value in a slot that is not null as a float.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    float getFloat(final int slot) {
+        return ((Number) getValue(slot)).floatValue();
+    }
+
+    /**
+     * Returns the value in a slot that is not null as a double.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    double getDouble(final int slot) {
+        return ((Number) getValue(slot)).doubleValue();
+    }
+
+    /**
+     * Returns the value in a slot that is not null as a boolean.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    boolean getBoolean(final int slot) {
+        return (Boolean) getValue(slot);
+    }
+
+    /**
+     * Returns the value in a slot that is not null as a long, which is the epoch day of a LocalDate and the epoch
+     * milliseconds of a Date.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    long getLong(final int slot) {
+        Object value = getValue(slot);
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).toEpochDay();
+        } else if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * The values of any type of column.
+     */
+    static final class ObjectVector extends ColumnVector {
+        /**
+         * The values.
+         */
+        private Object[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        ObjectVector(final Column column, final int capacity) {
+            super(column);
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        boolean isParsed() {
+            return false;
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            values = Arrays.copyOf(values, Math.max(minCapacity, values.length * 2));
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            values[slot] = value;
+        }
+
+        @Override
+        void clearValue(final int slot) {
+            if (slot < values.length) {
+                values[slot] = null;
+            }
+        }
+    }
+
+    /**
+     * The values of an IntegerColumn.
+     */
+    static final class IntVector extends ColumnVector {
+        /**
+         * The values.
+         */
+        private int[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        IntVector(final Column column, final int capacity) {
+            super(column);
+            this.values = new int[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            values = Arrays.copyOf(values, Math.max(minCapacity, values.length * 2));
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            values[slot] = (Integer) value;
+        }
+
+        @Override
+        int getInt(final int slot) {
+            return values[slot];
+        }
+    }
+
+    /**
+     * The values of a FloatColumn.
+     */
+    static final class FloatVector extends ColumnVector {
+        /**
+         * The values.
+         */
+        private float[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        FloatVector(final Column column, final int capacity) {
+            super(column);
+            this.values = new float[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            values = Arrays.copyOf(values, Math.max(minCapacity, values.length * 2));
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            values[slot] = (Float) value;
+        }
+
+        @Override
+        float getFloat(final int slot) {
+            return values[slot];
+        }
+    }
+
+    /**
+     * The values of a DoubleColumn.
+     */
+    static final class DoubleVector extends ColumnVector {
+        /**
+         * The values.
+         */
+        private double[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        DoubleVector(final Column column, final int capacity) {
+            super(column);
+            this.values = new double[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            values = Arrays.copyOf(values, Math.max(minCapacity, values.length * 2));
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            values[slot] = (Double) value;
+        }
+
+        @Override
+        double getDouble(final int slot) {
+            return values[slot];
+        }
+    }
+
+    /**
+     * The values of a BooleanColumn, stored as a bitmap.
+     */
+    static final class BooleanVector extends ColumnVector {
+        /**
+         * The bitmap of the slots that are true.
+         */
+        private long[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        BooleanVector(final Column column, final int capacity) {
+            super(column);
+            this.values = new long[(capacity + WORD_BITS - 1) / WORD_BITS];
+        }
+
+        @Override
+        int capacity() {
+            return values.length * WORD_BITS;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            values = Arrays.copyOf(values, Math.max((minCapacity + WORD_BITS - 1) / WORD_BITS, values.length * 2));
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return getBoolean(slot);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            if ((Boolean) value) {
+                values[slot >>> WORD_SHIFT] |= 1L << slot;
+            } else {
+                values[slot >>> WORD_SHIFT] &= ~(1L << slot);
+            }
+        }
+
+        @Override
+        boolean getBoolean(final int slot) {
+            return (values[slot >>> WORD_SHIFT] & (1L << slot)) != 0;
+        }
+    }
+
+    /**
+     * The values of a LocalDateColumn, stored as the epoch day.
+     */
+    static final class LocalDateVector extends ColumnVector {
+        /**
+         * The epoch days.
+         */
+        private long[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        LocalDateVector(final Column column, final int capacity) {
+            super(column);
+            this.values = new long[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            values = Arrays.copyOf(values, Math.max(minCapacity, values.length * 2));
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return LocalDate.ofEpochDay(values[slot]);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            values[slot] = ((LocalDate) value).toEpochDay();
+        }
+
+        @Override
+        long getLong(final int slot) {
+            return values[slot];
+        }
+    }
+
+    /**
+     * The values of a DateColumn, stored as the epoch milliseconds. A new Date is returned each time the value is
+     * read, so changing the Date does not change the value.
+     */
+    static final class DateVector extends ColumnVector {
+        /**
+         * The epoch milliseconds.
+         */
+        private long[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        DateVector(final Column column, final int capacity) {
+            super(column);
+            this.values = new long[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            values = Arrays.copyOf(values, Math.max(minCapacity, values.length * 2));
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return new Date(values[slot]);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            values[slot] = ((Date) value).getTime();
+        }
+
+        @Override
+        long getLong(final int slot) {
+            return values[slot];
+        }
+    }
+
+    /**
+     * The values of a StringColumn, stored as the codes of the values in a dictionary. When there are more than
+     * {@link #MAX_CODES} distinct values the column is not categorical after all, and the values are decoded and
+     * stored as strings.
+     */
+    static final class StringVector extends ColumnVector {
+        /**
+         * The maximum amount of distinct values encoded.
+         */
+        static final int MAX_CODES = 1 << 16;
+
+        /**
+         * The dictionary, or null when the values are stored as strings.
+         */
+        private StringDictionary dictionary;
+        /**
+         * The codes, or null when the values are stored as strings.
+         */
+        private int[] codes;
+        /**
+         * The values, or null when the values are encoded.
+         */
+        private String[] values;
+
+        /**
+         * Creates the values.
+         *
+         * @param column   the column
+         * @param capacity the initial amount of slots
+         */
+        StringVector(final Column column, final int capacity) {
+            super(column);
+            this.dictionary = new StringDictionary();
+            this.codes = new int[capacity];
+        }
+
+        /**
+         * Returns the dictionary.
+         *
+         * @return the dictionary, or null when the values are not encoded
+         */
+        StringDictionary getDictionary() {
+            return dictionary;
+        }
+
+        /**
+         * Returns the code of the value in a slot that is not null.
+         *
+         * @param slot the slot
+         * @return the code, or -1 when the values are not encoded
+         */
+        int getCode(final int slot) {
+            return dictionary == null ? -1 : codes[slot];
+        }
+
+        @Override
+        int capacity() {
+            return dictionary == null ? values.length : codes.length;
+        }
+
+        @Override
+        void grow(final int minCapacity) {
+            if (dictionary == null) {
+                values = Arrays.copyOf(values, Math.max(minCapacity, values.length * 2));
+            } else {
+                codes = Arrays.copyOf(codes, Math.max(minCapacity, codes.length * 2));
+            }
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return dictionary == null ? values[slot] : dictionary.getValue(codes[slot]);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            String s = (String) value;
+            if (dictionary != null && dictionary.size() >= MAX_CODES && dictionary.getCode(s) < 0) {
+                decode();
+            }
+            if (dictionary == null) {
+                values[slot] = s;
+            } else {
+                codes[slot] = dictionary.encode(s);
+            }
+        }
+
+        @Override
+        void clearValue(final int slot) {
+            if (values != null && slot < values.length) {
+                values[slot] = null;
+            }
+        }
+
+        /**
+         * Replaces the codes with the values, and drops the dictionary.
+         */
+        private void decode() {
+            values = new String[codes.length];
+            for (int x = 0; x < codes.length; x++) {
+                if (!isNull(x)) {
+                    values[x] = dictionary.getValue(codes[x]);
+                }
+            }
+            codes = null;
+            dictionary = null;
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package no.laukvik.csv;
+
+import no.laukvik.csv.columns.BooleanColumn;
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.DateColumn;
+import no.laukvik.csv.columns.DoubleColumn;
+import no.laukvik.csv.columns.FloatColumn;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The values of a column in an off heap {@link ColumnStore}, kept in direct byte buffers outside the Java heap.
+ *
+ * <p>The slots are split in segments of {@link #SEGMENT_SLOTS} slots, so the values grow one segment at a time
+ * without copying. Numbers, booleans and dates are stored with a fixed width in each slot, and which slots are null
+ * is kept in a bitmap next to each segment. Other values are stored as the text returned by
+ * {@link Column#asString(Object)}, encoded as UTF-8 in separate data segments, and parsed again each time they are
+ * read. The text of values that are replaced or set to null is not reused until the values are freed.</p>
+ *
+ * <p>The buffers are released by dropping them in {@link #free()}, and the memory is returned when the buffers are
+ * collected.</p>
+ */
+abstract class OffHeapVector extends ColumnVector {
+
+    /**
+     * The amount of bits to shift a slot to find its segment.
+     */
+    private static final int SEGMENT_SHIFT = 16;
+    /**
+     * The amount of slots in each segment.
+     */
+    static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+    /**
+     * The mask finding the index of a slot in its segment.
+     */
+    private static final int SLOT_MASK = SEGMENT_SLOTS - 1;
+
+    /**
+     * The amount of bytes in each slot.
+     */
+    private final int width;
+    /**
+     * The segments of slots.
+     */
+    private transient List<ByteBuffer> segments;
+    /**
+     * The bitmap of the slots that are not null in each segment.
+     */
+    private transient List<ByteBuffer> validity;
+
+    /**
+     * Creates empty values of the column.
+     *
+     * @param column the column
+     * @param width  the amount of bytes in each slot
+     */
+    OffHeapVector(final Column column, final int width) {
+        super(column);
+        this.width = width;
+        this.segments = new ArrayList<>();
+        this.validity = new ArrayList<>();
+    }
+
+    /**
+     * Creates empty values of the column, with a fixed width when the column type has one.
+     *
+     * @param column the column
+     * @return the values
+     */
+    static OffHeapVector create(final Column column) {
+        if (column instanceof IntegerColumn) {
+            return new IntValues(column);
+        } else if (column instanceof FloatColumn) {
+            return new FloatValues(column);
+        } else if (column instanceof DoubleColumn) {
+            return new DoubleValues(column);
+        } else if (column instanceof BooleanColumn) {
+            return new BooleanValues(column);
+        } else if (column instanceof LocalDateColumn) {
+            return new LocalDateValues(column);
+        } else if (column instanceof DateColumn) {
+            return new DateValues(column);
+        }
+        return new TextValues(column);
+    }
+
+    /**
+     * Allocates a direct buffer.
+     *
+     * @param size the amount of bytes
+     * @return the buffer
+     */
+    static ByteBuffer allocate(final int size) {
+        return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the segment of the slot.
+     *
+     * @param slot the slot
+     * @return the segment
+     */
+    final ByteBuffer segment(final int slot) {
+        return segments.get(slot >>> SEGMENT_SHIFT);
+    }
+
+    /**
+     * Returns the position of the slot in its segment.
+     *
+     * @param slot the slot
+     * @return the position
+     */
+    final int position(final int slot) {
+        return (slot & SLOT_MASK) * width;
+    }
+
+    @Override
+    final boolean isNull(final int slot) {
+        int segment = slot >>> SEGMENT_SHIFT;
+        if (segment >= validity.size()) {
+            return true;
+        }
+        int index = slot & SLOT_MASK;
+        return (validity.get(segment).get(index >>> 3) & (1 << (index & 7))) == 0;
+    }
+
+    @Override
+    final void set(final int slot, final Object value) {
+        int segment = slot >>> SEGMENT_SHIFT;
+        int index = slot & SLOT_MASK;
+        if (value == null) {
+            if (segment < validity.size()) {
+                ByteBuffer bitmap = validity.get(segment);
+                bitmap.put(index >>> 3, (byte) (bitmap.get(index >>> 3) & ~(1 << (index & 7))));
+            }
+            return;
+        }
+        grow(slot + 1);
+        setValue(slot, value);
+        ByteBuffer bitmap = validity.get(segment);
+        bitmap.put(index >>> 3, (byte) (bitmap.get(index >>> 3) | (1 << (index & 7))));
+    }
+
+    @Override
+    final int capacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) segments.size() << SEGMENT_SHIFT);
+    }
+
+    @Override
+    final void grow(final int minCapacity) {
+        while (capacity() < minCapacity) {
+            segments.add(allocate(SEGMENT_SLOTS * width));
+            validity.add(allocate(SEGMENT_SLOTS / Byte.SIZE));
+        }
+    }
+
+    @Override
+    void free() {
+        segments.clear();
+        validity.clear();
+    }
+
+    /**
+     * Writes the segments to the stream.
+     *
+     * @param out the stream
+     * @throws IOException when the segments could not be written
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        write(segments, out);
+        write(validity, out);
+    }
+
+    /**
+     * Reads the segments from the stream.
+     *
+     * @param in the stream
+     * @throws IOException            when the segments could not be read
+     * @throws ClassNotFoundException when a class could not be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        segments = read(in);
+        validity = read(in);
+    }
+
+    /**
+     * Writes the content of the buffers to the stream.
+     *
+     * @param buffers the buffers
+     * @param out     the stream
+     * @throws IOException when the buffers could not be written
+     */
+    static void write(final List<ByteBuffer> buffers, final ObjectOutputStream out) throws IOException {
+        out.writeInt(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.capacity()];
+            ByteBuffer source = buffer.duplicate();
+            source.clear();
+            source.get(bytes);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads buffers written by {@link #write(List, ObjectOutputStream)} into new direct buffers.
+     *
+     * @param in the stream
+     * @return the buffers
+     * @throws IOException when the buffers could not be read
+     */
+    static List<ByteBuffer> read(final ObjectInputStream in) throws IOException {
+        int count = in.readInt();
+        List<ByteBuffer> buffers = new ArrayList<>(count);
+        for (int x = 0; x < count; x++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            ByteBuffer buffer = allocate(bytes.length);
+            buffer.put(bytes);
+            buffers.add(buffer);
+        }
+        return buffers;
+    }
+
+    /**
+     * The values of an IntegerColumn.
+     */
+    static final class IntValues extends OffHeapVector {
+        /**
+         * Creates the values.
+         *
+         * @param column the column
+         */
+        IntValues(final Column column) {
+            super(column, Integer.BYTES);
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return getInt(slot);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            segment(slot).putInt(position(slot), (Integer) value);
+        }
+
+        @Override
+        int getInt(final int slot) {
+            return segment(slot).getInt(position(slot));
+        }
+    }
+
+    /**
+     * The values of a FloatColumn.
+     */
+    static final class FloatValues extends OffHeapVector {
+        /**
+         * Creates the values.
+         *
+         * @param column the column
+         */
+        FloatValues(final Column column) {
+            super(column, Float.BYTES);
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return getFloat(slot);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            segment(slot).putFloat(position(slot), (Float) value);
+        }
+
+        @Override
+        float getFloat(final int slot) {
+            return segment(slot).getFloat(position(slot));
+        }
+    }
+
+    /**
+     * The values of a DoubleColumn.
+     */
+    static final class DoubleValues extends OffHeapVector {
+        /**
+         * Creates the values.
+         *
+         * @param column the column
+         */
+        DoubleValues(final Column column) {
+            super(column, Double.BYTES);
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return getDouble(slot);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            segment(slot).putDouble(position(slot), (Double) value);
+        }
+
+        @Override
+        double getDouble(final int slot) {
+            return segment(slot).getDouble(position(slot));
+        }
+    }
+
+    /**
+     * The values of a BooleanColumn, stored as a byte.
+     */
+    static final class BooleanValues extends OffHeapVector {
+        /**
+         * Creates the values.
+         *
+         * @param column the column
+         */
+        BooleanValues(final Column column) {
+            super(column, 1);
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return getBoolean(slot);
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            segment(slot).put(position(slot), (byte) ((Boolean) value ? 1 : 0));
+        }
+
+        @Override
+        boolean getBoolean(final int slot) {
+            return segment(slot).get(position(slot)) != 0;
+        }
+    }
+
+    /**
+     * The values of a LocalDateColumn, stored as the epoch day.
+     */
+    static final class LocalDateValues extends OffHeapVector {
+        /**
+         * Creates the values.
+         *
+         * @param column the column
+         */
+        LocalDateValues(final Column column) {
+            super(column, Long.BYTES);
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return LocalDate.ofEpochDay(getLong(slot));
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            segment(slot).putLong(position(slot), ((LocalDate) value).toEpochDay());
+        }
+
+        @Override
+        long getLong(final int slot) {
+            return segment(slot).getLong(position(slot));
+        }
+    }
+
+    /**
+     * The values of a DateColumn, stored as the epoch milliseconds.
+     */
+    static final class DateValues extends OffHeapVector {
+        /**
+         * Creates the values.
+         *
+         * @param column the column
+         */
+        DateValues(final Column column) {
+            super(column, Long.BYTES);
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            return new Date(getLong(slot));
+        }
+
+        @Override
+        void setValue(final int slot, final Object value) {
+            segment(slot).putLong(position(slot), ((Date) value).getTime());
+        }
+
+        @Override
+        long getLong(final int slot) {
+            return segment(slot).getLong(position(slot));
+        }
+    }
+
+    /**
+     * The values of any other column, stored as UTF-8 text. Each slot holds the data segment, the position in the
+     * data segment and the length of the text.
+     */
+    static final class TextValues extends OffHeapVector {
+        /**
+         * The amount of bytes in a data segment, unless a text is longer.
+         */
+        static final int DATA_SEGMENT_SIZE = 1 << 20;
+        /**
+         * The amount of bytes in each slot.
+         */
+        private static final int ENTRY_SIZE = 3 * Integer.BYTES;
+
+        /**
+         * The data segments holding the text.
+         */
+        private transient List<ByteBuffer> data;
+        /**
+         * The amount of bytes used in the last data segment.
+         */
+        private int dataPosition;
+
+        /**
+         * Creates the values.
+         *
+         * @param column the column
+         */
+        TextValues(final Column column) {
+            super(column, ENTRY_SIZE);
+            this.data = new ArrayList<>();
+        }
+
+        @Override
+        Object getValue(final int slot) {
+            ByteBuffer entries = segment(slot);
+            int position = position(slot);
+            ByteBuffer source = data.get(entries.getInt(position)).duplicate();
+            byte[] bytes = new byte[entries.getInt(position + 2 * Integer.BYTES)];
+            source.position(entries.getInt(position + Integer.BYTES));
+            source.get(bytes);
+            return getColumn().parse(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void setValue(final int slot, final Object value) {
+            byte[] bytes = getColumn().asString(value).getBytes(StandardCharsets.UTF_8);
+            if (data.isEmpty() || data.get(data.size() - 1).capacity() - dataPosition < bytes.length) {
+                data.add(allocate(Math.max(DATA_SEGMENT_SIZE, bytes.length)));
+                dataPosition = 0;
+            }
+            ByteBuffer target = data.get(data.size() - 1).duplicate();
+            target.position(dataPosition);
+            target.put(bytes);
+            ByteBuffer entries = segment(slot);
+            int position = position(slot);
+            entries.putInt(position, data.size() - 1);
+            entries.putInt(position + Integer.BYTES, dataPosition);
+            entries.putInt(position + 2 * Integer.BYTES, bytes.length);
+            dataPosition += bytes.length;
+        }
+
+        @Override
+        void free() {
+            super.free();
+            data.clear();
+            dataPosition = 0;
+        }
+
+        /**
+         * Writes the data segments to the stream.
+         *
+         * @param out the stream
+         * @throws IOException when the segments could not be written
+         */
+        private void writeObject(final ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            write(data, out);
+        }
+
+        /**
+         * Reads the data segments from the stream.
+         *
+         * @param in the stream
+         * @throws IOException            when the segments could not be read
+         * @throws ClassNotFoundException when a class could not be found
+         */
+        private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            data = read(in);
+        }
+    }
+}
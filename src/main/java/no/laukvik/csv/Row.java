@@ -23,13 +23,16 @@ import no.laukvik.csv.columns.DateColumn;
 import no.laukvik.csv.columns.DoubleColumn;
 import no.laukvik.csv.columns.FloatColumn;
 import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
 import no.laukvik.csv.columns.StringColumn;
 import no.laukvik.csv.columns.UrlColumn;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -53,13 +56,28 @@ import java.util.TreeMap;
  *     System.out.println( r.get(first) + "\t" + r.get(salary) );
  * }
  * }</pre>
+ * <h3>Lazy parsing</h3>
+ * <p>Values set with {@link #setLazy(Column, String)} are kept as the raw String and are only parsed by the
+ * column the first time they are read. The parsed value then replaces the raw String.</p>
+ * <h3>Columnar storage</h3>
+ * <p>A row keeps its values in a map until it is added to a columnar CSV. The row is then a view of its slot in
+ * the arrays of the columns, and reads and writes its values there. A row removed from the CSV gets its values
+ * back in a map.</p>
  */
 public final class Row implements Serializable {
 
     /**
-     * The Map containing the column data.
+     * The Map containing the column data, or null when the values are in the store.
      */
-    private final Map<Column, Object> map;
+    private Map<Column, Object> map;
+    /**
+     * The store containing the column data, or null when the values are in the map.
+     */
+    private ColumnStore store;
+    /**
+     * The slot of the row in the store.
+     */
+    private int slot;
 
     /**
      * Creates a new Row.
@@ -68,6 +86,81 @@ public final class Row implements Serializable {
         this.map = new TreeMap<>();
     }
 
+    /**
+     * Creates a row with the values.
+     *
+     * @param values the values
+     */
+    Row(final Map<Column, Object> values) {
+        this.map = values;
+    }
+
+    /**
+     * Returns true if the values are in the store.
+     *
+     * @param columnStore the store
+     * @return true when in the store
+     */
+    boolean isStoredIn(final ColumnStore columnStore) {
+        return store == columnStore;
+    }
+
+    /**
+     * Moves the values from the map to a new slot in the store.
+     *
+     * @param columnStore the store
+     */
+    void attach(final ColumnStore columnStore) {
+        Map<Column, Object> values = map;
+        slot = columnStore.allocate();
+        store = columnStore;
+        map = null;
+        for (Map.Entry<Column, Object> entry : values.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Moves the values from the store back to the map, and releases the slot.
+     */
+    void detach() {
+        map = copyValues();
+        store.release(slot);
+        store = null;
+    }
+
+    /**
+     * Returns a copy of the values.
+     *
+     * @return the values
+     */
+    Map<Column, Object> copyValues() {
+        Map<Column, Object> values = new TreeMap<>();
+        if (store == null) {
+            values.putAll(map);
+        } else {
+            store.copy(slot, values);
+        }
+        return values;
+    }
+
+    /**
+     * Sets the value of the column in the map or the store. Values set lazily are parsed when the store only keeps
+     * parsed values of the column.
+     *
+     * @param column the column
+     * @param value  the value, or null
+     */
+    private void put(final Column column, final Object value) {
+        if (store == null) {
+            map.put(column, value);
+        } else if (value instanceof Unparsed && store.isParsed(column)) {
+            store.set(column, slot, column.parse(((Unparsed) value).raw));
+        } else {
+            store.set(column, slot, value);
+        }
+    }
+
     /**
      * Sets the value for the column.
      *
@@ -76,10 +169,37 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row setRaw(final Column column, final String value) {
-        map.put(column, column.parse(value));
+        put(column, column.parse(value));
+        return this;
+    }
+
+    /**
+     * Sets the value for the column without parsing it. The value is parsed the first time it is read.
+     *
+     * @param column the column to set
+     * @param value  the value
+     * @return the row
+     */
+    public Row setLazy(final Column column, final String value) {
+        put(column, new Unparsed(value));
         return this;
     }
 
+    /**
+     * Returns the value of the column, parsing it when it was set lazily.
+     *
+     * @param column the column
+     * @return the value
+     */
+    private Object value(final Column column) {
+        Object value = store == null ? map.get(column) : store.get(column, slot);
+        if (value instanceof Unparsed) {
+            value = column.parse(((Unparsed) value).raw);
+            put(column, value);
+        }
+        return value;
+    }
+
     /**
      * Set the column with the value.
      *
@@ -88,7 +208,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final ByteColumn column, final byte[] value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -100,7 +220,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final BigDecimalColumn column, final BigDecimal value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -112,7 +232,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final IntegerColumn column, final Integer value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -124,7 +244,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final FloatColumn column, final Float value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -136,7 +256,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final DoubleColumn column, final Double value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -148,7 +268,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final BooleanColumn column, final Boolean value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -160,7 +280,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final StringColumn column, final String value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -172,7 +292,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final UrlColumn column, final URL value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -184,7 +304,7 @@ public final class Row implements Serializable {
      * @return the row
      */
     public Row set(final DateColumn column, final Date value) {
-        map.put(column, value);
+        put(column, value);
         return this;
     }
 
@@ -195,7 +315,10 @@ public final class Row implements Serializable {
      * @return true if column is null
      */
     public boolean isNull(final Column column) {
-        return map.get(column) == null;
+        if (store != null && store.isParsed(column)) {
+            return store.isNull(column, slot);
+        }
+        return value(column) == null;
     }
 
     /**
@@ -205,7 +328,7 @@ public final class Row implements Serializable {
      * @return the column as a String
      */
     public String getRaw(final Column column) {
-        Object value = map.get(column);
+        Object value = value(column);
         if (value == null) {
             return "";
         } else {
@@ -220,7 +343,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public String get(final StringColumn stringColumn) {
-        return (String) map.get(stringColumn);
+        return (String) value(stringColumn);
     }
 
     /**
@@ -230,7 +353,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public Date get(final DateColumn dateColumn) {
-        return (Date) map.get(dateColumn);
+        return (Date) value(dateColumn);
     }
 
     /**
@@ -240,7 +363,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public Float get(final FloatColumn floatColumn) {
-        return (Float) map.get(floatColumn);
+        return (Float) value(floatColumn);
     }
 
     /**
@@ -250,7 +373,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public BigDecimal get(final BigDecimalColumn bigDecimalColumn) {
-        return (BigDecimal) map.get(bigDecimalColumn);
+        return (BigDecimal) value(bigDecimalColumn);
     }
 
     /**
@@ -260,7 +383,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public Integer get(final IntegerColumn integerColumn) {
-        return (Integer) map.get(integerColumn);
+        return (Integer) value(integerColumn);
     }
 
     /**
@@ -269,7 +392,11 @@ public final class Row implements Serializable {
      * @param column the column
      */
     public void setNull(final Column column) {
-        map.remove(column);
+        if (store == null) {
+            map.remove(column);
+        } else {
+            store.set(column, slot, null);
+        }
     }
 
     /**
@@ -279,7 +406,26 @@ public final class Row implements Serializable {
      * @return the value
      */
     public Object getObject(final Column column) {
-        return map.get(column);
+        return value(column);
+    }
+
+    /**
+     * Returns a new row with the value of each column set for the target column at the same position. Values set
+     * lazily are copied without being parsed, so the targets must have the same types as the columns.
+     *
+     * @param columns the columns of this row
+     * @param targets the columns of the new row
+     * @return the new row
+     */
+    public Row copyTo(final List<Column> columns, final List<Column> targets) {
+        Map<Column, Object> values = new TreeMap<>();
+        for (int x = 0; x < columns.size(); x++) {
+            Object value = store == null ? map.get(columns.get(x)) : store.get(columns.get(x), slot);
+            if (value != null) {
+                values.put(targets.get(x), value);
+            }
+        }
+        return new Row(values);
     }
 
     /**
@@ -289,7 +435,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public Boolean get(final BooleanColumn booleanColumn) {
-        return (Boolean) map.get(booleanColumn);
+        return (Boolean) value(booleanColumn);
     }
 
     /**
@@ -299,7 +445,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public byte[] get(final ByteColumn byteColumn) {
-        return (byte[]) map.get(byteColumn);
+        return (byte[]) value(byteColumn);
     }
 
     /**
@@ -309,7 +455,7 @@ public final class Row implements Serializable {
      * @return the value
      */
     public Double get(final DoubleColumn doubleColumn) {
-        return (Double) map.get(doubleColumn);
+        return (Double) value(doubleColumn);
     }
 
     /**
@@ -319,6 +465,144 @@ public final class Row implements Serializable {
      * @return the value
      */
     public URL get(final UrlColumn urlColumn) {
-        return (URL) map.get(urlColumn);
+        return (URL) value(urlColumn);
+    }
+
+    /**
+     * Returns the value of the column as an int, or 0 when null. The value is not boxed when the row is stored in a
+     * columnar CSV.
+     *
+     * @param integerColumn the column
+     * @return the value
+     * @see #isNull(Column)
+     */
+    public int getInt(final IntegerColumn integerColumn) {
+        if (store != null && store.isParsed(integerColumn)) {
+            return store.getInt(integerColumn, slot);
+        }
+        Integer value = get(integerColumn);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Returns the value of the column as a float, or 0 when null. The value is not boxed when the row is stored in
+     * a columnar CSV.
+     *
+     * @param floatColumn the column
+     * @return the value
+     * @see #isNull(Column)
+     */
+    public float getFloat(final FloatColumn floatColumn) {
+        if (store != null && store.isParsed(floatColumn)) {
+            return store.getFloat(floatColumn, slot);
+        }
+        Float value = get(floatColumn);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Returns the value of the column as a double, or 0 when null. The value is not boxed when the row is stored in
+     * a columnar CSV.
+     *
+     * @param doubleColumn the column
+     * @return the value
+     * @see #isNull(Column)
+     */
+    public double getDouble(final DoubleColumn doubleColumn) {
+        if (store != null && store.isParsed(doubleColumn)) {
+            return store.getDouble(doubleColumn, slot);
+        }
+        Double value = get(doubleColumn);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Returns the value of the column as a boolean, or false when null. The value is not boxed when the row is
+     * stored in a columnar CSV.
+     *
+     * @param booleanColumn the column
+     * @return the value
+     * @see #isNull(Column)
+     */
+    public boolean getBoolean(final BooleanColumn booleanColumn) {
+        if (store != null && store.isParsed(booleanColumn)) {
+            return store.getBoolean(booleanColumn, slot);
+        }
+        Boolean value = get(booleanColumn);
+        return value != null && value;
+    }
+
+    /**
+     * Returns the value of the column as the epoch day, or 0 when null. No LocalDate is created when the row is
+     * stored in a columnar CSV.
+     *
+     * @param localDateColumn the column
+     * @return the epoch day
+     * @see #isNull(Column)
+     */
+    public long getEpochDay(final LocalDateColumn localDateColumn) {
+        if (store != null && store.isParsed(localDateColumn)) {
+            return store.getLong(localDateColumn, slot);
+        }
+        LocalDate value = (LocalDate) value(localDateColumn);
+        return value == null ? 0 : value.toEpochDay();
+    }
+
+    /**
+     * Returns the value of the column as the epoch milliseconds, or 0 when null. No Date is created when the row is
+     * stored in a columnar CSV.
+     *
+     * @param dateColumn the column
+     * @return the epoch milliseconds
+     * @see #isNull(Column)
+     */
+    public long getTime(final DateColumn dateColumn) {
+        if (store != null && store.isParsed(dateColumn)) {
+            return store.getLong(dateColumn, slot);
+        }
+        Date value = get(dateColumn);
+        return value == null ? 0 : value.getTime();
+    }
+
+    /**
+     * Returns the dictionary of the values of the column when the row is stored in a columnar CSV that encodes the
+     * values of the column.
+     *
+     * @param stringColumn the column
+     * @return the dictionary, or null when the values are not encoded
+     * @see #getCode(StringColumn)
+     */
+    public StringDictionary getDictionary(final StringColumn stringColumn) {
+        return store == null ? null : store.getDictionary(stringColumn);
+    }
+
+    /**
+     * Returns the code of the value of the column in its dictionary.
+     *
+     * @param stringColumn the column
+     * @return the code, or -1 when the value is null or not encoded
+     * @see #getDictionary(StringColumn)
+     */
+    public int getCode(final StringColumn stringColumn) {
+        return store == null ? -1 : store.getCode(stringColumn, slot);
+    }
+
+    /**
+     * A value that is not yet parsed.
+     */
+    private static final class Unparsed implements Serializable {
+        /**
+         * The raw value.
+         */
+        private final String raw;
+
+        /**
+         * Creates a value to be parsed later.
+         *
+         * @param raw the raw value
+         */
+        Unparsed(final String raw) {
+            this.raw = raw;
+        }
     }
 }
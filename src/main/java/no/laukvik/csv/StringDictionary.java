@@ -0,0 +1,85 @@
+package no.laukvik.csv;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The distinct values of a dictionary encoded StringColumn in a columnar CSV. Each value is given an int code in
+ * the order it is first seen, and the rows store the code instead of the value.
+ * <pre>{@code
+ * StringDictionary dictionary = row.getDictionary(country);
+ * int code = row.getCode(country);
+ * String value = dictionary.getValue(code);
+ * }</pre>
+ *
+ * <p>Codes are never removed or changed, so a code stays valid while new values are added. Comparing codes of the
+ * same dictionary is the same as comparing the values.</p>
+ */
+public final class StringDictionary implements Serializable {
+
+    /**
+     * The code of each value.
+     */
+    private final Map<String, Integer> codes;
+    /**
+     * The value of each code.
+     */
+    private final List<String> values;
+
+    /**
+     * Creates an empty dictionary.
+     */
+    StringDictionary() {
+        this.codes = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    /**
+     * Returns the amount of distinct values.
+     *
+     * @return the amount of values
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns the value of the code.
+     *
+     * @param code the code
+     * @return the value
+     */
+    public String getValue(final int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Returns the code of the value.
+     *
+     * @param value the value
+     * @return the code, or -1 when the value is not in the dictionary
+     */
+    public int getCode(final String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Returns the code of the value, adding the value when it is not in the dictionary.
+     *
+     * @param value the value
+     * @return the code
+     */
+    int encode(final String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+}
@@ -39,6 +39,9 @@ public final class BigDecimalColumn extends Column<BigDecimal> {
      */
     @Override
     public String asString(final BigDecimal value) {
+        if (value == null) {
+            return "";
+        }
         return value.toString();
     }
 
@@ -46,10 +49,13 @@ public final class BigDecimalColumn extends Column<BigDecimal> {
      * Parses the string.
      *
      * @param value the string
-     * @return BigDecimal
+     * @return BigDecimal or null when empty
      */
     @Override
     public BigDecimal parse(final String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
         return new BigDecimal(value);
     }
 
@@ -342,12 +342,15 @@ public abstract class Column<T> implements Comparable, Serializable {
     }
 
     /**
-     * Sets the name of the column.
+     * Sets the name of the column, and updates the index of the column names in the CSV.
      *
      * @param columnName the name
      */
     public final void setName(final String columnName) {
         this.name = columnName;
+        if (csv != null) {
+            csv.updateColumnName(this);
+        }
     }
 
     /**
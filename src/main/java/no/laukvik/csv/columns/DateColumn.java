@@ -15,15 +15,38 @@
  */
 package no.laukvik.csv.columns;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalQueries;
+import java.time.temporal.WeekFields;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * Column with Date as the data type.
+ *
+ * <p>The values are parsed and formatted by an immutable DateTimeFormatter, so the column can be used by several
+ * threads at once. The pattern letters mean the same as in SimpleDateFormat, and numbers may have fewer digits
+ * than the pattern. Like the lenient SimpleDateFormat, fields out of range roll over to the next field, so
+ * the 32nd of January is parsed as the 1st of February. Recently parsed values are cached, as the same timestamps
+ * often repeat in a file.</p>
+ *
+ * <p>The fields of a date, like the year or the hour, are calculated from the milliseconds without creating a
+ * Calendar. They use the time zone, first day of the week and minimal days in the first week of the defaults
+ * when the class is loaded.</p>
  */
 public final class DateColumn extends Column<Date> {
 
@@ -43,14 +66,106 @@ public final class DateColumn extends Column<Date> {
     public static final String DEFAULT_TIME_FORMAT = "HH:mm:ss";
 
     /**
-     * The DateFormat to use when reading and writing.
+     * The amount of recently parsed values to cache.
+     */
+    private static final int CACHE_SIZE = 256;
+    /**
+     * The maximum length of the values to cache.
+     */
+    private static final int MAX_CACHED_LENGTH = 64;
+    /**
+     * The maximum amount of digits parsed for the fields translated from SimpleDateFormat.
+     */
+    private static final int MAX_FIELD_WIDTH = 9;
+    /**
+     * The time zone of the fields.
+     */
+    private static final TimeZone TIME_ZONE = TimeZone.getDefault();
+    /**
+     * The first day of the week as a Calendar day.
+     */
+    private static final int FIRST_DAY_OF_WEEK;
+    /**
+     * The minimal amount of days in the first week of the year.
+     */
+    private static final int MINIMAL_DAYS_IN_FIRST_WEEK;
+    /**
+     * The amount of milliseconds in a day.
+     */
+    private static final long MILLIS_PER_DAY = 86400000L;
+    /**
+     * The amount of milliseconds in an hour.
+     */
+    private static final int MILLIS_PER_HOUR = 3600000;
+    /**
+     * The amount of milliseconds in a minute.
+     */
+    private static final int MILLIS_PER_MINUTE = 60000;
+    /**
+     * The amount of milliseconds in a second.
+     */
+    private static final int MILLIS_PER_SECOND = 1000;
+    /**
+     * The amount of days from 0000-03-01 to 1970-01-01.
+     */
+    private static final int DAYS_0000_TO_1970 = 719468;
+    /**
+     * The amount of days in 400 years.
+     */
+    private static final int DAYS_PER_ERA = 146097;
+    /**
+     * The amount of days in a week.
+     */
+    private static final int DAYS_PER_WEEK = 7;
+
+    static {
+        Calendar calendar = Calendar.getInstance(TIME_ZONE);
+        FIRST_DAY_OF_WEEK = calendar.getFirstDayOfWeek();
+        MINIMAL_DAYS_IN_FIRST_WEEK = calendar.getMinimalDaysInFirstWeek();
+    }
+
+    /**
+     * The DateTimeFormatter to use when reading and writing.
+     */
+    private DateTimeFormatter dateFormat;
+    /**
+     * The time zone of values without a time zone.
      */
-    private DateFormat dateFormat;
+    private ZoneId zone;
+    /**
+     * The recently parsed values by the hash code of the value.
+     */
+    private ParsedValue[] cache;
     /**
      * The dateFormat as a String.
      */
     private String format;
 
+    /**
+     * A value and the milliseconds it was parsed to.
+     */
+    private static final class ParsedValue {
+        /**
+         * The value.
+         */
+        private final String value;
+        /**
+         * The milliseconds since 1970-01-01T00:00:00Z.
+         */
+        private final long time;
+
+        /**
+         * Creates a parsed value.
+         *
+         * @param value the value
+         * @param time  the milliseconds
+         */
+        ParsedValue(final String value, final long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
     /**
      * Creates a new column with the columnName and dateFormat.
      *
@@ -59,8 +174,7 @@ public final class DateColumn extends Column<Date> {
      */
     public DateColumn(final String columnName, final String dateFormatPattern) {
         super(columnName);
-        this.format = dateFormatPattern;
-        this.dateFormat = new SimpleDateFormat(format);
+        setFormat(dateFormatPattern);
     }
 
     /**
@@ -70,8 +184,7 @@ public final class DateColumn extends Column<Date> {
      */
     public DateColumn(final String columnName) {
         super(columnName);
-        this.format = DEFAULT_FORMAT;
-        this.dateFormat = new SimpleDateFormat(DEFAULT_FORMAT);
+        setFormat(DEFAULT_FORMAT);
     }
 
     /**
@@ -124,13 +237,7 @@ public final class DateColumn extends Column<Date> {
         if (d2 == null) {
             return false;
         }
-        GregorianCalendar c1 = new GregorianCalendar();
-        c1.setTime(d1);
-        GregorianCalendar c2 = new GregorianCalendar();
-        c2.setTime(d2);
-        return c1.get(Calendar.DATE) == c2.get(Calendar.DATE)
-                && c1.get(Calendar.MONTH) == c2.get(Calendar.MONTH)
-                && c1.get(Calendar.YEAR) == c2.get(Calendar.YEAR);
+        return getDays(d1.getTime()) == getDays(d2.getTime());
     }
 
     /**
@@ -147,13 +254,8 @@ public final class DateColumn extends Column<Date> {
         if (d1 == null || d2 == null) {
             return false;
         }
-        GregorianCalendar c1 = new GregorianCalendar();
-        c1.setTime(d1);
-        GregorianCalendar c2 = new GregorianCalendar();
-        c2.setTime(d2);
-        return c1.get(Calendar.HOUR_OF_DAY) == c2.get(Calendar.HOUR_OF_DAY)
-                && c1.get(Calendar.MINUTE) == c2.get(Calendar.MINUTE)
-                && c1.get(Calendar.SECOND) == c2.get(Calendar.SECOND);
+        return getMillisOfDay(d1.getTime()) / MILLIS_PER_SECOND
+                == getMillisOfDay(d2.getTime()) / MILLIS_PER_SECOND;
     }
 
     /**
@@ -167,7 +269,7 @@ public final class DateColumn extends Column<Date> {
         if (v == null) {
             return false;
         } else {
-            return getYear(v) == year;
+            return getYear(v.getTime()) == year;
         }
     }
 
@@ -182,7 +284,7 @@ public final class DateColumn extends Column<Date> {
         if (v == null) {
             return false;
         }
-        return getYear(v) > year;
+        return getYear(v.getTime()) > year;
     }
 
     /**
@@ -196,7 +298,7 @@ public final class DateColumn extends Column<Date> {
         if (v == null) {
             return false;
         }
-        return getYear(v) < year;
+        return getYear(v.getTime()) < year;
     }
 
     /**
@@ -211,7 +313,7 @@ public final class DateColumn extends Column<Date> {
         if (v == null) {
             return false;
         }
-        int thisYear = getYear(v);
+        int thisYear = getYear(v.getTime());
         if (thisYear < year) {
             return false;
         }
@@ -226,7 +328,7 @@ public final class DateColumn extends Column<Date> {
      * @return returns true if the month is same
      */
     public static boolean isMonth(final Date v, final int month) {
-        return getMonth(v) == month;
+        return v != null && getMonth(v.getTime()) == month;
     }
 
     /**
@@ -237,7 +339,7 @@ public final class DateColumn extends Column<Date> {
      * @return true if the date has the week
      */
     public static boolean isWeek(final Date v, final int week) {
-        return getWeekOfYear(v) == week;
+        return v != null && getWeekOfYear(v.getTime()) == week;
     }
 
     /**
@@ -251,7 +353,7 @@ public final class DateColumn extends Column<Date> {
         if (v == null) {
             return false;
         }
-        return getDayOfWeek(v) == dayOfWeek;
+        return getDayOfWeek(v.getTime()) == dayOfWeek;
     }
 
     /**
@@ -265,7 +367,7 @@ public final class DateColumn extends Column<Date> {
         if (v == null) {
             return false;
         }
-        return getDayOfMonth(v) == dayOfMonth;
+        return getDayOfMonth(v.getTime()) == dayOfMonth;
     }
 
     /**
@@ -299,9 +401,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.YEAR);
+        return getYear(value.getTime());
     }
 
     /**
@@ -314,9 +414,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.MONTH);
+        return getMonth(value.getTime());
     }
 
     /**
@@ -329,9 +427,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.DAY_OF_MONTH);
+        return getDayOfMonth(value.getTime());
     }
 
     /**
@@ -344,9 +440,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.WEEK_OF_YEAR);
+        return getWeekOfYear(value.getTime());
     }
 
     /**
@@ -359,9 +453,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.DAY_OF_WEEK);
+        return getDayOfWeek(value.getTime());
     }
 
     /**
@@ -374,9 +466,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.HOUR_OF_DAY);
+        return getHour(value.getTime());
     }
 
     /**
@@ -389,9 +479,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.MINUTE);
+        return getMinutes(value.getTime());
     }
 
     /**
@@ -404,9 +492,7 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.SECOND);
+        return getSeconds(value.getTime());
     }
 
     /**
@@ -419,9 +505,229 @@ public final class DateColumn extends Column<Date> {
         if (value == null) {
             return null;
         }
-        GregorianCalendar calendar = new GregorianCalendar();
-        calendar.setTime(value);
-        return calendar.get(Calendar.MILLISECOND);
+        return getMilliseconds(value.getTime());
+    }
+
+    /**
+     * Returns the year of the milliseconds.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the year
+     */
+    public static int getYear(final long time) {
+        return getYearOfDays(getDays(time));
+    }
+
+    /**
+     * Returns the month of the milliseconds, where 0 is January like in Calendar.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the month
+     */
+    public static int getMonth(final long time) {
+        int month = getMonthFromMarch(getDayFromMarch(getDayOfEra(getDays(time))));
+        return month < 10 ? month + 2 : month - 10;
+    }
+
+    /**
+     * Returns the day of month of the milliseconds.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the day of month
+     */
+    public static int getDayOfMonth(final long time) {
+        int dayOfYear = getDayFromMarch(getDayOfEra(getDays(time)));
+        return dayOfYear - (153 * getMonthFromMarch(dayOfYear) + 2) / 5 + 1;
+    }
+
+    /**
+     * Returns the week of year of the milliseconds like in Calendar. The last days of a year may be in week 1 of
+     * the next year, and the first days of a year may be in the last week of the previous year.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the week of year
+     */
+    public static int getWeekOfYear(final long time) {
+        long days = getDays(time);
+        int year = getYearOfDays(days);
+        long start = getFirstWeekStart(year);
+        if (days < start) {
+            start = getFirstWeekStart(year - 1);
+        } else if (days >= getFirstWeekStart(year + 1)) {
+            return 1;
+        }
+        return (int) ((days - start) / DAYS_PER_WEEK) + 1;
+    }
+
+    /**
+     * Returns the day of week of the milliseconds, where 1 is Sunday like in Calendar.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the day of week
+     */
+    public static int getDayOfWeek(final long time) {
+        return getDayOfWeekOfDays(getDays(time));
+    }
+
+    /**
+     * Returns the hour of day of the milliseconds.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the hour
+     */
+    public static int getHour(final long time) {
+        return getMillisOfDay(time) / MILLIS_PER_HOUR;
+    }
+
+    /**
+     * Returns the minutes of the milliseconds.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the minutes
+     */
+    public static int getMinutes(final long time) {
+        return getMillisOfDay(time) % MILLIS_PER_HOUR / MILLIS_PER_MINUTE;
+    }
+
+    /**
+     * Returns the seconds of the milliseconds.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the seconds
+     */
+    public static int getSeconds(final long time) {
+        return getMillisOfDay(time) % MILLIS_PER_MINUTE / MILLIS_PER_SECOND;
+    }
+
+    /**
+     * Returns the milliseconds part of the milliseconds.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the milliseconds part
+     */
+    public static int getMilliseconds(final long time) {
+        return getMillisOfDay(time) % MILLIS_PER_SECOND;
+    }
+
+    /**
+     * Returns the milliseconds since 1970-01-01T00:00:00 in the time zone of the fields.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the local milliseconds
+     */
+    private static long getLocalTime(final long time) {
+        return time + TIME_ZONE.getOffset(time);
+    }
+
+    /**
+     * Returns the days since 1970-01-01 in the time zone of the fields.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the days
+     */
+    private static long getDays(final long time) {
+        return Math.floorDiv(getLocalTime(time), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Returns the milliseconds since midnight in the time zone of the fields.
+     *
+     * @param time the milliseconds since 1970-01-01T00:00:00Z
+     * @return the milliseconds of the day
+     */
+    private static int getMillisOfDay(final long time) {
+        return (int) Math.floorMod(getLocalTime(time), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Returns the day within the 400 year era starting March 1st, which makes February the last month of the year
+     * and the leap day the last day of the year.
+     *
+     * @param days the days since 1970-01-01
+     * @return the day of the era
+     */
+    private static int getDayOfEra(final long days) {
+        return (int) Math.floorMod(days + DAYS_0000_TO_1970, (long) DAYS_PER_ERA);
+    }
+
+    /**
+     * Returns the year within the era of the day of the era.
+     *
+     * @param dayOfEra the day of the era
+     * @return the year of the era
+     */
+    private static int getYearOfEra(final int dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / (DAYS_PER_ERA - 1)) / 365;
+    }
+
+    /**
+     * Returns the day within the year starting March 1st of the day of the era.
+     *
+     * @param dayOfEra the day of the era
+     * @return the day of the year starting at 0
+     */
+    private static int getDayFromMarch(final int dayOfEra) {
+        int yearOfEra = getYearOfEra(dayOfEra);
+        return dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    }
+
+    /**
+     * Returns the month of the year starting March 1st, where 0 is March.
+     *
+     * @param dayOfYear the day of the year starting March 1st
+     * @return the month
+     */
+    private static int getMonthFromMarch(final int dayOfYear) {
+        return (5 * dayOfYear + 2) / 153;
+    }
+
+    /**
+     * Returns the year of the days.
+     *
+     * @param days the days since 1970-01-01
+     * @return the year
+     */
+    private static int getYearOfDays(final long days) {
+        long era = Math.floorDiv(days + DAYS_0000_TO_1970, (long) DAYS_PER_ERA);
+        int dayOfEra = getDayOfEra(days);
+        int year = (int) (era * 400) + getYearOfEra(dayOfEra);
+        return getMonthFromMarch(getDayFromMarch(dayOfEra)) < 10 ? year : year + 1;
+    }
+
+    /**
+     * Returns the day of week of the days, where 1 is Sunday like in Calendar.
+     *
+     * @param days the days since 1970-01-01
+     * @return the day of week
+     */
+    private static int getDayOfWeekOfDays(final long days) {
+        return (int) Math.floorMod(days + 4, (long) DAYS_PER_WEEK) + 1;
+    }
+
+    /**
+     * Returns January 1st of the year, which is day 306 of the year starting March 1st of the previous year.
+     *
+     * @param year the year
+     * @return the days since 1970-01-01
+     */
+    private static long getJanuary1(final int year) {
+        long era = Math.floorDiv(year - 1, 400);
+        int yearOfEra = (int) (year - 1 - era * 400);
+        int dayOfEra = 365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100 + 306;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Returns the first day of week 1 of the year.
+     *
+     * @param year the year
+     * @return the days since 1970-01-01
+     */
+    private static long getFirstWeekStart(final int year) {
+        long january1 = getJanuary1(year);
+        int daysBefore = Math.floorMod(getDayOfWeekOfDays(january1) - FIRST_DAY_OF_WEEK, DAYS_PER_WEEK);
+        long weekStart = january1 - daysBefore;
+        return DAYS_PER_WEEK - daysBefore >= MINIMAL_DAYS_IN_FIRST_WEEK ? weekStart : weekStart + DAYS_PER_WEEK;
     }
 
     /**
@@ -440,7 +746,62 @@ public final class DateColumn extends Column<Date> {
      */
     public void setFormat(final String dateFormatPattern) {
         this.format = dateFormatPattern;
-        this.dateFormat = new SimpleDateFormat(format);
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder()
+                .parseCaseInsensitive()
+                .parseLenient();
+        appendPattern(builder, dateFormatPattern);
+        this.dateFormat = builder.toFormatter().withResolverStyle(ResolverStyle.LENIENT);
+        this.zone = ZoneId.systemDefault();
+        this.cache = new ParsedValue[CACHE_SIZE];
+    }
+
+    /**
+     * Appends the SimpleDateFormat pattern to the builder. The letters meaning something else in a DateTimeFormatter
+     * are appended as the fields of SimpleDateFormat: S is the milliseconds, u the day number of the week where
+     * Monday is 1 and F the week of the month.
+     *
+     * @param builder the builder
+     * @param pattern the SimpleDateFormat pattern
+     */
+    private static void appendPattern(final DateTimeFormatterBuilder builder, final String pattern) {
+        StringBuilder pending = new StringBuilder();
+        boolean withinQuote = false;
+        int x = 0;
+        while (x < pattern.length()) {
+            char c = pattern.charAt(x);
+            int end = x + 1;
+            while (end < pattern.length() && pattern.charAt(end) == c) {
+                end++;
+            }
+            TemporalField field = null;
+            if (!withinQuote) {
+                if (c == 'S') {
+                    field = ChronoField.MILLI_OF_SECOND;
+                } else if (c == 'u') {
+                    field = ChronoField.DAY_OF_WEEK;
+                } else if (c == 'F') {
+                    field = ChronoField.ALIGNED_WEEK_OF_MONTH;
+                }
+            }
+            if (field == null) {
+                if (c == '\'') {
+                    withinQuote = !withinQuote;
+                    end = x + 1;
+                }
+                pending.append(pattern, x, end);
+            } else {
+                if (pending.length() > 0) {
+                    builder.appendPattern(pending.toString());
+                    pending.setLength(0);
+                }
+                int width = end - x;
+                builder.appendValue(field, width, Math.max(width, MAX_FIELD_WIDTH), SignStyle.NOT_NEGATIVE);
+            }
+            x = end;
+        }
+        if (pending.length() > 0) {
+            builder.appendPattern(pending.toString());
+        }
     }
 
     /**
@@ -451,7 +812,10 @@ public final class DateColumn extends Column<Date> {
      */
     @Override
     public String asString(final Date value) {
-        return dateFormat.format(value);
+        if (value == null) {
+            return "";
+        }
+        return dateFormat.format(ZonedDateTime.ofInstant(value.toInstant(), zone));
     }
 
     /**
@@ -465,13 +829,65 @@ public final class DateColumn extends Column<Date> {
         if (value == null || value.isEmpty()) {
             return null;
         }
+        ParsedValue[] values = cache;
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+        ParsedValue parsed = values[slot];
+        if (parsed != null && parsed.value.equals(value)) {
+            return new Date(parsed.time);
+        }
         try {
-            return dateFormat.parse(value);
-        } catch (ParseException ex) {
+            long time = toMillis(dateFormat.parse(value, new ParsePosition(0)));
+            if (value.length() <= MAX_CACHED_LENGTH) {
+                values[slot] = new ParsedValue(value, time);
+            }
+            return new Date(time);
+        } catch (DateTimeException | ArithmeticException ex) {
             return null;
         }
     }
 
+    /**
+     * Returns the milliseconds of the parsed fields. Missing date fields default to 1970-01-01 and missing time
+     * fields to midnight, like SimpleDateFormat. Times rolling over midnight add the excess days to the date.
+     *
+     * @param parsed the parsed fields
+     * @return the milliseconds since 1970-01-01T00:00:00Z
+     */
+    private long toMillis(final TemporalAccessor parsed) {
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            long year = getField(parsed, ChronoField.YEAR,
+                    getField(parsed, ChronoField.YEAR_OF_ERA,
+                            getField(parsed, WeekFields.of(Locale.getDefault()).weekBasedYear(), 1970)));
+            date = LocalDate.of((int) year, (int) getField(parsed, ChronoField.MONTH_OF_YEAR, 1),
+                    (int) getField(parsed, ChronoField.DAY_OF_MONTH, 1));
+        }
+        date = date.plus(parsed.query(DateTimeFormatter.parsedExcessDays()));
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        if (time == null) {
+            long hour = getField(parsed, ChronoField.HOUR_OF_DAY,
+                    getField(parsed, ChronoField.HOUR_OF_AMPM, 0) + 12 * getField(parsed, ChronoField.AMPM_OF_DAY, 0));
+            time = LocalTime.of((int) hour, (int) getField(parsed, ChronoField.MINUTE_OF_HOUR, 0),
+                    (int) getField(parsed, ChronoField.SECOND_OF_MINUTE, 0),
+                    (int) getField(parsed, ChronoField.NANO_OF_SECOND, 0));
+        }
+        ZoneId parsedZone = parsed.query(TemporalQueries.zone());
+        return ZonedDateTime.of(date, time, parsedZone == null ? zone : parsedZone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the parsed field, or the default value when the field was not parsed.
+     *
+     * @param parsed       the parsed fields
+     * @param field        the field
+     * @param defaultValue the default value
+     * @return the value
+     */
+    private static long getField(final TemporalAccessor parsed, final TemporalField field, final long defaultValue) {
+        return parsed.isSupported(field) ? parsed.getLong(field) : defaultValue;
+    }
+
     /**
      * Compares date one and another.
      *
@@ -494,7 +910,7 @@ public final class DateColumn extends Column<Date> {
         if (date == null) {
             return "";
         } else {
-            return dateFormat.format(date);
+            return asString(date);
         }
     }
 
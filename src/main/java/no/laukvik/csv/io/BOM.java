@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
@@ -37,7 +38,7 @@ public enum BOM {
     /**
      * Maximum BOM size.
      */
-    private static final int MAX_BOM_SIZE = 8;
+    static final int MAX_BOM_SIZE = 4;
     /**
      * The bytes that recognizes the BOM.
      */
@@ -76,13 +77,39 @@ public enum BOM {
     }
 
 
+    /**
+     * Reads the BOM from the start of the stream. The BOM is consumed while any other bytes are pushed back, so
+     * the stream is left at the first character of the content. Only the BOM of the charset is consumed when a
+     * charset is specified. The stream is never reopened, so it works with pipes and sockets as well as files.
+     *
+     * @param in      the stream which must be able to push back at least {@link #MAX_BOM_SIZE} bytes
+     * @param charset the charset, or null to consume any BOM
+     * @return the BOM or null when not found
+     * @throws IOException when the stream could not be read
+     */
+    public static BOM readBom(final PushbackInputStream in, final Charset charset) throws IOException {
+        byte[] bytes = new byte[MAX_BOM_SIZE];
+        int length = 0;
+        int count;
+        while (length < bytes.length && (count = in.read(bytes, length, bytes.length - length)) > 0) {
+            length += count;
+        }
+        BOM bom = parse(Arrays.copyOf(bytes, length));
+        if (bom != null && charset != null && !bom.getCharset().equals(charset)) {
+            bom = null;
+        }
+        int bomLength = bom == null ? 0 : bom.bytes.length;
+        in.unread(bytes, bomLength, length - bomLength);
+        return bom;
+    }
+
     /**
      * Parses and detects any BOM if present.
      *
      * @param bytes the bytes to check
      * @return the BOM found
      */
-    private static BOM parse(final byte... bytes) {
+    static BOM parse(final byte... bytes) {
         for (BOM bom : values()) {
             if (bom.is(bytes)) {
                 return bom;
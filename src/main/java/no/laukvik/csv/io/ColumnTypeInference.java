@@ -0,0 +1,316 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.columns.BigDecimalColumn;
+import no.laukvik.csv.columns.BooleanColumn;
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.DoubleColumn;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
+import no.laukvik.csv.columns.LocalDateTimeColumn;
+import no.laukvik.csv.columns.StringColumn;
+import no.laukvik.csv.columns.UrlColumn;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Infers the type of the columns from a sample of the rows in a file. Columns without a type in the column
+ * definition are otherwise read as StringColumn.
+ * <pre>{@code
+ * CsvReader reader = new CsvReader(null, null, null);
+ * reader.setTypeInference(new ColumnTypeInference(500));
+ * reader.readFile(file, csv);
+ * }</pre>
+ *
+ * <p>A column gets the first of these types that all values in the sample can be parsed as. Empty values are
+ * ignored, and columns where all values are empty are read as StringColumn.</p>
+ * <ul>
+ * <li>IntegerColumn</li>
+ * <li>DoubleColumn, or BigDecimalColumn when a value has more digits than a double can hold</li>
+ * <li>BooleanColumn for the values true and false</li>
+ * <li>LocalDateColumn for ISO dates like 2016-01-31</li>
+ * <li>LocalDateTimeColumn for ISO dates with time like 2016-01-31T12:00:00</li>
+ * <li>UrlColumn</li>
+ * <li>StringColumn</li>
+ * </ul>
+ *
+ * <p>Numbers with leading zeros like 0042 are not inferred as numbers, so codes like zip codes and ids keep their
+ * zeros. A column is widened to StringColumn when a value after the sample does not fit its type, unless parse
+ * errors are collected, where the value is added to the errors instead.</p>
+ */
+public final class ColumnTypeInference {
+
+    /**
+     * The default amount of rows to sample.
+     */
+    public static final int DEFAULT_SAMPLE_ROWS = 1000;
+    /**
+     * The maximum amount of significant digits a double can hold without losing precision.
+     */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+    /**
+     * A decimal number with an optional exponent.
+     */
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
+    /**
+     * The values can be parsed as integers.
+     */
+    private static final int INTEGER = 1;
+    /**
+     * The values can be parsed as decimal numbers.
+     */
+    private static final int DECIMAL_NUMBER = 2;
+    /**
+     * The values are true or false.
+     */
+    private static final int BOOLEAN = 4;
+    /**
+     * The values can be parsed as dates.
+     */
+    private static final int DATE = 8;
+    /**
+     * The values can be parsed as dates with time.
+     */
+    private static final int DATE_TIME = 16;
+    /**
+     * The values can be parsed as URLs.
+     */
+    private static final int URL_ADDRESS = 32;
+    /**
+     * All types.
+     */
+    private static final int ALL = INTEGER | DECIMAL_NUMBER | BOOLEAN | DATE | DATE_TIME | URL_ADDRESS;
+
+    /**
+     * The amount of rows to sample.
+     */
+    private final int sampleRows;
+
+    /**
+     * Creates an inference sampling the default amount of rows.
+     */
+    public ColumnTypeInference() {
+        this(DEFAULT_SAMPLE_ROWS);
+    }
+
+    /**
+     * Creates an inference sampling the specified amount of rows.
+     *
+     * @param sampleRows the amount of rows to sample
+     */
+    public ColumnTypeInference(final int sampleRows) {
+        if (sampleRows < 1) {
+            throw new IllegalArgumentException("Illegal sample size " + sampleRows);
+        }
+        this.sampleRows = sampleRows;
+    }
+
+    /**
+     * Returns the amount of rows to sample.
+     *
+     * @return the amount of rows
+     */
+    public int getSampleRows() {
+        return sampleRows;
+    }
+
+    /**
+     * Infers the type of each column from the sampled rows.
+     *
+     * @param names the column names
+     * @param rows  the sampled rows with one value for each column
+     * @return a column of the inferred type for each name
+     */
+    public Column[] infer(final String[] names, final List<String[]> rows) {
+        Column[] columns = new Column[names.length];
+        for (int x = 0; x < names.length; x++) {
+            columns[x] = infer(names[x], rows, x);
+        }
+        return columns;
+    }
+
+    /**
+     * Infers the type of the column from the values in the sampled rows.
+     *
+     * @param name  the column name
+     * @param rows  the sampled rows
+     * @param index the index of the column in the rows
+     * @return the column
+     */
+    private static Column infer(final String name, final List<String[]> rows, final int index) {
+        int types = ALL;
+        boolean values = false;
+        boolean nulls = false;
+        boolean bigDecimal = false;
+        for (int y = 0; y < rows.size() && types != 0; y++) {
+            String[] row = rows.get(y);
+            String value = index < row.length ? row[index] : null;
+            if (value == null || value.isEmpty()) {
+                nulls = true;
+                continue;
+            }
+            values = true;
+            types = filter(types, value);
+            if ((types & DECIMAL_NUMBER) != 0 && !bigDecimal) {
+                bigDecimal = countDigits(value) > MAX_DOUBLE_DIGITS;
+            }
+        }
+        Column column = createColumn(name, values ? types : 0, bigDecimal);
+        column.setAllowNulls(nulls);
+        return column;
+    }
+
+    /**
+     * Removes the types the value can not be parsed as.
+     *
+     * @param types the possible types
+     * @param value the value
+     * @return the remaining types
+     */
+    private static int filter(final int types, final String value) {
+        int remaining = types;
+        if ((remaining & (INTEGER | DECIMAL_NUMBER)) != 0 && hasLeadingZero(value)) {
+            remaining &= ~(INTEGER | DECIMAL_NUMBER);
+        }
+        if ((remaining & INTEGER) != 0 && !isInteger(value)) {
+            remaining &= ~INTEGER;
+        }
+        if ((remaining & DECIMAL_NUMBER) != 0 && !DECIMAL.matcher(value).matches()) {
+            remaining &= ~DECIMAL_NUMBER;
+        }
+        if ((remaining & BOOLEAN) != 0 && !value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            remaining &= ~BOOLEAN;
+        }
+        if ((remaining & DATE) != 0 && !isDate(value)) {
+            remaining &= ~DATE;
+        }
+        if ((remaining & DATE_TIME) != 0 && !isDateTime(value)) {
+            remaining &= ~DATE_TIME;
+        }
+        if ((remaining & URL_ADDRESS) != 0 && !isUrl(value)) {
+            remaining &= ~URL_ADDRESS;
+        }
+        return remaining;
+    }
+
+    /**
+     * Creates a column of the first of the remaining types.
+     *
+     * @param name       the column name
+     * @param types      the remaining types
+     * @param bigDecimal whether the decimal numbers need more digits than a double can hold
+     * @return the column
+     */
+    private static Column createColumn(final String name, final int types, final boolean bigDecimal) {
+        if ((types & INTEGER) != 0) {
+            return new IntegerColumn(name);
+        } else if ((types & DECIMAL_NUMBER) != 0) {
+            return bigDecimal ? new BigDecimalColumn(name) : new DoubleColumn(name);
+        } else if ((types & BOOLEAN) != 0) {
+            return new BooleanColumn(name);
+        } else if ((types & DATE) != 0) {
+            return new LocalDateColumn(name);
+        } else if ((types & DATE_TIME) != 0) {
+            return new LocalDateTimeColumn(name);
+        } else if ((types & URL_ADDRESS) != 0) {
+            return new UrlColumn(name);
+        }
+        return new StringColumn(name);
+    }
+
+    /**
+     * Counts the significant digits in the decimal number, ignoring leading zeros and the exponent.
+     *
+     * @param value the decimal number
+     * @return the amount of digits
+     */
+    private static int countDigits(final String value) {
+        int digits = 0;
+        for (int x = 0; x < value.length(); x++) {
+            char c = value.charAt(x);
+            if (c == 'e' || c == 'E') {
+                break;
+            } else if (c >= '1' && c <= '9' || c == '0' && digits > 0) {
+                digits++;
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Returns true if the value starts with a zero followed by another digit, like 0042.
+     *
+     * @param value the value
+     * @return true when the number has leading zeros
+     */
+    private static boolean hasLeadingZero(final String value) {
+        int start = value.startsWith("+") || value.startsWith("-") ? 1 : 0;
+        return value.length() > start + 1 && value.charAt(start) == '0' && Character.isDigit(value.charAt(start + 1));
+    }
+
+    /**
+     * Returns true if the value is an integer.
+     *
+     * @param value the value
+     * @return true when an integer
+     */
+    private static boolean isInteger(final String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the value is an ISO date.
+     *
+     * @param value the value
+     * @return true when a date
+     */
+    private static boolean isDate(final String value) {
+        try {
+            LocalDate.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the value is an ISO date with time.
+     *
+     * @param value the value
+     * @return true when a date with time
+     */
+    private static boolean isDateTime(final String value) {
+        try {
+            LocalDateTime.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the value is an URL.
+     *
+     * @param value the value
+     * @return true when an URL
+     */
+    private static boolean isUrl(final String value) {
+        try {
+            new URL(value);
+            return true;
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package no.laukvik.csv.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Constants indicating the compression of a stream, recognized by the magic bytes at the start of the stream.
+ *
+ * <p>Only deflate data with a zlib header is recognized, as raw deflate data has no magic bytes. Of the zlib
+ * headers only those of the fastest, the default and the best compression level are recognized, since the
+ * others are printable ASCII characters that may start an ordinary CSV file.</p>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/List_of_file_signatures">File signatures (wikipedia)</a>
+ */
+public enum Compression {
+    /**
+     * GZIP compressed data.
+     */
+    GZIP((byte) 0x1F, (byte) 0x8B),
+    /**
+     * The first entry in a ZIP archive.
+     */
+    ZIP((byte) 0x50, (byte) 0x4B, (byte) 0x03, (byte) 0x04),
+    /**
+     * Deflate data with a zlib header using the fastest compression.
+     */
+    ZLIB_FAST((byte) 0x78, (byte) 0x01),
+    /**
+     * Deflate data with a zlib header using the default compression.
+     */
+    ZLIB((byte) 0x78, (byte) 0x9C),
+    /**
+     * Deflate data with a zlib header using the best compression.
+     */
+    ZLIB_BEST((byte) 0x78, (byte) 0xDA);
+
+    /**
+     * Maximum magic size.
+     */
+    static final int MAX_MAGIC_SIZE = 4;
+    /**
+     * The amount of compressed bytes to read at a time.
+     */
+    static final int BUFFER_SIZE = 65536;
+    /**
+     * The bytes that recognizes the compression.
+     */
+    private final byte[] bytes;
+
+    /**
+     * Creates a new compression with the specified magic bytes.
+     *
+     * @param magic the magic bytes
+     */
+    Compression(final byte... magic) {
+        this.bytes = magic;
+    }
+
+    /**
+     * Reads the magic bytes at the start of the stream and pushes them back.
+     *
+     * @param in the stream which must be able to push back at least {@link #MAX_MAGIC_SIZE} bytes
+     * @return the compression or null when the stream is not compressed
+     * @throws IOException when the stream could not be read
+     */
+    public static Compression readCompression(final PushbackInputStream in) throws IOException {
+        byte[] magic = new byte[MAX_MAGIC_SIZE];
+        int length = 0;
+        int count;
+        while (length < magic.length && (count = in.read(magic, length, magic.length - length)) > 0) {
+            length += count;
+        }
+        in.unread(magic, 0, length);
+        return parse(Arrays.copyOf(magic, length));
+    }
+
+    /**
+     * Parses and detects any compression if present.
+     *
+     * @param magic the bytes to check
+     * @return the compression found
+     */
+    static Compression parse(final byte... magic) {
+        for (Compression compression : values()) {
+            if (compression.is(magic)) {
+                return compression;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the bytes starts with the magic bytes of this compression.
+     *
+     * @param values the bytes
+     * @return true if it matches
+     */
+    public boolean is(final byte... values) {
+        if (values == null || values.length < this.bytes.length) {
+            return false;
+        }
+        return Arrays.equals(Arrays.copyOfRange(values, 0, this.bytes.length), this.bytes);
+    }
+
+    /**
+     * Returns a stream decompressing the stream. For ZIP archives the stream is positioned at the first entry
+     * that is not a directory.
+     *
+     * @param in the compressed stream
+     * @return the decompressed stream
+     * @throws IOException when the stream could not be read
+     */
+    public InputStream decompress(final InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            case ZIP:
+                ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+                ZipEntry entry = zip.getNextEntry();
+                while (entry != null && entry.isDirectory()) {
+                    entry = zip.getNextEntry();
+                }
+                return zip;
+            default:
+                final Inflater inflater = new Inflater();
+                return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            inflater.end();
+                        }
+                    }
+                };
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.Row;
+import no.laukvik.csv.columns.Column;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Reads several CSV files with the same columns concurrently and appends their rows to one CSV.
+ * <pre>{@code
+ * CsvFilesReader reader = new CsvFilesReader(() -> new CsvReader(null, null, null), 8);
+ * reader.appendFiles(CsvFilesReader.listFiles(folder, "*.csv"), csv);
+ * }</pre>
+ *
+ * <p>Each file is read by its own reader on a pool with the specified amount of threads, so the time spent waiting
+ * for one file overlaps the parsing of the others. The rows are appended in the order of the files, no matter
+ * which file is read first.</p>
+ *
+ * <p>The columns of every file must have the same names in the same order as the columns of the CSV, or the first
+ * file when the CSV has no columns. Every file is parsed with the types of those columns, and the rows are appended
+ * with the columns of the CSV. Nothing is appended unless all files are read and their columns match.</p>
+ */
+public final class CsvFilesReader {
+
+    /**
+     * Creates a new reader for each file.
+     */
+    private final Supplier<? extends CsvReader> readers;
+    /**
+     * The amount of files to read at a time.
+     */
+    private final int parallelism;
+
+    /**
+     * Creates a reader of several files.
+     *
+     * @param readers     creates a new reader for each file
+     * @param parallelism the amount of files to read at a time
+     */
+    public CsvFilesReader(final Supplier<? extends CsvReader> readers, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Illegal parallelism " + parallelism);
+        }
+        this.readers = readers;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the files in the folder with names matching the glob, sorted by name.
+     *
+     * @param folder the folder
+     * @param glob   the glob pattern, like <code>*.csv</code>
+     * @return the files
+     * @throws IOException when the folder could not be read
+     */
+    public static List<File> listFiles(final Path folder, final String glob) throws IOException {
+        List<File> files = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(folder, glob)) {
+            for (Path path : paths) {
+                if (Files.isRegularFile(path)) {
+                    files.add(path.toFile());
+                }
+            }
+        }
+        files.sort((f1, f2) -> f1.getName().compareTo(f2.getName()));
+        return files;
+    }
+
+    /**
+     * Reads the files concurrently and appends the rows to the CSV in the order of the files. The columns are read
+     * from the first file when the CSV has no columns.
+     *
+     * @param files the files
+     * @param csv   the csv to append the rows to
+     * @throws CsvReaderException when a file could not be read or has other columns
+     */
+    public void appendFiles(final List<File> files, final CSV csv) throws CsvReaderException {
+        if (files.isEmpty()) {
+            return;
+        }
+        CSV first = null;
+        List<Column> columns;
+        if (csv.getColumnCount() == 0) {
+            first = new CSV();
+            CsvReader reader = readers.get();
+            reader.openFile(files.get(0), first);
+            close(reader, files.get(0));
+            columns = new ArrayList<>(first.getColumns());
+        } else {
+            columns = new ArrayList<>(csv.getColumns());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, files.size()));
+        try {
+            List<Future<CSV>> parsers = new ArrayList<>();
+            for (File file : files) {
+                parsers.add(pool.submit(() -> read(file, columns)));
+            }
+            List<CSV> parsed = new ArrayList<>();
+            for (int x = 0; x < files.size(); x++) {
+                parsed.add(join(parsers.get(x), files.get(x)));
+            }
+            if (first != null) {
+                for (Column column : columns) {
+                    csv.addColumn(column);
+                }
+                csv.setSeparator(first.getSeparatorChar());
+                if (first.getQuoteChar() != null) {
+                    csv.setQuoteChar(first.getQuoteChar());
+                }
+                csv.setCharset(first.getCharset());
+            }
+            for (CSV p : parsed) {
+                List<Column> fileColumns = p.getColumns();
+                for (Row row : p.findRows()) {
+                    csv.addRow(row.copyTo(fileColumns, columns));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the file into a new CSV with copies of the columns. The column names of the file are checked before
+     * the rows are parsed with the types of the columns.
+     *
+     * @param file    the file
+     * @param columns the columns
+     * @return the csv
+     * @throws CsvReaderException when the file could not be read or has other columns
+     */
+    private CSV read(final File file, final List<Column> columns) throws CsvReaderException {
+        CsvReader reader = readers.get();
+        reader.setTypeInference(null);
+        CSV header = new CSV();
+        reader.openFile(file, header);
+        close(reader, file);
+        if (!isCompatible(columns, header.getColumns())) {
+            throw new CsvReaderException(file, new IllegalStateException("The columns "
+                    + getNames(header.getColumns()) + " do not match the columns " + getNames(columns)));
+        }
+        CSV csv = new CSV();
+        csv.setCharset(header.getCharset());
+        for (Column column : columns) {
+            csv.addColumn(Column.parseColumnDefinition(column.toColumnDefinition()));
+        }
+        reader.readRows(file, csv, 0, Integer.MAX_VALUE);
+        return csv;
+    }
+
+    /**
+     * Closes the reader.
+     *
+     * @param reader the reader
+     * @param file   the file being read
+     * @throws CsvReaderException when the file could not be closed
+     */
+    private static void close(final CsvReader reader, final File file) throws CsvReaderException {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new CsvReaderException(file, e);
+        }
+    }
+
+    /**
+     * Returns true if the columns have the same names in the same order. The names are compared ignoring case,
+     * the same way as the CSV finds a column by name.
+     *
+     * @param columns the columns
+     * @param other   the other columns
+     * @return true when compatible
+     */
+    static boolean isCompatible(final List<Column> columns, final List<Column> other) {
+        if (columns.size() != other.size()) {
+            return false;
+        }
+        for (int x = 0; x < columns.size(); x++) {
+            if (!columns.get(x).getName().equalsIgnoreCase(other.get(x).getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the names of the columns.
+     *
+     * @param columns the columns
+     * @return the names
+     */
+    private static List<String> getNames(final List<Column> columns) {
+        List<String> names = new ArrayList<>();
+        for (Column column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Waits for the file to be read.
+     *
+     * @param parser the parser of the file
+     * @param file   the file
+     * @return the csv read
+     * @throws CsvReaderException when the file could not be read
+     */
+    private static CSV join(final Future<CSV> parser, final File file) throws CsvReaderException {
+        try {
+            return parser.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CsvReaderException(file, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CsvReaderException) {
+                throw (CsvReaderException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CsvReaderException(file, cause);
+        }
+    }
+}
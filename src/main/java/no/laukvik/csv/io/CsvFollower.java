@@ -0,0 +1,442 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.Row;
+import no.laukvik.csv.columns.Column;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a CSV file that is appended to, like <code>tail -f</code>, and reads only the rows appended since the
+ * last time it was read.
+ * <pre>{@code
+ * CSV csv = new CSV();
+ * CsvFollower follower = new CsvFollower(file, csv, null, null, null);
+ * follower.poll(); // Reads the column names and all rows so far
+ * follower.poll(); // Reads only the rows appended since the last poll
+ * }</pre>
+ *
+ * <p>The follower remembers the byte offset it has read to, the bytes of a character that is not completely
+ * written and the characters of a row that is not completely written. Each poll therefore only reads the new
+ * bytes, and a row is not read until its line feed is written. The file is read from the start again when it
+ * becomes shorter than the offset.</p>
+ *
+ * <p>The rows are added to the CSV unless a {@link Listener} is set. Using {@link #start(long)} the file is polled
+ * on a background thread whenever the file system reports a change or the interval has passed. The rows are then
+ * added to the CSV or delivered to the listener from that thread.</p>
+ */
+public final class CsvFollower implements Closeable {
+
+    /**
+     * The amount of bytes to read at a time.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Receives the rows read by the follower.
+     */
+    public interface Listener {
+        /**
+         * Called for each new row.
+         *
+         * @param row the row
+         */
+        void rowRead(Row row);
+
+        /**
+         * Called when the background thread stops because the file could not be read.
+         *
+         * @param e the exception
+         */
+        void failed(CsvReaderException e);
+    }
+
+    /**
+     * The file to follow.
+     */
+    private final File file;
+    /**
+     * The csv the columns and rows are read into.
+     */
+    private final CSV csv;
+    /**
+     * The quote character.
+     */
+    private final char quoteChar;
+    /**
+     * The column separator character, or null until detected.
+     */
+    private Character separatorChar;
+    /**
+     * The charset, or null until detected.
+     */
+    private Charset charset;
+    /**
+     * The listener, or null to add the rows to the CSV.
+     */
+    private volatile Listener listener;
+    /**
+     * The byte offset read to.
+     */
+    private long position;
+    /**
+     * The bytes read but not yet decoded.
+     */
+    private final ByteBuffer bytes;
+    /**
+     * The decoded characters.
+     */
+    private final CharBuffer chars;
+    /**
+     * The decoder of the charset.
+     */
+    private CharsetDecoder decoder;
+    /**
+     * The characters of the rows that are not completely written.
+     */
+    private final StringBuilder pending;
+    /**
+     * The amount of pending characters already scanned for line feeds.
+     */
+    private int scanned;
+    /**
+     * Whether the scanned characters end within quotes.
+     */
+    private boolean withinQuote;
+    /**
+     * The column of each field, or null when the column names are not read yet.
+     */
+    private Column[] fieldColumns;
+    /**
+     * The dictionary of each field, kept between polls so values appended later share the same String.
+     */
+    private FieldDictionary[] dictionaries;
+    /**
+     * The background thread, or null when not started.
+     */
+    private Thread thread;
+    /**
+     * Whether the background thread should keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Creates a follower of the file.
+     *
+     * @param file      the file
+     * @param csv       the csv to read the columns and rows into
+     * @param charset   the charset, or null to detect it with BOM
+     * @param separator the separator character, or null to detect it
+     * @param quote     the quote character, or null for double quote
+     */
+    public CsvFollower(final File file, final CSV csv, final Charset charset, final Character separator,
+                       final Character quote) {
+        this.file = file;
+        this.csv = csv;
+        this.charset = charset;
+        this.separatorChar = separator;
+        this.quoteChar = quote == null ? CSV.QUOTE_DOUBLE : quote;
+        this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        this.chars = CharBuffer.allocate(BUFFER_SIZE);
+        this.pending = new StringBuilder();
+    }
+
+    /**
+     * Sets the listener receiving the rows instead of adding them to the CSV.
+     *
+     * @param listener the listener, or null to add the rows to the CSV
+     */
+    public void setListener(final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the byte offset the file is read to, including the bytes of a row that is not completely written.
+     *
+     * @return the byte offset
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    /**
+     * Reads the rows appended since the last poll. The column names are read by the first poll.
+     *
+     * @return the amount of rows read
+     * @throws CsvReaderException when the file could not be read or a value could not be parsed
+     */
+    public synchronized int poll() throws CsvReaderException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < position) {
+                restart();
+            }
+            if (decoder == null && !readBom(channel, size)) {
+                return 0;
+            }
+            while (position < size) {
+                int count = channel.read(bytes, position);
+                if (count <= 0) {
+                    break;
+                }
+                position += count;
+                bytes.flip();
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chars, false);
+                    chars.flip();
+                    pending.append(chars);
+                    chars.clear();
+                } while (result.isOverflow());
+                bytes.compact();
+            }
+            return readRows();
+        } catch (IOException | RuntimeException e) {
+            throw new CsvReaderException(file, e);
+        }
+    }
+
+    /**
+     * Reads the rows that are completely written from the pending characters. The characters are kept until all
+     * of their rows are built, so the same rows are read again by the next poll when a value can not be parsed.
+     *
+     * @return the amount of rows read
+     * @throws IOException when the rows could not be read
+     */
+    private int readRows() throws IOException {
+        int end = 0;
+        for (int x = scanned; x < pending.length(); x++) {
+            char c = pending.charAt(x);
+            if (c == quoteChar) {
+                withinQuote = !withinQuote;
+            } else if (c == CSV.LINEFEED && !withinQuote) {
+                end = x + 1;
+            }
+        }
+        scanned = pending.length();
+        if (end == 0) {
+            return 0;
+        }
+        String complete = pending.substring(0, end);
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(complete), separatorChar, quoteChar);
+        boolean header = fieldColumns == null;
+        List<Row> rows = new ArrayList<>();
+        try {
+            if (header) {
+                if (!tokenizer.nextRow()) {
+                    return 0;
+                }
+                readColumns(tokenizer);
+            } else {
+                tokenizer.setKeepFields(CsvReader.keepFields(fieldColumns));
+            }
+            while (tokenizer.nextRow()) {
+                rows.add(CsvReader.buildRow(tokenizer, fieldColumns, csv.isLazyParsing(), dictionaries,
+                        csv.getParseErrors(), -1));
+            }
+        } catch (IOException | RuntimeException e) {
+            if (header) {
+                fieldColumns = null;
+            }
+            scanned = 0;
+            withinQuote = false;
+            throw e;
+        }
+        pending.delete(0, end);
+        scanned -= end;
+        Listener l = listener;
+        for (Row row : rows) {
+            if (l == null) {
+                csv.addRow(row);
+            } else {
+                l.rowRead(row);
+            }
+        }
+        return rows.size();
+    }
+
+    /**
+     * Reads the column names and the separator. Columns that are already in the CSV are reused.
+     *
+     * @param tokenizer the tokenizer with the column names as the current row
+     */
+    private void readColumns(final CsvTokenizer tokenizer) {
+        if (separatorChar == null) {
+            separatorChar = tokenizer.getSeparatorChar() == null ? CSV.COMMA : tokenizer.getSeparatorChar();
+        }
+        csv.setSeparator(separatorChar);
+        csv.setQuoteChar(quoteChar);
+        csv.setCharset(charset);
+        if (csv.getColumnCount() == 0) {
+            fieldColumns = CsvReader.addColumns(tokenizer, csv, null);
+        } else {
+            String[] names = CsvReader.columnNames(tokenizer);
+            fieldColumns = new Column[names.length];
+            for (int x = 0; x < names.length; x++) {
+                fieldColumns[x] = csv.getColumn(names[x]);
+            }
+        }
+        tokenizer.setKeepFields(CsvReader.keepFields(fieldColumns));
+        dictionaries = FieldDictionary.create(fieldColumns, FieldDictionary.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Detects the charset from the BOM at the start of the file and skips the BOM.
+     *
+     * @param channel the channel
+     * @param size    the size of the file
+     * @return true when detected, or false when too few bytes are written to tell
+     * @throws IOException when the file could not be read
+     */
+    private boolean readBom(final FileChannel channel, final long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, BOM.MAX_BOM_SIZE));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // Read until the buffer is full
+        }
+        byte[] start = Arrays.copyOf(buffer.array(), buffer.position());
+        if (start.length < BOM.MAX_BOM_SIZE && isBomStart(start)) {
+            return false;
+        }
+        BOM bom = BOM.parse(start);
+        if (charset == null) {
+            charset = bom == null ? BOM.UTF8.getCharset() : bom.getCharset();
+        } else if (bom != null && !bom.getCharset().equals(charset)) {
+            bom = null;
+        }
+        position = bom == null ? 0 : bom.getBytes().length;
+        decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return true;
+    }
+
+    /**
+     * Returns true if the bytes may be the start of a BOM that is not completely written.
+     *
+     * @param start the bytes at the start of the file
+     * @return true when the start of a BOM
+     */
+    private static boolean isBomStart(final byte[] start) {
+        for (BOM bom : BOM.values()) {
+            byte[] b = bom.getBytes();
+            if (start.length < b.length && Arrays.equals(start, Arrays.copyOf(b, start.length))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the position when the file was truncated, so it is read from the start again. The column names are
+     * then mapped to the columns already in the CSV.
+     */
+    private void restart() {
+        position = 0;
+        decoder = null;
+        bytes.clear();
+        pending.setLength(0);
+        scanned = 0;
+        withinQuote = false;
+        fieldColumns = null;
+    }
+
+    /**
+     * Starts polling the file on a background thread. The file is polled whenever the file system reports a
+     * change in the folder of the file, and at least once every interval in case changes are not reported.
+     *
+     * @param interval the maximum amount of milliseconds between polls
+     */
+    public synchronized void start(final long interval) {
+        if (thread != null) {
+            throw new IllegalStateException("Already started");
+        }
+        running = true;
+        thread = new Thread(() -> follow(interval), "CsvFollower-" + file.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Polls the file until stopped.
+     *
+     * @param interval the maximum amount of milliseconds between polls
+     */
+    private void follow(final long interval) {
+        Path folder = file.getAbsoluteFile().getParentFile().toPath();
+        try (WatchService watcher = folder.getFileSystem().newWatchService()) {
+            folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (running) {
+                poll();
+                WatchKey key = watcher.poll(interval, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            failed(new CsvReaderException(file, e));
+        } catch (CsvReaderException e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * Tells the listener that the background thread stopped because of the exception. Nothing is told when the
+     * follower was closed, as closing interrupts a poll that is reading the file.
+     *
+     * @param e the exception
+     */
+    private void failed(final CsvReaderException e) {
+        if (!running || e.getCause() instanceof ClosedByInterruptException) {
+            return;
+        }
+        running = false;
+        Listener l = listener;
+        if (l != null) {
+            l.failed(e);
+        }
+    }
+
+    /**
+     * Stops the background thread and waits for it to finish.
+     */
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            running = false;
+            t = thread;
+            thread = null;
+        }
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
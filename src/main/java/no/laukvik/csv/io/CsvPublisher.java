@@ -0,0 +1,277 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.Row;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the rows of a CSV file to a subscriber that may be slower than the parser.
+ * <pre>{@code
+ * CSV csv = new CSV();
+ * CsvPublisher publisher = new CsvPublisher(file, new CsvReader(null, null, null), csv);
+ * publisher.subscribe(subscriber);
+ * }</pre>
+ *
+ * <p>The rows are parsed ahead of the demand into a buffer holding at most the specified amount of rows. The
+ * parser waits while the buffer is full, so the memory used stays bounded no matter how slow the subscriber is.
+ * Rows are only delivered as requested by {@link Flow.Subscription#request(long)}. Cancelling the subscription
+ * stops the parser and closes the file.</p>
+ *
+ * <p>The columns are read into the CSV before the first row is delivered, but the rows are not added to the CSV.
+ * A publisher reads the file once and accepts a single subscriber.</p>
+ */
+public final class CsvPublisher implements Flow.Publisher<Row> {
+
+    /**
+     * The default amount of rows to parse ahead.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    /**
+     * The amount of milliseconds the parser waits for room in the buffer before checking for cancellation.
+     */
+    private static final long OFFER_TIMEOUT = 100;
+
+    /**
+     * The file to read.
+     */
+    private final File file;
+    /**
+     * The reader to read the file with.
+     */
+    private final CsvReader reader;
+    /**
+     * The csv to read the columns into.
+     */
+    private final CSV csv;
+    /**
+     * The maximum amount of rows to parse ahead.
+     */
+    private final int bufferSize;
+    /**
+     * The executor running the parser.
+     */
+    private final Executor executor;
+    /**
+     * Whether the publisher has a subscriber.
+     */
+    private final AtomicBoolean subscribed;
+
+    /**
+     * Creates a publisher parsing the default amount of rows ahead on a new thread.
+     *
+     * @param file   the file
+     * @param reader the reader
+     * @param csv    the csv to read the columns into
+     */
+    public CsvPublisher(final File file, final CsvReader reader, final CSV csv) {
+        this(file, reader, csv, DEFAULT_BUFFER_SIZE, task -> {
+            Thread thread = new Thread(task, "CsvPublisher-" + file.getName());
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /**
+     * Creates a publisher parsing the rows ahead using the executor. The parser blocks the thread while the buffer
+     * is full, so the executor should not be a shared pool with few threads.
+     *
+     * @param file       the file
+     * @param reader     the reader
+     * @param csv        the csv to read the columns into
+     * @param bufferSize the maximum amount of rows to parse ahead
+     * @param executor   the executor running the parser
+     */
+    public CsvPublisher(final File file, final CsvReader reader, final CSV csv, final int bufferSize,
+                        final Executor executor) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Illegal buffer size " + bufferSize);
+        }
+        this.file = file;
+        this.reader = reader;
+        this.csv = csv;
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+        this.subscribed = new AtomicBoolean();
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super Row> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The publisher already has a subscriber"));
+            return;
+        }
+        RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        executor.execute(subscription::parse);
+    }
+
+    /**
+     * Delivers the parsed rows to the subscriber as requested.
+     */
+    private final class RowSubscription implements Flow.Subscription {
+        /**
+         * The subscriber.
+         */
+        private final Flow.Subscriber<? super Row> subscriber;
+        /**
+         * The rows parsed but not delivered.
+         */
+        private final BlockingQueue<Row> queue;
+        /**
+         * The amount of rows requested but not delivered.
+         */
+        private final AtomicLong demand;
+        /**
+         * The amount of times the rows must be delivered again, making sure only one thread delivers at a time.
+         */
+        private final AtomicInteger work;
+        /**
+         * Whether the subscription is cancelled or completed.
+         */
+        private volatile boolean cancelled;
+        /**
+         * Whether the parser has read all rows.
+         */
+        private volatile boolean done;
+        /**
+         * The error stopping the parser, or null.
+         */
+        private volatile Throwable error;
+
+        /**
+         * Creates a subscription.
+         *
+         * @param subscriber the subscriber
+         */
+        RowSubscription(final Flow.Subscriber<? super Row> subscriber) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+            this.demand = new AtomicLong();
+            this.work = new AtomicInteger();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Illegal amount of rows requested " + n);
+                done = true;
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            deliver();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Parses the rows into the queue until all rows are read or the subscription is cancelled.
+         */
+        private void parse() {
+            try {
+                reader.openFile(file, csv);
+                while (!cancelled && reader.hasNext()) {
+                    Row row = reader.next();
+                    while (!queue.offer(row, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                        if (cancelled) {
+                            return;
+                        }
+                    }
+                    deliver();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } catch (CsvReaderException | RuntimeException e) {
+                error = e;
+            } finally {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    if (error == null) {
+                        error = new CsvReaderException(file, e);
+                    }
+                }
+                done = true;
+                deliver();
+            }
+        }
+
+        /**
+         * Delivers the requested rows available in the queue, and completes the subscription when all rows are
+         * delivered. Calls made while another thread delivers are handled by that thread.
+         */
+        private void deliver() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long requested = demand.get();
+                long delivered = 0;
+                while (!cancelled) {
+                    boolean finished = done;
+                    if (finished && error != null) {
+                        terminate();
+                        break;
+                    }
+                    if (delivered == requested) {
+                        if (finished && queue.isEmpty()) {
+                            terminate();
+                        }
+                        break;
+                    }
+                    Row row = queue.poll();
+                    if (row == null) {
+                        if (finished) {
+                            terminate();
+                        }
+                        break;
+                    }
+                    subscriber.onNext(row);
+                    delivered++;
+                }
+                if (delivered > 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-delivered);
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Completes the subscription, or fails it when the parser stopped with an error.
+         */
+        private void terminate() {
+            cancelled = true;
+            queue.clear();
+            if (error == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(error);
+            }
+        }
+    }
+}
@@ -3,19 +3,66 @@ package no.laukvik.csv.io;
 import no.laukvik.csv.CSV;
 import no.laukvik.csv.Row;
 import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.DoubleColumn;
+import no.laukvik.csv.columns.FloatColumn;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.StringColumn;
+import no.laukvik.csv.query.Query;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Reads a data setRaw in the CSV format.
+ * <p>The whole file can be read into a CSV using {@link #readFile(File, CSV)}. Large files can be read one row at a
+ * time without keeping the rows in memory:</p>
+ * <pre>{@code
+ * try (CsvReader reader = new CsvReader(null, null, null)) {
+ *     reader.openFile(file, csv);
+ *     while (reader.hasNext()) {
+ *         Row row = reader.next();
+ *     }
+ * }
+ * }</pre>
+ * <p>Data that is not in a file, such as a HTTP response or a download, can be read directly from an InputStream,
+ * a ReadableByteChannel, a Path in any file system or a classpath resource. The charset, separator and quote are
+ * detected the same way as for files.</p>
+ * <p>Files and streams compressed with GZIP, zlib or ZIP are recognized by their first bytes and decompressed while
+ * they are read. All CSV files in a ZIP archive can be read in parallel using {@link #readZipFile(File)}.</p>
+ * <p>When a query is set with {@link #setQuery(Query)} only the rows matching the query are read. The query is
+ * evaluated while the file is parsed, so rows that do not match are never built.</p>
  */
-public final class CsvReader implements DatasetFileReader {
+public final class CsvReader implements DatasetFileReader, Iterator<Row>, Closeable {
 
     /**
      * Automatically detect charset through BOM.
@@ -29,10 +76,6 @@ public final class CsvReader implements DatasetFileReader {
      * Whether column separator should be automatically detected or not.
      */
     private boolean autoDetectColumnSeparator;
-    /**
-     * The number of lines read.
-     */
-    private int lineCounter;
     /**
      * The column separator character.
      */
@@ -44,6 +87,90 @@ public final class CsvReader implements DatasetFileReader {
     private Charset charset;
     private int skipRows;
     private boolean appendMode;
+    /**
+     * The amount of threads to read the rows with.
+     */
+    private int parallelism = 1;
+    /**
+     * The CSV the opened file is read into.
+     */
+    private CSV csv;
+    /**
+     * The reader of the opened file.
+     */
+    private Reader reader;
+    /**
+     * The tokenizer of the opened file.
+     */
+    private Tokenizer tokenizer;
+    /**
+     * The column of each field in the opened file, or null for fields that are skipped.
+     */
+    private Column[] fieldColumns;
+    /**
+     * The dictionary of each field in the opened file, or null when not used.
+     */
+    private FieldDictionary[] dictionaries;
+    /**
+     * The lower case names of the columns to read, or null to read all columns.
+     */
+    private Set<String> projection;
+    /**
+     * The query the rows must match, or null to read all rows.
+     */
+    private Query query;
+    /**
+     * The filter evaluating the query against the fields of the opened file.
+     */
+    private QueryFilter filter;
+    /**
+     * Whether the tokenizer holds a matching row that is not yet returned by {@link #next()}.
+     */
+    private boolean rowPending;
+    /**
+     * Whether the values are parsed the first time they are read instead of when the row is built.
+     */
+    private boolean lazyParsing;
+    /**
+     * The maximum amount of distinct values shared by each string column, or 0 to not share values.
+     */
+    private int dictionaryThreshold = FieldDictionary.DEFAULT_THRESHOLD;
+    /**
+     * The compression of the opened file, or null when not compressed.
+     */
+    private Compression compression;
+    /**
+     * Whether the first row contains the column names.
+     */
+    private boolean header = true;
+    /**
+     * The line ending of the rows, or null for line feeds.
+     */
+    private String lineEnding;
+    /**
+     * The inference of the column types, or null to read columns without a type as StringColumn.
+     */
+    private ColumnTypeInference typeInference;
+    /**
+     * True for each field read by a column of an inferred type other than StringColumn, or null when none.
+     */
+    private boolean[] inferredFields;
+    /**
+     * The collector of values that can not be parsed, or null to stop reading at the first such value.
+     */
+    private ParseErrors parseErrors;
+    /**
+     * The index in the file of the row read by the tokenizer.
+     */
+    private long currentRow;
+    /**
+     * The byte offset of the rows in the file, or null to skip rows by parsing them.
+     */
+    private RowIndex index;
+    /**
+     * The opened file, or null when reading a stream.
+     */
+    private File file;
 
     /**
      * Reads CSV from the specified reader using the separator and quote characters.
@@ -76,41 +203,267 @@ public final class CsvReader implements DatasetFileReader {
      */
     @Override
     public void readFile(final File file, final CSV csv) throws CsvReaderException {
-        BOM bom = null;
-        if (!appendMode){
-            if (autoDetectCharset) {
-                bom = BOM.findBom(file);
-                if (bom == null) {
-                    csv.setCharset(BOM.UTF8.getCharset());
-                } else {
-                    csv.setCharset(bom.getCharset());
+        openFile(file, csv);
+        if (parallelism > 1 && skipRows == 0 && !appendMode && header && compression == null
+                && columnSeparatorChar != null && parseErrors == null && !Dialect.CR.equals(lineEnding)
+                && ParallelCsvReader.isSupported(csv.getCharset(), quoteChar)
+                && file.length() > ParallelCsvReader.MIN_CHUNK_SIZE) {
+            closeQuietly();
+            try {
+                readFileParallel(file, csv);
+                return;
+            } catch (RuntimeException e) {
+                if (inferredFields == null) {
+                    throw e;
                 }
-            } else {
-                csv.setCharset(this.charset);
             }
+            readInferredFile(file, csv);
+            return;
         }
+        try {
+            readRows();
+        } catch (IOException | TooManyParseErrorsException e) {
+            throw new CsvReaderException(file, e);
+        } finally {
+            closeQuietly();
+        }
+    }
 
-        this.lineCounter = 0;
-        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(file), csv.getCharset())) {
-            if (skipRows > 0) {
-                int rowsSkippedCount = 0;
-                while (reader.ready() && rowsSkippedCount < skipRows) {
-                    skipRow(csv, reader);
-                    rowsSkippedCount++;
+    /**
+     * Reads the rows from fromRow to toRow into the CSV, where 0 is the first row after the column names. The
+     * column names are read first when the CSV has no columns. With a row index the reader moves directly to the
+     * first row, otherwise the rows before it are parsed and skipped.
+     *
+     * @param file    the file
+     * @param csv     the csv
+     * @param fromRow the index of the first row to read
+     * @param toRow   the index after the last row to read
+     * @throws CsvReaderException when the file could not be read
+     * @see #setRowIndex(RowIndex)
+     */
+    public void readRows(final File file, final CSV csv, final int fromRow, final int toRow)
+            throws CsvReaderException {
+        if (fromRow < 0 || toRow < fromRow) {
+            throw new IllegalArgumentException("Illegal row range " + fromRow + " to " + toRow);
+        }
+        int oldSkipRows = skipRows;
+        boolean oldAppendMode = appendMode;
+        try {
+            if (csv.getColumnCount() == 0) {
+                openFile(file, csv);
+                close();
+            }
+            skipRows = header ? fromRow + 1 : fromRow;
+            appendMode = true;
+            openFile(file, csv);
+            int count = toRow - fromRow;
+            while (count > 0 && nextRow()) {
+                count--;
+                if (filter == null || filter.matches(tokenizer, currentRow)) {
+                    csv.addRow(buildRow());
                 }
-            } else {
-                if (autoDetectCharset && bom != null) {
-                    reader.skip(bom.getBytes().length);
+            }
+        } catch (IOException | TooManyParseErrorsException e) {
+            throw new CsvReaderException(file, e);
+        } finally {
+            skipRows = oldSkipRows;
+            appendMode = oldAppendMode;
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Reads the stream. The stream is closed when all rows are read.
+     *
+     * @param in  the stream
+     * @param csv the csv
+     * @throws CsvReaderException when the stream could not be read
+     */
+    public void readStream(final InputStream in, final CSV csv) throws CsvReaderException {
+        try {
+            open(in, null, csv);
+            readRows();
+        } catch (IOException | TooManyParseErrorsException e) {
+            throw new CsvReaderException(e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Reads the channel. The channel is closed when all rows are read.
+     *
+     * @param channel the channel
+     * @param csv     the csv
+     * @throws CsvReaderException when the channel could not be read
+     */
+    public void readChannel(final ReadableByteChannel channel, final CSV csv) throws CsvReaderException {
+        readStream(Channels.newInputStream(channel), csv);
+    }
+
+    /**
+     * Reads the file with the path. Paths in the default file system are read with {@link #readFile(File, CSV)},
+     * while paths in other file systems, such as zip files, are read as a stream.
+     *
+     * @param path the path
+     * @param csv  the csv
+     * @throws CsvReaderException when the file could not be read
+     */
+    public void readPath(final Path path, final CSV csv) throws CsvReaderException {
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            readFile(path.toFile(), csv);
+            return;
+        }
+        InputStream in;
+        try {
+            in = Files.newInputStream(path);
+        } catch (IOException e) {
+            throw new CsvReaderException(e);
+        }
+        readStream(in, csv);
+    }
+
+    /**
+     * Reads the classpath resource with the name.
+     *
+     * @param name the name of the resource
+     * @param csv  the csv
+     * @throws CsvReaderException when the resource could not be found or read
+     */
+    public void readResource(final String name, final CSV csv) throws CsvReaderException {
+        InputStream in = CsvReader.class.getClassLoader().getResourceAsStream(name);
+        if (in == null) {
+            throw new CsvReaderException(new FileNotFoundException(name));
+        }
+        readStream(in, csv);
+    }
+
+    /**
+     * Reads each file in the ZIP archive into its own CSV. The files are read in parallel using the amount of
+     * threads set with {@link #setParallelism(int)}. With a collector of parse errors each file gets its own
+     * collector with the same error budget, found with {@link CSV#getParseErrors()} of its CSV. The other files
+     * are cancelled when one file can not be read.
+     *
+     * @param file the ZIP archive
+     * @return the CSV of each file by its name, in the order of the archive
+     * @throws CsvReaderException when the archive could not be read
+     */
+    public Map<String, CSV> readZipFile(final File file) throws CsvReaderException {
+        try (ZipFile zip = new ZipFile(file)) {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            try {
+                Map<String, ForkJoinTask<CSV>> tasks = new LinkedHashMap<>();
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (!entry.isDirectory()) {
+                        CsvReader entryReader = copy();
+                        if (parseErrors != null) {
+                            entryReader.parseErrors = parseErrors.copy();
+                        }
+                        tasks.put(entry.getName(), pool.submit((Callable<CSV>) () -> {
+                            CSV entryCsv = new CSV();
+                            entryCsv.setParseErrors(entryReader.parseErrors);
+                            entryReader.readStream(zip.getInputStream(entry), entryCsv);
+                            return entryCsv;
+                        }));
+                    }
                 }
-                csv.setSeparator(columnSeparatorChar);
-                csv.setQuoteChar(this.quoteChar);
-                List<String> columns = parseRow(csv, reader);
-                for (String rawColumnName : columns) {
-                    csv.addColumn(Column.parseName(rawColumnName));
+                Map<String, CSV> results = new LinkedHashMap<>();
+                try {
+                    for (Map.Entry<String, ForkJoinTask<CSV>> task : tasks.entrySet()) {
+                        results.put(task.getKey(), task.getValue().get());
+                    }
+                } finally {
+                    for (ForkJoinTask<CSV> task : tasks.values()) {
+                        task.cancel(true);
+                    }
                 }
+                return results;
+            } finally {
+                pool.shutdownNow();
+                awaitTermination(pool);
             }
-            while (reader.ready()) {
-                readRow(csv, reader);
+        } catch (IOException e) {
+            throw new CsvReaderException(file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CsvReaderException(file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CsvReaderException) {
+                throw (CsvReaderException) e.getCause();
+            }
+            throw new CsvReaderException(file, e.getCause());
+        }
+    }
+
+    /**
+     * Waits for the running tasks of the pool to finish, so the archive they read is not closed underneath them.
+     *
+     * @param pool the pool
+     */
+    private static void awaitTermination(final ForkJoinPool pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting for the entries being read
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates a new reader with the same settings.
+     *
+     * @return the reader
+     */
+    private CsvReader copy() {
+        CsvReader copy = new CsvReader(charset, autoDetectColumnSeparator ? null : columnSeparatorChar, quoteChar);
+        copy.projection = projection;
+        copy.query = query;
+        copy.lazyParsing = lazyParsing;
+        copy.dictionaryThreshold = dictionaryThreshold;
+        copy.header = header;
+        copy.lineEnding = lineEnding;
+        copy.typeInference = typeInference;
+        copy.parseErrors = parseErrors;
+        return copy;
+    }
+
+    /**
+     * Reads the remaining rows of the opened file into the CSV.
+     *
+     * @throws IOException when the file could not be read
+     */
+    private void readRows() throws IOException {
+        if (rowPending) {
+            rowPending = false;
+            csv.addRow(buildRow());
+        }
+        while (nextRow()) {
+            if (filter == null || filter.matches(tokenizer, currentRow)) {
+                csv.addRow(buildRow());
+            }
+        }
+    }
+
+    /**
+     * Reads the rows of the file in parallel after the column names are read.
+     *
+     * @param file the file
+     * @param csv  the csv
+     * @throws CsvReaderException when the file could not be read
+     */
+    private void readFileParallel(final File file, final CSV csv) throws CsvReaderException {
+        try {
+            long dataStart = ParallelCsvReader.findFirstRecordEnd(file, quoteChar);
+            if (dataStart < 0) {
+                return;
+            }
+            ParallelCsvReader parallelReader = new ParallelCsvReader(parallelism, csv.getCharset(),
+                    columnSeparatorChar, quoteChar, lazyParsing, dictionaryThreshold);
+            for (Row row : parallelReader.read(file, dataStart, fieldColumns, filter)) {
+                csv.addRow(row);
             }
         } catch (IOException e) {
             throw new CsvReaderException(file, e);
@@ -118,123 +471,638 @@ public final class CsvReader implements DatasetFileReader {
     }
 
     /**
-     * Reads the next row.
+     * Reads the rows of the file again by a single thread after a value did not fit the type inferred for its
+     * column. The columns are then widened to StringColumn while reading.
      *
-     * @param csv    the csv
-     * @param reader the reader
-     * @throws IOException when the row could not be read
+     * @param file the file
+     * @param csv  the csv with the inferred columns and no rows
+     * @throws CsvReaderException when the file could not be read
      */
-    private void readRow(final CSV csv, final InputStreamReader reader) throws IOException {
-        Row row = csv.addRow();
-        List<String> values = parseRow(csv, reader);
-        for (int x = 0; x < values.size(); x++) {
-            String value = values.get(x);
-            Column c = csv.getColumn(x);
-            row.setRaw(c, value);
+    private void readInferredFile(final File file, final CSV csv) throws CsvReaderException {
+        boolean[] inferred = inferredFields;
+        int oldSkipRows = skipRows;
+        boolean oldAppendMode = appendMode;
+        try {
+            skipRows = 1;
+            appendMode = true;
+            openFile(file, csv);
+            inferredFields = inferred;
+            readRows();
+        } catch (IOException | TooManyParseErrorsException e) {
+            throw new CsvReaderException(file, e);
+        } finally {
+            skipRows = oldSkipRows;
+            appendMode = oldAppendMode;
+            closeQuietly();
         }
     }
 
-    private void skipRow(final CSV csv, final InputStreamReader reader) throws IOException{
-        parseRow(csv, reader);
+    /**
+     * Opens the file and reads the column names. The rows can then be read one at a time using {@link #hasNext()}
+     * and {@link #next()} without being added to the CSV. The file must be closed by calling {@link #close()}.
+     *
+     * @param file the file
+     * @param csv  the csv to read the columns into
+     * @throws CsvReaderException when the file could not be read
+     */
+    public void openFile(final File file, final CSV csv) throws CsvReaderException {
+        try {
+            open(new FileInputStream(file), file, csv);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new CsvReaderException(file, e);
+        }
     }
 
     /**
-     * Parses one row of CSV data.
+     * Opens the stream and reads the column names. The rows can then be read one at a time using
+     * {@link #hasNext()} and {@link #next()} without being added to the CSV. The stream is closed by calling
+     * {@link #close()}.
      *
-     * @param csv    the csv
-     * @param reader the reader
-     * @return a list of strings
-     * @throws IOException when the row could not be read
+     * @param in  the stream
+     * @param csv the csv to read the columns into
+     * @throws CsvReaderException when the stream could not be read
      */
-    private List<String> parseRow(final CSV csv, final InputStreamReader reader) throws IOException {
-        List<String> values = new ArrayList<>();
+    public void openStream(final InputStream in, final CSV csv) throws CsvReaderException {
+        try {
+            open(in, null, csv);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new CsvReaderException(e);
+        }
+    }
 
-        boolean isNextLine = false;
+    /**
+     * Detects the charset from the BOM at the start of the stream and reads the column names.
+     *
+     * @param in   the stream
+     * @param file the file the stream reads, or null when not reading a file
+     * @param csv  the csv to read the columns into
+     * @throws IOException when the stream could not be read
+     */
+    private void open(final InputStream in, final File file, final CSV csv) throws IOException {
+        this.csv = csv;
+        this.file = file;
+        this.rowPending = false;
+        PushbackInputStream source = new PushbackInputStream(in, Compression.MAX_MAGIC_SIZE);
+        PushbackInputStream input;
+        try {
+            compression = Compression.readCompression(source);
+            input = new PushbackInputStream(compression == null ? source : compression.decompress(source),
+                    BOM.MAX_BOM_SIZE);
+            readBom(input, csv);
+        } catch (IOException e) {
+            source.close();
+            throw e;
+        }
+        reader = new InputStreamReader(input, csv.getCharset());
+        CsvTokenizer csvTokenizer = new CsvTokenizer(reader, columnSeparatorChar, quoteChar);
+        csvTokenizer.setLineEnding(lineEnding);
+        tokenizer = csvTokenizer;
+        currentRow = -1;
+        inferredFields = null;
+        if (skipRows > 0 || appendMode) {
+            if (skipRows == 0 || !seek(skipRows)) {
+                int rowsSkippedCount = 0;
+                while (rowsSkippedCount < skipRows && csvTokenizer.skipRow()) {
+                    rowsSkippedCount++;
+                }
+            }
+            currentRow = skipRows - 1;
+            updateSeparator(csv, tokenizer);
+            fieldColumns = mapColumns(csv, projection);
+            filter = query == null ? null : new QueryFilter(query, columnNames(csv), fieldColumns, parseErrors);
+        } else {
+            csv.setSeparator(columnSeparatorChar);
+            csv.setQuoteChar(this.quoteChar);
+            nextRow();
+            updateSeparator(csv, tokenizer);
+            String[] fields = header ? getFields(tokenizer) : numberedColumnNames(tokenizer.getFieldCount());
+            Column[] columns = parseColumns(fields);
+            String[] names = columnNames(columns);
+            if (typeInference != null) {
+                SampledTokenizer sampled = new SampledTokenizer(tokenizer, !header, typeInference.getSampleRows());
+                inferColumns(fields, columns, sampled.getRows());
+                tokenizer = sampled;
+                if (!header) {
+                    currentRow = -1;
+                }
+            }
+            fieldColumns = addColumns(columns, csv, projection);
+            if (inferredFields != null) {
+                for (int x = 0; x < inferredFields.length; x++) {
+                    inferredFields[x] &= x < fieldColumns.length && fieldColumns[x] == columns[x];
+                }
+            }
+            filter = query == null ? null : new QueryFilter(query, names, fieldColumns, parseErrors);
+            if (!header && typeInference == null) {
+                rowPending = filter == null || filter.matches(tokenizer, currentRow);
+            }
+        }
+        tokenizer.setKeepFields(keepFields(fieldColumns, filter));
+        dictionaries = FieldDictionary.create(fieldColumns, dictionaryThreshold);
+    }
 
-        /* Current value */
-        StringBuilder currentValue = new StringBuilder();
+    /**
+     * Moves to the row using the row index. The index is only used for uncompressed files in an ASCII compatible
+     * charset when it is not stale.
+     *
+     * @param rowIndex the index of the row, where 0 is the first row in the file
+     * @return true when moved, or false when the rows must be skipped
+     * @throws IOException when the file could not be read
+     */
+    private boolean seek(final int rowIndex) throws IOException {
+        if (index == null || file == null || compression != null || index.getQuoteChar() != quoteChar
+                || Dialect.CR.equals(lineEnding)
+                || !ParallelCsvReader.isSupported(csv.getCharset(), quoteChar) || index.isStale(file)) {
+            return false;
+        }
+        FileInputStream in = new FileInputStream(file);
+        try {
+            in.getChannel().position(index.getOffset(rowIndex));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        reader.close();
+        reader = new InputStreamReader(in, csv.getCharset());
+        Character separator = columnSeparatorChar == null ? csv.getSeparatorChar() : columnSeparatorChar;
+        CsvTokenizer csvTokenizer = new CsvTokenizer(reader, separator, quoteChar);
+        csvTokenizer.setLineEnding(lineEnding);
+        tokenizer = csvTokenizer;
+        return true;
+    }
 
-        boolean isWithinQuote = false;
+    /**
+     * Consumes the BOM at the start of the stream and sets the charset of the CSV. When the charset is detected
+     * any BOM is consumed, otherwise only the BOM of the charset in use.
+     *
+     * @param input the stream
+     * @param csv   the csv
+     * @throws IOException when the stream could not be read
+     */
+    private void readBom(final PushbackInputStream input, final CSV csv) throws IOException {
+        if (appendMode) {
+            BOM.readBom(input, csv.getCharset());
+        } else if (autoDetectCharset) {
+            BOM bom = BOM.readBom(input, null);
+            csv.setCharset(bom == null ? BOM.UTF8.getCharset() : bom.getCharset());
+        } else {
+            BOM.readBom(input, this.charset);
+            csv.setCharset(this.charset);
+        }
+    }
 
-        /* Read until */
-        while (reader.ready() && !isNextLine) {
+    /**
+     * Returns true if there are more rows to read from the opened file.
+     *
+     * @return true when there are more rows
+     * @throws UncheckedIOException when the file could not be read
+     */
+    @Override
+    public boolean hasNext() {
+        if (rowPending) {
+            return true;
+        }
+        if (tokenizer == null) {
+            return false;
+        }
+        try {
+            while (nextRow()) {
+                if (filter == null || filter.matches(tokenizer, currentRow)) {
+                    rowPending = true;
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            // Read next char
-            int intChar = reader.read();
+    /**
+     * Reads the next row from the opened file. The row is not added to the CSV.
+     *
+     * @return the row
+     * @throws NoSuchElementException when there are no more rows
+     * @throws UncheckedIOException   when the file could not be read
+     */
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        rowPending = false;
+        return buildRow();
+    }
 
+    /**
+     * Closes the opened file.
+     *
+     * @throws IOException when the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        tokenizer = null;
+        rowPending = false;
+        if (reader != null) {
+            Reader r = reader;
+            reader = null;
+            r.close();
+        }
+    }
 
-            char currentChar = (char) intChar;
+    /**
+     * Closes the opened file and ignores any errors.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            // Nothing more to do
+        }
+    }
 
-            // Determines whether or not to add char
-            boolean addChar = false;
+    /**
+     * Updates the separator when it was detected by the tokenizer.
+     *
+     * @param csv       the csv
+     * @param tokenizer the tokenizer
+     */
+    private void updateSeparator(final CSV csv, final Tokenizer tokenizer) {
+        if (autoDetectColumnSeparator && tokenizer.getSeparatorChar() != null) {
+            columnSeparatorChar = tokenizer.getSeparatorChar();
+            autoDetectColumnSeparator = false;
+            csv.setSeparator(columnSeparatorChar);
+        }
+    }
 
-            // Adds the currentValue
-            boolean addValue = false;
+    /**
+     * Builds a row of the fields read by the tokenizer. A column of an inferred type is widened to StringColumn
+     * when a value does not fit the type, so the values of inferred columns are never parsed lazily.
+     *
+     * @return the row
+     */
+    private Row buildRow() {
+        if (inferredFields == null) {
+            return buildRow(tokenizer, fieldColumns, lazyParsing, dictionaries, parseErrors, currentRow);
+        }
+        try {
+            return buildRow(tokenizer, fieldColumns, false, dictionaries, parseErrors, currentRow);
+        } catch (RuntimeException e) {
+            if (!widenColumns()) {
+                throw e;
+            }
+            return buildRow(tokenizer, fieldColumns, false, dictionaries, parseErrors, currentRow);
+        }
+    }
 
-            // Look for separator characters in first line
-            if (lineCounter == 0 && autoDetectColumnSeparator
-                    && (currentChar == CSV.TAB
-                    || currentChar == CSV.SEMICOLON
-                    || currentChar == CSV.PIPE
-                    || currentChar == CSV.COMMA)) {
-                    columnSeparatorChar = currentChar;
-                    autoDetectColumnSeparator = false;
-                    csv.setSeparator(columnSeparatorChar);
+    /**
+     * Replaces the inferred columns with values read by the tokenizer that do not fit their type with
+     * StringColumns. The values already read are kept as strings.
+     *
+     * @return true when any column was widened
+     */
+    private boolean widenColumns() {
+        boolean widened = false;
+        int count = Math.min(tokenizer.getFieldCount(), fieldColumns.length);
+        for (int x = 0; x < count; x++) {
+            if (inferredFields[x] && fieldColumns[x] != null && !fits(x)) {
+                fieldColumns[x] = widenColumn(fieldColumns[x]);
+                inferredFields[x] = false;
+                widened = true;
             }
+        }
+        if (widened) {
+            dictionaries = FieldDictionary.create(fieldColumns, dictionaryThreshold);
+        }
+        return widened;
+    }
 
-            // Check char
-            if (currentChar == CSV.RETURN) {
-                addChar = false;
+    /**
+     * Returns true if the field read by the tokenizer can be parsed by its column.
+     *
+     * @param fieldIndex the index of the field
+     * @return true when the value fits
+     */
+    private boolean fits(final int fieldIndex) {
+        try {
+            parseField(tokenizer, fieldColumns[fieldIndex], fieldIndex);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
 
-            } else if (currentChar == CSV.LINEFEED) {
+    /**
+     * Replaces the column in the CSV with a StringColumn at the same index, keeping the values of the rows.
+     *
+     * @param column the column
+     * @return the StringColumn
+     */
+    @SuppressWarnings("unchecked")
+    private StringColumn widenColumn(final Column column) {
+        String[] values = new String[csv.getRowCount()];
+        for (int x = 0; x < values.length; x++) {
+            Object value = csv.getRow(x).getObject(column);
+            values[x] = value == null ? null : column.asString(value);
+        }
+        int index = csv.indexOf(column);
+        csv.removeColumn(column);
+        StringColumn wide = csv.addStringColumn(column.getName());
+        csv.moveColumn(csv.getColumnCount() - 1, index);
+        for (int x = 0; x < values.length; x++) {
+            csv.getRow(x).set(wide, values[x]);
+        }
+        return wide;
+    }
 
-                addChar = false;
-                addValue = true;
-                isNextLine = true;
-                if (isWithinQuote) {
-                    currentValue.deleteCharAt(currentValue.length() - 1);
-                    isWithinQuote = false;
-                }
+    /**
+     * Reads the next row with the tokenizer and counts the rows.
+     *
+     * @return true when a row was read
+     * @throws IOException when the file could not be read
+     */
+    private boolean nextRow() throws IOException {
+        if (tokenizer.nextRow()) {
+            currentRow++;
+            return true;
+        }
+        return false;
+    }
 
-            } else if (currentChar == this.quoteChar) {
-                addChar = true;
-                isWithinQuote = true;
-                while (reader.ready()) {
-                    currentChar = (char) reader.read();
-                    if (currentChar == this.quoteChar) {
-                        break;
-                    } else {
-                        currentValue.append(currentChar);
-                    }
+    /**
+     * Builds a row of the fields read by the tokenizer. Values that can not be parsed are added to the errors and
+     * left null, or thrown when there is no collector of errors. The values are parsed right away when the errors
+     * are collected, even when lazy, so that every error is found while reading.
+     *
+     * @param tokenizer    the tokenizer
+     * @param fieldColumns the column of each field, or null for fields that are skipped
+     * @param lazy         whether to parse the values the first time they are read
+     * @param dictionaries the dictionary of each field, or null when not used
+     * @param errors       the collector of values that can not be parsed, or null to throw the exception
+     * @param rowIndex     the index of the row in the file
+     * @return the row
+     */
+    static Row buildRow(final Tokenizer tokenizer, final Column[] fieldColumns, final boolean lazy,
+                        final FieldDictionary[] dictionaries, final ParseErrors errors, final long rowIndex) {
+        Row row = new Row();
+        int count = Math.min(tokenizer.getFieldCount(), fieldColumns.length);
+        for (int x = 0; x < count; x++) {
+            Column c = fieldColumns[x];
+            if (c == null) {
+                continue;
+            }
+            try {
+                if (dictionaries != null && dictionaries[x] != null) {
+                    row.setRaw(c, dictionaries[x].get(tokenizer, x));
+                } else if (lazy && errors == null) {
+                    row.setLazy(c, tokenizer.getField(x));
+                } else if (c instanceof IntegerColumn) {
+                    row.set((IntegerColumn) c, (Integer) parseField(tokenizer, c, x));
+                } else if (c instanceof DoubleColumn) {
+                    row.set((DoubleColumn) c, (Double) parseField(tokenizer, c, x));
+                } else if (c instanceof FloatColumn) {
+                    row.set((FloatColumn) c, (Float) parseField(tokenizer, c, x));
+                } else {
+                    row.setRaw(c, tokenizer.getField(x));
                 }
-            } else if (columnSeparatorChar != null && currentChar == columnSeparatorChar) {
-                addChar = false;
-                addValue = true;
-
-                if (isWithinQuote) {
-                    currentValue.deleteCharAt(currentValue.length() - 1);
-                    isWithinQuote = false;
+            } catch (RuntimeException e) {
+                if (errors == null) {
+                    throw e;
                 }
-            } else {
-                addChar = true;
-            }
-            if (addChar) {
-                currentValue.append(currentChar);
+                errors.add(rowIndex, c, tokenizer.getField(x), e);
             }
-            if (!reader.ready()) {
-                addValue = true;
+        }
+        return row;
+    }
+
+    /**
+     * Parses the field with the column. Integer, float and double fields are parsed directly from the buffer of
+     * the tokenizer.
+     *
+     * @param tokenizer  the tokenizer
+     * @param column     the column
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    static Object parseField(final Tokenizer tokenizer, final Column column, final int fieldIndex) {
+        if (column instanceof IntegerColumn) {
+            return tokenizer.isBlank(fieldIndex) ? null : (Integer) tokenizer.getInt(fieldIndex);
+        } else if (column instanceof DoubleColumn) {
+            return tokenizer.isBlank(fieldIndex) ? null : (Double) tokenizer.getDouble(fieldIndex);
+        } else if (column instanceof FloatColumn) {
+            return tokenizer.isBlank(fieldIndex) ? null : (Float) tokenizer.getFloat(fieldIndex);
+        }
+        return column.parse(tokenizer.getField(fieldIndex));
+    }
+
+    /**
+     * Adds the columns named in the row read by the tokenizer to the CSV.
+     *
+     * @param tokenizer  the tokenizer
+     * @param csv        the csv
+     * @param projection the lower case names of the columns to add, or null to add all columns
+     * @return the column of each field, or null for fields that are skipped
+     */
+    static Column[] addColumns(final Tokenizer tokenizer, final CSV csv, final Set<String> projection) {
+        return addColumns(parseColumns(getFields(tokenizer)), csv, projection);
+    }
+
+    /**
+     * Adds the columns to the CSV.
+     *
+     * @param columns    the column of each field
+     * @param csv        the csv
+     * @param projection the lower case names of the columns to add, or null to add all columns
+     * @return the column of each field, or null for fields that are skipped
+     */
+    static Column[] addColumns(final Column[] columns, final CSV csv, final Set<String> projection) {
+        Column[] added = new Column[columns.length];
+        for (int x = 0; x < columns.length; x++) {
+            if (isProjected(columns[x], projection)) {
+                added[x] = csv.addColumn(columns[x]);
             }
-            if (addValue) {
-                if (!reader.ready() && isWithinQuote) {
-                        currentValue.deleteCharAt(currentValue.length() - 1);
-                        isWithinQuote = false;
+        }
+        return added;
+    }
+
+    /**
+     * Returns the fields in the row read by the tokenizer.
+     *
+     * @param tokenizer the tokenizer
+     * @return the fields
+     */
+    private static String[] getFields(final Tokenizer tokenizer) {
+        String[] fields = new String[tokenizer.getFieldCount()];
+        for (int x = 0; x < fields.length; x++) {
+            fields[x] = tokenizer.getField(x);
+        }
+        return fields;
+    }
+
+    /**
+     * Parses the column names including any column definitions.
+     *
+     * @param fields the column names
+     * @return the column of each field
+     */
+    private static Column[] parseColumns(final String[] fields) {
+        Column[] columns = new Column[fields.length];
+        for (int x = 0; x < columns.length; x++) {
+            columns[x] = Column.parseName(fields[x]);
+        }
+        return columns;
+    }
+
+    /**
+     * Replaces the columns without a column definition with columns of the type inferred from the sampled rows.
+     *
+     * @param fields  the column names including any column definitions
+     * @param columns the column of each field
+     * @param rows    the sampled rows
+     */
+    private void inferColumns(final String[] fields, final Column[] columns, final List<String[]> rows) {
+        Column[] inferred = typeInference.infer(columnNames(columns), rows);
+        for (int x = 0; x < columns.length; x++) {
+            if (columns[x].getName().equals(fields[x])) {
+                columns[x] = inferred[x];
+                if (!(inferred[x] instanceof StringColumn)) {
+                    if (inferredFields == null) {
+                        inferredFields = new boolean[columns.length];
+                    }
+                    inferredFields[x] = true;
                 }
-                values.add(currentValue.toString());
-                currentValue = new StringBuilder();
             }
         }
-        lineCounter++;
-        return values;
+    }
+
+    /**
+     * Returns the column names in the row read by the tokenizer.
+     *
+     * @param tokenizer the tokenizer
+     * @return the column name of each field
+     */
+    static String[] columnNames(final Tokenizer tokenizer) {
+        String[] names = new String[tokenizer.getFieldCount()];
+        for (int x = 0; x < names.length; x++) {
+            names[x] = Column.parseName(tokenizer.getField(x)).getName();
+        }
+        return names;
+    }
+
+    /**
+     * Returns the names Column1, Column2 and so on for files without column names.
+     *
+     * @param count the amount of columns
+     * @return the column name of each field
+     */
+    private static String[] numberedColumnNames(final int count) {
+        String[] names = new String[count];
+        for (int x = 0; x < names.length; x++) {
+            names[x] = "Column" + (x + 1);
+        }
+        return names;
+    }
+
+    /**
+     * Returns the names of the columns.
+     *
+     * @param columns the columns
+     * @return the column name of each field
+     */
+    private static String[] columnNames(final Column[] columns) {
+        String[] names = new String[columns.length];
+        for (int x = 0; x < names.length; x++) {
+            names[x] = columns[x].getName();
+        }
+        return names;
+    }
+
+    /**
+     * Returns the names of the columns in the CSV.
+     *
+     * @param csv the csv
+     * @return the column name of each field
+     */
+    private static String[] columnNames(final CSV csv) {
+        String[] names = new String[csv.getColumnCount()];
+        for (int x = 0; x < names.length; x++) {
+            names[x] = csv.getColumn(x).getName();
+        }
+        return names;
+    }
+
+    /**
+     * Maps the fields to the columns already in the CSV by their index.
+     *
+     * @param csv        the csv
+     * @param projection the lower case names of the columns to read, or null to read all columns
+     * @return the column of each field, or null for fields that are skipped
+     */
+    static Column[] mapColumns(final CSV csv, final Set<String> projection) {
+        Column[] columns = new Column[csv.getColumnCount()];
+        for (int x = 0; x < columns.length; x++) {
+            Column c = csv.getColumn(x);
+            if (isProjected(c, projection)) {
+                columns[x] = c;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Returns true if the column is part of the projection.
+     *
+     * @param column     the column
+     * @param projection the lower case names of the columns to read, or null to read all columns
+     * @return true when the column should be read
+     */
+    private static boolean isProjected(final Column column, final Set<String> projection) {
+        return projection == null || projection.contains(column.getName().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns which fields the tokenizer needs to keep.
+     *
+     * @param fieldColumns the column of each field, or null for fields that are skipped
+     * @return true for each field to keep
+     */
+    static boolean[] keepFields(final Column[] fieldColumns) {
+        boolean[] keep = new boolean[fieldColumns.length];
+        for (int x = 0; x < keep.length; x++) {
+            keep[x] = fieldColumns[x] != null;
+        }
+        return keep;
+    }
+
+    /**
+     * Returns which fields the tokenizer needs to keep to build the rows and evaluate the filter.
+     *
+     * @param fieldColumns the column of each field, or null for fields that are skipped
+     * @param filter       the filter, or null when all rows are read
+     * @return true for each field to keep
+     */
+    static boolean[] keepFields(final Column[] fieldColumns, final QueryFilter filter) {
+        boolean[] keep = keepFields(fieldColumns);
+        return filter == null ? keep : filter.keepFields(keep);
+    }
+
+    /**
+     * Converts the column names to a projection.
+     *
+     * @param columnNames the names of the columns, or null for all columns
+     * @return the lower case names, or null for all columns
+     */
+    static Set<String> toProjection(final String... columnNames) {
+        if (columnNames == null) {
+            return null;
+        }
+        Set<String> names = new HashSet<>();
+        for (String name : columnNames) {
+            names.add(name.toLowerCase(Locale.ROOT));
+        }
+        return names;
     }
 
     public void setAppendMode(boolean appendMode) {
@@ -244,4 +1112,106 @@ public final class CsvReader implements DatasetFileReader {
     public void setSkipRows(int skipRows) {
         this.skipRows = skipRows;
     }
+
+    /**
+     * Sets the names of the columns to read. The other columns are not added to the CSV, and their fields are
+     * skipped without being stored or parsed. Names that are not found in the file are ignored. All columns are
+     * read when null.
+     *
+     * @param columnNames the names of the columns to read
+     */
+    public void setProjection(final String... columnNames) {
+        this.projection = toProjection(columnNames);
+    }
+
+    /**
+     * Sets the separator, quote character, line ending and whether the first row contains the column names. Files
+     * without column names get the columns Column1, Column2 and so on. Files with carriage returns as the line
+     * ending are always read by a single thread without a row index.
+     *
+     * @param dialect the dialect
+     * @see DialectSniffer
+     */
+    public void setDialect(final Dialect dialect) {
+        this.columnSeparatorChar = dialect.getSeparatorChar();
+        this.autoDetectColumnSeparator = false;
+        this.quoteChar = dialect.getQuoteChar();
+        this.header = dialect.hasHeader();
+        this.lineEnding = dialect.getLineEnding();
+    }
+
+    /**
+     * Sets the inference of the types of the columns that have no type in the column definition. The types are
+     * inferred from a sample of the first rows before the rows are read. Columns without a type are read as
+     * StringColumn when null.
+     *
+     * @param typeInference the type inference
+     */
+    public void setTypeInference(final ColumnTypeInference typeInference) {
+        this.typeInference = typeInference;
+    }
+
+    /**
+     * Sets the row index used to move directly to a row instead of parsing the rows before it. The index is
+     * ignored when it is stale.
+     *
+     * @param rowIndex the row index, or null to skip rows by parsing them
+     * @see RowIndex
+     */
+    public void setRowIndex(final RowIndex rowIndex) {
+        this.index = rowIndex;
+    }
+
+    /**
+     * Sets the collector of values that can not be parsed by their column. The values are then left null and
+     * reading continues until more values than the error budget of the collector have failed, and the file is
+     * always read by a single thread. Reading stops at the first value that can not be parsed when null.
+     *
+     * @param parseErrors the collector of errors
+     */
+    public void setParseErrors(final ParseErrors parseErrors) {
+        this.parseErrors = parseErrors;
+    }
+
+    /**
+     * Sets the query the rows must match. The fields used by the query are parsed first, and the other fields
+     * are only parsed for the rows that match. All rows are read when null.
+     *
+     * @param query the query
+     */
+    public void setQuery(final Query query) {
+        this.query = query;
+    }
+
+    /**
+     * Sets whether the values are parsed the first time they are read instead of when the rows are read. This
+     * makes reading faster when only some of the values are used, or the columns are expensive to parse. The values
+     * are still parsed when the rows are read when there is a collector of parse errors.
+     *
+     * @param lazyParsing true to parse the values when they are read
+     */
+    public void setLazyParsing(final boolean lazyParsing) {
+        this.lazyParsing = lazyParsing;
+    }
+
+    /**
+     * Sets the maximum amount of distinct values shared by each string column. Equal values of a string column then
+     * share a single String, which saves memory for columns with few distinct values. A column stops sharing
+     * values when it has more distinct values than the threshold.
+     *
+     * @param dictionaryThreshold the maximum amount of distinct values, or 0 to not share values
+     */
+    public void setDictionaryThreshold(final int dictionaryThreshold) {
+        this.dictionaryThreshold = dictionaryThreshold;
+    }
+
+    /**
+     * Sets the amount of threads used by {@link #readFile(File, CSV)}. The rows are read in parallel when more
+     * than one thread is specified and the charset is ASCII compatible, otherwise they are read sequentially.
+     *
+     * @param parallelism the amount of threads
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
 }
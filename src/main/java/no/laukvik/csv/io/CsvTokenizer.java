@@ -0,0 +1,473 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits a character stream into rows of CSV fields.
+ *
+ * <p>The characters are read from the underlying reader in large blocks and scanned by index. The fields of the
+ * current row are stored in a single character buffer that is reused for every row, and each field is described
+ * by its start and end index in that buffer. A String is only created when a field is requested with
+ * {@link #getField(int)}.</p>
+ * <pre>{@code
+ * CsvTokenizer tokenizer = new CsvTokenizer(reader, null, CSV.QUOTE_DOUBLE);
+ * while (tokenizer.nextRow()) {
+ *     for (int x = 0; x < tokenizer.getFieldCount(); x++) {
+ *         System.out.println(tokenizer.getField(x));
+ *     }
+ * }
+ * }</pre>
+ */
+public final class CsvTokenizer implements Tokenizer {
+
+    /**
+     * The default amount of characters read from the reader at a time.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+    /**
+     * The initial amount of characters in a row.
+     */
+    private static final int INITIAL_ROW_SIZE = 256;
+    /**
+     * The initial amount of fields in a row.
+     */
+    private static final int INITIAL_FIELD_COUNT = 16;
+
+    /**
+     * The reader to read characters from.
+     */
+    private final Reader reader;
+    /**
+     * The block of characters read from the reader.
+     */
+    private final char[] buffer;
+    /**
+     * The index of the next character to scan in the buffer.
+     */
+    private int position;
+    /**
+     * The amount of valid characters in the buffer.
+     */
+    private int limit;
+    /**
+     * Whether the end of the reader is reached.
+     */
+    private boolean endOfStream;
+    /**
+     * The characters of all fields in the current row.
+     */
+    private char[] rowChars;
+    /**
+     * The amount of characters in the current row.
+     */
+    private int rowLength;
+    /**
+     * The start index of each field in the current row.
+     */
+    private int[] fieldStarts;
+    /**
+     * The end index of each field in the current row.
+     */
+    private int[] fieldEnds;
+    /**
+     * The amount of fields in the current row.
+     */
+    private int fieldCount;
+    /**
+     * The quote character.
+     */
+    private final char quoteChar;
+    /**
+     * The column separator character.
+     */
+    private Character separatorChar;
+    /**
+     * Whether the column separator should be detected in the first row.
+     */
+    private boolean autoDetectSeparator;
+    /**
+     * The number of rows read.
+     */
+    private int lineCounter;
+    /**
+     * The fields to keep, or null to keep all fields.
+     */
+    private boolean[] keepFields;
+    /**
+     * Whether the current field is kept.
+     */
+    private boolean keepField;
+    /**
+     * The character ending a row.
+     */
+    private char lineBreak = CSV.LINEFEED;
+    /**
+     * The character ignored outside quotes.
+     */
+    private char ignoredChar = CSV.RETURN;
+
+    /**
+     * Creates a new tokenizer using the default buffer size.
+     *
+     * @param reader    the reader
+     * @param separator the separator character or null to detect it in the first row
+     * @param quote     the quote character
+     */
+    public CsvTokenizer(final Reader reader, final Character separator, final char quote) {
+        this(reader, separator, quote, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new tokenizer.
+     *
+     * @param reader     the reader
+     * @param separator  the separator character or null to detect it in the first row
+     * @param quote      the quote character
+     * @param bufferSize the amount of characters to read at a time
+     */
+    public CsvTokenizer(final Reader reader, final Character separator, final char quote, final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Illegal buffer size " + bufferSize);
+        }
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+        this.separatorChar = separator;
+        this.autoDetectSeparator = separator == null;
+        this.quoteChar = quote;
+        this.rowChars = new char[INITIAL_ROW_SIZE];
+        this.fieldStarts = new int[INITIAL_FIELD_COUNT];
+        this.fieldEnds = new int[INITIAL_FIELD_COUNT];
+    }
+
+    /**
+     * Returns whether there are more characters to read, filling the buffer when it is exhausted.
+     *
+     * @return true when more characters are available
+     * @throws IOException when the reader fails
+     */
+    private boolean hasMore() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (endOfStream) {
+            return false;
+        }
+        int count;
+        do {
+            count = reader.read(buffer, 0, buffer.length);
+        } while (count == 0);
+        position = 0;
+        if (count < 0) {
+            limit = 0;
+            endOfStream = true;
+            return false;
+        }
+        limit = count;
+        return true;
+    }
+
+    /**
+     * Returns whether there are more rows to read.
+     *
+     * @return true when there are more rows
+     * @throws IOException when the reader fails
+     */
+    @Override
+    public boolean hasNextRow() throws IOException {
+        return hasMore();
+    }
+
+    /**
+     * Reads the next row into the reusable row buffer.
+     *
+     * @return false when there are no more rows
+     * @throws IOException when the reader fails
+     */
+    @Override
+    public boolean nextRow() throws IOException {
+        rowLength = 0;
+        fieldCount = 0;
+        keepField = isKept(0);
+        if (!hasMore()) {
+            return false;
+        }
+        final char quote = quoteChar;
+        final char ignored = ignoredChar;
+        final char lineEnd = lineBreak;
+        int fieldStart = 0;
+        boolean isWithinQuote = false;
+        boolean isNextLine = false;
+        while (!isNextLine && hasMore()) {
+            char currentChar = buffer[position++];
+            boolean addValue = false;
+
+            // Look for separator characters in first line
+            if (lineCounter == 0 && autoDetectSeparator
+                    && (currentChar == CSV.TAB
+                    || currentChar == CSV.SEMICOLON
+                    || currentChar == CSV.PIPE
+                    || currentChar == CSV.COMMA)) {
+                separatorChar = currentChar;
+                autoDetectSeparator = false;
+            }
+
+            if (currentChar == ignored) {
+                // Ignored
+            } else if (currentChar == lineEnd) {
+                addValue = true;
+                isNextLine = true;
+                if (isWithinQuote) {
+                    removeLast();
+                    isWithinQuote = false;
+                }
+            } else if (currentChar == quote) {
+                isWithinQuote = true;
+                while (hasMore()) {
+                    currentChar = buffer[position++];
+                    if (currentChar == quote) {
+                        break;
+                    }
+                    append(currentChar);
+                }
+                append(currentChar);
+            } else if (separatorChar != null && currentChar == separatorChar) {
+                addValue = true;
+                if (isWithinQuote) {
+                    removeLast();
+                    isWithinQuote = false;
+                }
+            } else {
+                append(currentChar);
+            }
+            if (!hasMore()) {
+                addValue = true;
+                if (isWithinQuote) {
+                    removeLast();
+                    isWithinQuote = false;
+                }
+            }
+            if (addValue) {
+                addField(fieldStart, rowLength);
+                fieldStart = rowLength;
+            }
+        }
+        lineCounter++;
+        return true;
+    }
+
+    /**
+     * Sets the line ending of the rows. Rows end at line feeds and carriage returns are ignored, unless the line
+     * ending is {@link Dialect#CR} where rows end at carriage returns and line feeds are ignored.
+     *
+     * @param lineEnding the line ending, or null for line feeds
+     */
+    public void setLineEnding(final String lineEnding) {
+        boolean cr = Dialect.CR.equals(lineEnding);
+        this.lineBreak = cr ? CSV.RETURN : CSV.LINEFEED;
+        this.ignoredChar = cr ? CSV.LINEFEED : CSV.RETURN;
+    }
+
+    /**
+     * Skips the next row.
+     *
+     * @return false when there are no more rows
+     * @throws IOException when the reader fails
+     */
+    public boolean skipRow() throws IOException {
+        return nextRow();
+    }
+
+    /**
+     * Appends a character to the current row.
+     *
+     * @param c the character
+     */
+    private void append(final char c) {
+        if (!keepField) {
+            return;
+        }
+        if (rowLength == rowChars.length) {
+            char[] larger = new char[rowChars.length * 2];
+            System.arraycopy(rowChars, 0, larger, 0, rowLength);
+            rowChars = larger;
+        }
+        rowChars[rowLength++] = c;
+    }
+
+    /**
+     * Adds a field to the current row.
+     *
+     * @param start the start index in the row buffer
+     * @param end   the end index in the row buffer
+     */
+    private void addField(final int start, final int end) {
+        if (fieldCount == fieldStarts.length) {
+            int[] starts = new int[fieldCount * 2];
+            int[] ends = new int[fieldCount * 2];
+            System.arraycopy(fieldStarts, 0, starts, 0, fieldCount);
+            System.arraycopy(fieldEnds, 0, ends, 0, fieldCount);
+            fieldStarts = starts;
+            fieldEnds = ends;
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+        keepField = isKept(fieldCount);
+    }
+
+    /**
+     * Removes the last char from the current field.
+     */
+    private void removeLast() {
+        if (keepField) {
+            rowLength--;
+        }
+    }
+
+    /**
+     * Returns whether the field at the specified index should be kept.
+     *
+     * @param fieldIndex the index of the field
+     * @return true when the field is kept
+     */
+    private boolean isKept(final int fieldIndex) {
+        return keepFields == null || fieldIndex < keepFields.length && keepFields[fieldIndex];
+    }
+
+    /**
+     * Sets which fields to keep in the following rows. The chars of the other fields are skipped and they are
+     * returned as empty fields. All fields are kept when null.
+     *
+     * @param fields true for each field index to keep
+     */
+    @Override
+    public void setKeepFields(final boolean[] fields) {
+        this.keepFields = fields;
+    }
+
+    /**
+     * Returns the amount of fields in the current row.
+     *
+     * @return the amount of fields
+     */
+    @Override
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns the field at the specified index as a String.
+     *
+     * @param fieldIndex the index of the field
+     * @return the field
+     */
+    @Override
+    public String getField(final int fieldIndex) {
+        int start = fieldStarts[fieldIndex];
+        return new String(rowChars, start, fieldEnds[fieldIndex] - start);
+    }
+
+    /**
+     * Returns true if the field at the specified index is empty or only contains whitespace.
+     *
+     * @param fieldIndex the index of the field
+     * @return true when blank
+     */
+    @Override
+    public boolean isBlank(final int fieldIndex) {
+        return NumberParser.isBlank(rowChars, fieldStarts[fieldIndex], fieldEnds[fieldIndex]);
+    }
+
+    /**
+     * Parses the field at the specified index as an int.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    @Override
+    public int getInt(final int fieldIndex) {
+        return NumberParser.parseInt(rowChars, fieldStarts[fieldIndex], fieldEnds[fieldIndex]);
+    }
+
+    /**
+     * Parses the field at the specified index as a float.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    @Override
+    public float getFloat(final int fieldIndex) {
+        return NumberParser.parseFloat(rowChars, fieldStarts[fieldIndex], fieldEnds[fieldIndex]);
+    }
+
+    /**
+     * Parses the field at the specified index as a double.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    @Override
+    public double getDouble(final int fieldIndex) {
+        return NumberParser.parseDouble(rowChars, fieldStarts[fieldIndex], fieldEnds[fieldIndex]);
+    }
+
+    /**
+     * Returns the start index of the field in the buffer returned by {@link #getRowChars()}.
+     *
+     * @param fieldIndex the index of the field
+     * @return the start index
+     */
+    public int getFieldStart(final int fieldIndex) {
+        return fieldStarts[fieldIndex];
+    }
+
+    /**
+     * Returns the end index (exclusive) of the field in the buffer returned by {@link #getRowChars()}.
+     *
+     * @param fieldIndex the index of the field
+     * @return the end index
+     */
+    public int getFieldEnd(final int fieldIndex) {
+        return fieldEnds[fieldIndex];
+    }
+
+    /**
+     * Returns the buffer holding the characters of the current row. The buffer is reused for the next row.
+     *
+     * @return the characters
+     */
+    public char[] getRowChars() {
+        return rowChars;
+    }
+
+    /**
+     * Returns the separator character, or null when not yet detected.
+     *
+     * @return the separator character
+     */
+    @Override
+    public Character getSeparatorChar() {
+        return separatorChar;
+    }
+
+    /**
+     * Returns the quote character.
+     *
+     * @return the quote character
+     */
+    public char getQuoteChar() {
+        return quoteChar;
+    }
+
+    /**
+     * Returns the number of rows read.
+     *
+     * @return the number of rows
+     */
+    public int getLineCounter() {
+        return lineCounter;
+    }
+}
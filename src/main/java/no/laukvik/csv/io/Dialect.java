@@ -0,0 +1,123 @@
+package no.laukvik.csv.io;
+
+import java.io.Serializable;
+
+/**
+ * Describes how a CSV file is formatted. A dialect can be detected once with {@link DialectSniffer} and then be
+ * reused for every file from the same source.
+ * <pre>{@code
+ * Dialect dialect = new DialectSniffer().sniff(file);
+ * CsvReader reader = new CsvReader(null, null, null);
+ * reader.setDialect(dialect);
+ * }</pre>
+ */
+public final class Dialect implements Serializable {
+
+    /**
+     * The line ending used on Unix.
+     */
+    public static final String LF = "\n";
+    /**
+     * The line ending used on Windows.
+     */
+    public static final String CRLF = "\r\n";
+    /**
+     * The line ending used on old Mac OS.
+     */
+    public static final String CR = "\r";
+
+    /**
+     * The column separator character.
+     */
+    private final char separatorChar;
+    /**
+     * The quote character.
+     */
+    private final char quoteChar;
+    /**
+     * The line ending.
+     */
+    private final String lineEnding;
+    /**
+     * Whether the first row contains the column names.
+     */
+    private final boolean header;
+
+    /**
+     * Creates a new dialect.
+     *
+     * @param separator  the column separator character
+     * @param quote      the quote character
+     * @param lineEnding the line ending
+     * @param header     whether the first row contains the column names
+     */
+    public Dialect(final char separator, final char quote, final String lineEnding, final boolean header) {
+        this.separatorChar = separator;
+        this.quoteChar = quote;
+        this.lineEnding = lineEnding;
+        this.header = header;
+    }
+
+    /**
+     * Returns the column separator character.
+     *
+     * @return the separator character
+     */
+    public char getSeparatorChar() {
+        return separatorChar;
+    }
+
+    /**
+     * Returns the quote character.
+     *
+     * @return the quote character
+     */
+    public char getQuoteChar() {
+        return quoteChar;
+    }
+
+    /**
+     * Returns the line ending.
+     *
+     * @return the line ending
+     */
+    public String getLineEnding() {
+        return lineEnding;
+    }
+
+    /**
+     * Returns true if the first row contains the column names.
+     *
+     * @return true when the file has a header
+     */
+    public boolean hasHeader() {
+        return header;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Dialect)) {
+            return false;
+        }
+        Dialect d = (Dialect) o;
+        return separatorChar == d.separatorChar && quoteChar == d.quoteChar && header == d.header
+                && lineEnding.equals(d.lineEnding);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = separatorChar;
+        result = 31 * result + quoteChar;
+        result = 31 * result + lineEnding.hashCode();
+        return 31 * result + (header ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "Dialect{separator=" + separatorChar + ", quote=" + quoteChar + ", lineEnding="
+                + lineEnding.replace("\r", "\\r").replace("\n", "\\n") + ", header=" + header + "}";
+    }
+}
@@ -0,0 +1,346 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects the dialect of a CSV file by looking at a sample from the start of the file.
+ *
+ * <p>Only the first {@link #DEFAULT_SAMPLE_SIZE} bytes are read unless another sample size is specified. The
+ * dialect is detected like this:</p>
+ * <ul>
+ * <li>The quote character is the one of double and single quote found most often next to a separator or a line
+ * break.</li>
+ * <li>The separator is the one of comma, semicolon, tab and pipe that splits the sampled rows into the most
+ * consistent amount of fields. A separator that never splits a row is not chosen.</li>
+ * <li>The line ending is the one of CRLF, LF and CR found most often.</li>
+ * <li>The first row is a header unless it looks like the other rows. It is a header when a column has numbers
+ * in all other rows but not in the first, or when a column has values of the same length in all other rows
+ * and the first has another length.</li>
+ * </ul>
+ */
+public final class DialectSniffer {
+
+    /**
+     * The default amount of bytes to sample.
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 65536;
+    /**
+     * The separators to choose between in order of preference.
+     */
+    private static final char[] SEPARATORS = {CSV.COMMA, CSV.SEMICOLON, CSV.TAB, CSV.PIPE};
+    /**
+     * The quotes to choose between in order of preference.
+     */
+    private static final char[] QUOTES = {CSV.QUOTE_DOUBLE, CSV.QUOTE_SINGLE};
+
+    /**
+     * The amount of bytes to sample.
+     */
+    private final int sampleSize;
+    /**
+     * The charset, or null to detect it with BOM.
+     */
+    private final Charset charset;
+
+    /**
+     * Creates a sniffer reading the default amount of bytes and detecting the charset with BOM.
+     */
+    public DialectSniffer() {
+        this(DEFAULT_SAMPLE_SIZE, null);
+    }
+
+    /**
+     * Creates a sniffer reading the specified amount of bytes.
+     *
+     * @param sampleSize the amount of bytes to sample
+     * @param charset    the charset, or null to detect it with BOM
+     */
+    public DialectSniffer(final int sampleSize, final Charset charset) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Illegal sample size " + sampleSize);
+        }
+        this.sampleSize = sampleSize;
+        this.charset = charset;
+    }
+
+    /**
+     * Detects the dialect of the file.
+     *
+     * @param file the file
+     * @return the dialect
+     * @throws CsvReaderException when the file could not be read
+     */
+    public Dialect sniff(final File file) throws CsvReaderException {
+        try (InputStream in = new FileInputStream(file)) {
+            return sniff(in);
+        } catch (IOException e) {
+            throw new CsvReaderException(file, e);
+        }
+    }
+
+    /**
+     * Detects the dialect of the data at the start of the stream. Compressed streams are decompressed. The stream
+     * is not closed, but the sampled bytes are consumed.
+     *
+     * @param in the stream
+     * @return the dialect
+     * @throws IOException when the stream could not be read
+     */
+    public Dialect sniff(final InputStream in) throws IOException {
+        PushbackInputStream source = new PushbackInputStream(in, Compression.MAX_MAGIC_SIZE);
+        Compression compression = Compression.readCompression(source);
+        PushbackInputStream input = new PushbackInputStream(
+                compression == null ? source : compression.decompress(source), BOM.MAX_BOM_SIZE);
+        BOM bom = BOM.readBom(input, charset);
+        Charset cs = charset;
+        if (cs == null) {
+            cs = bom == null ? BOM.UTF8.getCharset() : bom.getCharset();
+        }
+        byte[] bytes = new byte[sampleSize];
+        int length = 0;
+        int count;
+        while (length < bytes.length && (count = input.read(bytes, length, bytes.length - length)) > 0) {
+            length += count;
+        }
+        String sample = new String(bytes, 0, length, cs);
+        if (length == bytes.length && input.read() >= 0) {
+            int lastLine = Math.max(sample.lastIndexOf(CSV.LINEFEED), sample.lastIndexOf(CSV.RETURN));
+            if (lastLine > 0) {
+                sample = sample.substring(0, lastLine + 1);
+            }
+        }
+        return sniff(sample);
+    }
+
+    /**
+     * Detects the dialect of the sample.
+     *
+     * @param sample the first rows of a CSV file
+     * @return the dialect
+     */
+    public Dialect sniff(final String sample) {
+        char quote = findQuote(sample);
+        char separator = CSV.COMMA;
+        List<List<String>> rows = null;
+        double bestConsistency = 0;
+        int bestFieldCount = 1;
+        for (char candidate : SEPARATORS) {
+            List<List<String>> candidateRows = split(sample, candidate, quote);
+            Map<Integer, Integer> frequencies = new HashMap<>();
+            int fieldCount = 0;
+            int frequency = 0;
+            for (List<String> row : candidateRows) {
+                int f = frequencies.merge(row.size(), 1, Integer::sum);
+                if (f > frequency || f == frequency && row.size() > fieldCount) {
+                    frequency = f;
+                    fieldCount = row.size();
+                }
+            }
+            if (fieldCount < 2) {
+                continue;
+            }
+            double consistency = (double) frequency / candidateRows.size();
+            if (consistency > bestConsistency || consistency == bestConsistency && fieldCount > bestFieldCount) {
+                bestConsistency = consistency;
+                bestFieldCount = fieldCount;
+                separator = candidate;
+                rows = candidateRows;
+            }
+        }
+        if (rows == null) {
+            rows = split(sample, separator, quote);
+        }
+        return new Dialect(separator, quote, findLineEnding(sample), hasHeader(rows));
+    }
+
+    /**
+     * Finds the quote character used most often next to a separator or line break.
+     *
+     * @param sample the sample
+     * @return the quote character
+     */
+    private static char findQuote(final String sample) {
+        char quote = CSV.QUOTE_DOUBLE;
+        int best = 0;
+        for (char candidate : QUOTES) {
+            int count = 0;
+            for (int x = 0; x < sample.length(); x++) {
+                if (sample.charAt(x) == candidate
+                        && (x == 0 || isBoundary(sample.charAt(x - 1))
+                        || x == sample.length() - 1 || isBoundary(sample.charAt(x + 1)))) {
+                    count++;
+                }
+            }
+            if (count > best) {
+                best = count;
+                quote = candidate;
+            }
+        }
+        return quote;
+    }
+
+    /**
+     * Returns true if the character is a separator or a line break.
+     *
+     * @param c the character
+     * @return true when a boundary
+     */
+    private static boolean isBoundary(final char c) {
+        if (c == CSV.LINEFEED || c == CSV.RETURN) {
+            return true;
+        }
+        for (char separator : SEPARATORS) {
+            if (c == separator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the line ending used most often.
+     *
+     * @param sample the sample
+     * @return the line ending
+     */
+    private static String findLineEnding(final String sample) {
+        int crlf = 0;
+        int lf = 0;
+        int cr = 0;
+        for (int x = 0; x < sample.length(); x++) {
+            char c = sample.charAt(x);
+            if (c == CSV.RETURN) {
+                if (x + 1 < sample.length() && sample.charAt(x + 1) == CSV.LINEFEED) {
+                    crlf++;
+                    x++;
+                } else {
+                    cr++;
+                }
+            } else if (c == CSV.LINEFEED) {
+                lf++;
+            }
+        }
+        if (crlf >= lf && crlf >= cr && crlf > 0) {
+            return Dialect.CRLF;
+        } else if (cr > lf) {
+            return Dialect.CR;
+        }
+        return Dialect.LF;
+    }
+
+    /**
+     * Splits the sample into rows of fields. Empty lines are ignored.
+     *
+     * @param sample    the sample
+     * @param separator the separator character
+     * @param quote     the quote character
+     * @return the rows
+     */
+    static List<List<String>> split(final String sample, final char separator, final char quote) {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean withinQuote = false;
+        for (int x = 0; x < sample.length(); x++) {
+            char c = sample.charAt(x);
+            if (withinQuote) {
+                if (c != quote) {
+                    field.append(c);
+                } else if (x + 1 < sample.length() && sample.charAt(x + 1) == quote) {
+                    field.append(c);
+                    x++;
+                } else {
+                    withinQuote = false;
+                }
+            } else if (c == quote) {
+                withinQuote = true;
+            } else if (c == separator) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == CSV.LINEFEED || c == CSV.RETURN) {
+                if (!row.isEmpty() || field.length() > 0) {
+                    row.add(field.toString());
+                    rows.add(row);
+                    row = new ArrayList<>();
+                    field.setLength(0);
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        if (!row.isEmpty() || field.length() > 0) {
+            row.add(field.toString());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns true if the first row looks like column names rather than data.
+     *
+     * @param rows the rows
+     * @return true when the first row is a header
+     */
+    private static boolean hasHeader(final List<List<String>> rows) {
+        if (rows.size() < 2) {
+            return true;
+        }
+        List<String> first = rows.get(0);
+        int votes = 0;
+        for (int column = 0; column < first.size(); column++) {
+            boolean numbers = true;
+            int length = -1;
+            int values = 0;
+            for (int y = 1; y < rows.size(); y++) {
+                List<String> row = rows.get(y);
+                if (column >= row.size()) {
+                    continue;
+                }
+                String value = row.get(column);
+                values++;
+                numbers &= isNumber(value);
+                if (length == -1) {
+                    length = value.length();
+                } else if (length != value.length()) {
+                    length = -2;
+                }
+            }
+            if (values == 0) {
+                continue;
+            }
+            String name = first.get(column);
+            if (numbers) {
+                votes += isNumber(name) ? -1 : 1;
+            } else if (length >= 0) {
+                votes += name.length() == length ? -1 : 1;
+            }
+        }
+        return votes >= 0;
+    }
+
+    /**
+     * Returns true if the value is a number.
+     *
+     * @param value the value
+     * @return true when a number
+     */
+    private static boolean isNumber(final String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.StringColumn;
+
+/**
+ * Makes equal values of a field share a single String while reading a file.
+ *
+ * <p>Columns like country or status repeat a few values in every row. The dictionary looks up the characters of
+ * the field in the buffer of the tokenizer, so a String is only created the first time a value is seen. When more
+ * distinct values than the threshold are seen the column is not a low cardinality column after all, and the
+ * dictionary is dropped and stops looking up values. Values longer than {@link #MAX_LENGTH} are never added, so
+ * the memory used by a dictionary stays bounded.</p>
+ *
+ * <p>A dictionary is not thread safe.</p>
+ */
+final class FieldDictionary {
+
+    /**
+     * The default maximum amount of distinct values.
+     */
+    static final int DEFAULT_THRESHOLD = 1024;
+    /**
+     * The maximum length of the values added.
+     */
+    static final int MAX_LENGTH = 128;
+    /**
+     * The initial amount of slots in the table.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum amount of distinct values.
+     */
+    private final int threshold;
+    /**
+     * The values by their hash code, or null when dropped.
+     */
+    private String[] table;
+    /**
+     * The amount of values in the table.
+     */
+    private int size;
+
+    /**
+     * Creates a dictionary holding at most the threshold amount of distinct values.
+     *
+     * @param threshold the maximum amount of distinct values
+     */
+    FieldDictionary(final int threshold) {
+        this.threshold = threshold;
+        this.table = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a dictionary for each field read by a StringColumn.
+     *
+     * @param fieldColumns the column of each field, or null for fields that are skipped
+     * @param threshold    the maximum amount of distinct values in each dictionary, or 0 to not use dictionaries
+     * @return the dictionary of each field, null for other fields, or null when not used
+     */
+    static FieldDictionary[] create(final Column[] fieldColumns, final int threshold) {
+        if (threshold <= 0) {
+            return null;
+        }
+        FieldDictionary[] dictionaries = new FieldDictionary[fieldColumns.length];
+        for (int x = 0; x < dictionaries.length; x++) {
+            if (fieldColumns[x] instanceof StringColumn) {
+                dictionaries[x] = new FieldDictionary(threshold);
+            }
+        }
+        return dictionaries;
+    }
+
+    /**
+     * Returns true if the dictionary is dropped because there were too many distinct values.
+     *
+     * @return true when dropped
+     */
+    boolean isDropped() {
+        return table == null;
+    }
+
+    /**
+     * Returns the amount of distinct values.
+     *
+     * @return the amount of values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the field read by the tokenizer, sharing the String with equal values.
+     *
+     * @param tokenizer  the tokenizer
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    String get(final Tokenizer tokenizer, final int fieldIndex) {
+        if (table != null && tokenizer instanceof CsvTokenizer) {
+            CsvTokenizer t = (CsvTokenizer) tokenizer;
+            return get(t.getRowChars(), t.getFieldStart(fieldIndex), t.getFieldEnd(fieldIndex));
+        }
+        return get(tokenizer.getField(fieldIndex));
+    }
+
+    /**
+     * Returns the characters as a String, sharing the String with equal values.
+     *
+     * @param chars the characters
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return the value
+     */
+    String get(final char[] chars, final int start, final int end) {
+        int length = end - start;
+        if (table == null || length > MAX_LENGTH) {
+            return new String(chars, start, length);
+        }
+        int hash = 0;
+        for (int x = start; x < end; x++) {
+            hash = 31 * hash + chars[x];
+        }
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        String value;
+        while ((value = table[slot]) != null) {
+            if (value.hashCode() == hash && equals(value, chars, start, length)) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(new String(chars, start, length), slot);
+    }
+
+    /**
+     * Returns the equal value in the dictionary, or adds the value.
+     *
+     * @param value the value
+     * @return the value
+     */
+    String get(final String value) {
+        if (table == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        int mask = table.length - 1;
+        int slot = spread(value.hashCode()) & mask;
+        String existing;
+        while ((existing = table[slot]) != null) {
+            if (existing.equals(value)) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(value, slot);
+    }
+
+    /**
+     * Adds the value to the empty slot, or drops the dictionary when the threshold is reached.
+     *
+     * @param value the value
+     * @param slot  the empty slot
+     * @return the value
+     */
+    private String add(final String value, final int slot) {
+        if (size >= threshold) {
+            table = null;
+            return value;
+        }
+        table[slot] = value;
+        size++;
+        if (size * 2 > table.length) {
+            resize();
+        }
+        return value;
+    }
+
+    /**
+     * Doubles the amount of slots in the table.
+     */
+    private void resize() {
+        String[] old = table;
+        table = new String[old.length * 2];
+        int mask = table.length - 1;
+        for (String value : old) {
+            if (value != null) {
+                int slot = spread(value.hashCode()) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    /**
+     * Spreads the higher bits of the hash code to the lower bits.
+     *
+     * @param hash the hash code
+     * @return the spread hash code
+     */
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns true if the value has the same characters.
+     *
+     * @param value  the value
+     * @param chars  the characters
+     * @param start  the start index
+     * @param length the amount of characters
+     * @return true when equal
+     */
+    private static boolean equals(final String value, final char[] chars, final int start, final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int x = 0; x < length; x++) {
+            if (value.charAt(x) != chars[start + x]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,219 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.query.Query;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Reads a data set in the CSV format by memory mapping the file.
+ *
+ * <p>The file is not decoded to characters before it is split into fields. Instead the separators, quotes and
+ * line feeds are found directly in the mapped bytes, and only the fields that are put into the rows are decoded.
+ * This requires an ASCII compatible charset such as UTF-8, ISO-8859-1 or windows-1252. Files in other charsets,
+ * like UTF-16 and UTF-32, and compressed files are read with {@link CsvReader} instead.</p>
+ * <pre>{@code
+ * CSV csv = new CSV();
+ * new MappedCsvReader(null, null, null).readFile(new File("presidents.csv"), csv);
+ * }</pre>
+ */
+public final class MappedCsvReader implements DatasetFileReader {
+
+    /**
+     * The largest value of a single byte character.
+     */
+    private static final int MAX_ASCII = 127;
+
+    /**
+     * The charset being instructed to use, or null to detect it.
+     */
+    private final Charset charset;
+    /**
+     * The column separator character, or null to detect it.
+     */
+    private final Character columnSeparatorChar;
+    /**
+     * The quote character to use.
+     */
+    private final char quoteChar;
+    /**
+     * The lower case names of the columns to read, or null to read all columns.
+     */
+    private Set<String> projection;
+    /**
+     * The query the rows must match, or null to read all rows.
+     */
+    private Query query;
+    /**
+     * Whether the values are parsed the first time they are read.
+     */
+    private boolean lazyParsing;
+    /**
+     * The maximum amount of distinct values shared by each string column, or 0 to not share values.
+     */
+    private int dictionaryThreshold = FieldDictionary.DEFAULT_THRESHOLD;
+    /**
+     * The collector of values that can not be parsed, or null to stop reading at the first such value.
+     */
+    private ParseErrors parseErrors;
+
+    /**
+     * Reads CSV files using the separator and quote characters.
+     *
+     * @param charset   the charset
+     * @param separator the separator character
+     * @param quote     the quote character
+     */
+    public MappedCsvReader(final Charset charset, final Character separator, final Character quote) {
+        this.charset = charset;
+        this.columnSeparatorChar = separator;
+        this.quoteChar = quote == null ? CSV.QUOTE_DOUBLE : quote;
+    }
+
+    /**
+     * Reads the file.
+     *
+     * @param file the file
+     * @param csv  the csv
+     * @throws CsvReaderException when the file could not be read
+     */
+    @Override
+    public void readFile(final File file, final CSV csv) throws CsvReaderException {
+        boolean mapped;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            byte[] start = readStart(channel);
+            BOM bom = BOM.parse(start);
+            Charset cs = charset;
+            if (cs == null) {
+                cs = bom == null ? BOM.UTF8.getCharset() : bom.getCharset();
+            } else if (bom != null && !bom.getCharset().equals(cs)) {
+                bom = null;
+            }
+            mapped = Compression.parse(start) == null && MappedCsvTokenizer.isAsciiCompatible(cs)
+                    && quoteChar <= MAX_ASCII && (columnSeparatorChar == null || columnSeparatorChar <= MAX_ASCII);
+            if (mapped) {
+                readRows(channel, bom == null ? 0 : bom.getBytes().length, cs, csv);
+            }
+        } catch (IOException | TooManyParseErrorsException e) {
+            throw new CsvReaderException(file, e);
+        }
+        if (!mapped) {
+            CsvReader reader = new CsvReader(charset, columnSeparatorChar, quoteChar);
+            reader.setProjection(projection == null ? null : projection.toArray(new String[0]));
+            reader.setQuery(query);
+            reader.setLazyParsing(lazyParsing);
+            reader.setDictionaryThreshold(dictionaryThreshold);
+            reader.setParseErrors(parseErrors);
+            reader.readFile(file, csv);
+        }
+    }
+
+    /**
+     * Reads the columns and rows from the mapped channel.
+     *
+     * @param channel   the channel
+     * @param dataStart the position after the BOM
+     * @param cs        the charset
+     * @param csv       the csv
+     * @throws IOException when the file could not be read
+     */
+    private void readRows(final FileChannel channel, final long dataStart, final Charset cs, final CSV csv)
+            throws IOException {
+        csv.setCharset(cs);
+        csv.setSeparator(columnSeparatorChar);
+        csv.setQuoteChar(quoteChar);
+        MappedCsvTokenizer tokenizer = new MappedCsvTokenizer(channel, dataStart, cs, columnSeparatorChar,
+                quoteChar);
+        if (!tokenizer.nextRow()) {
+            return;
+        }
+        if (tokenizer.getSeparatorChar() != null) {
+            csv.setSeparator(tokenizer.getSeparatorChar());
+        }
+        String[] names = CsvReader.columnNames(tokenizer);
+        Column[] fieldColumns = CsvReader.addColumns(tokenizer, csv, projection);
+        QueryFilter filter = query == null ? null : new QueryFilter(query, names, fieldColumns, parseErrors);
+        tokenizer.setKeepFields(CsvReader.keepFields(fieldColumns, filter));
+        FieldDictionary[] dictionaries = FieldDictionary.create(fieldColumns, dictionaryThreshold);
+        long rowIndex = 0;
+        while (tokenizer.nextRow()) {
+            rowIndex++;
+            if (filter == null || filter.matches(tokenizer, rowIndex)) {
+                csv.addRow(CsvReader.buildRow(tokenizer, fieldColumns, lazyParsing, dictionaries, parseErrors,
+                        rowIndex));
+            }
+        }
+    }
+
+    /**
+     * Reads the first bytes of the channel to find the BOM and the compression.
+     *
+     * @param channel the channel
+     * @return the bytes
+     * @throws IOException when the channel could not be read
+     */
+    private static byte[] readStart(final FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(BOM.MAX_BOM_SIZE, Compression.MAX_MAGIC_SIZE));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // Keep reading until the buffer is full or the end is reached
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Sets the names of the columns to read. The other columns are not added to the CSV, and their fields are
+     * skipped without being decoded or parsed. All columns are read when null.
+     *
+     * @param columnNames the names of the columns to read
+     */
+    public void setProjection(final String... columnNames) {
+        this.projection = CsvReader.toProjection(columnNames);
+    }
+
+    /**
+     * Sets the query the rows must match. The fields used by the query are decoded and parsed first, and the
+     * other fields are only decoded for the rows that match. All rows are read when null.
+     *
+     * @param query the query
+     */
+    public void setQuery(final Query query) {
+        this.query = query;
+    }
+
+    /**
+     * Sets whether the values are parsed the first time they are read instead of when the rows are read.
+     *
+     * @param lazyParsing true to parse the values when they are read
+     */
+    public void setLazyParsing(final boolean lazyParsing) {
+        this.lazyParsing = lazyParsing;
+    }
+
+    /**
+     * Sets the maximum amount of distinct values shared by each string column.
+     *
+     * @param dictionaryThreshold the maximum amount of distinct values, or 0 to not share values
+     * @see CsvReader#setDictionaryThreshold(int)
+     */
+    public void setDictionaryThreshold(final int dictionaryThreshold) {
+        this.dictionaryThreshold = dictionaryThreshold;
+    }
+
+    /**
+     * Sets the collector of values that can not be parsed by their column. The values are then left null and
+     * reading continues until more values than the error budget of the collector have failed.
+     *
+     * @param parseErrors the collector of errors, or null to stop reading at the first such value
+     */
+    public void setParseErrors(final ParseErrors parseErrors) {
+        this.parseErrors = parseErrors;
+    }
+}
@@ -0,0 +1,465 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Splits a memory mapped file into rows of CSV fields without decoding it to characters first.
+ *
+ * <p>Separators, quotes and line feeds are found by looking directly at the bytes of the mapped file. This is
+ * only correct for ASCII compatible charsets where these characters are always encoded as the same single byte
+ * and never occur inside the encoding of another character, such as UTF-8, ISO-8859-1 and windows-1252. The
+ * bytes of each field are collected in a reusable row buffer and only decoded with the charset when the field
+ * is requested with {@link #getField(int)}.</p>
+ *
+ * <p>Files larger than {@link #MAX_MAP_SIZE} are mapped one segment at a time.</p>
+ */
+public final class MappedCsvTokenizer implements Tokenizer {
+
+    /**
+     * The maximum amount of bytes mapped at a time.
+     */
+    public static final int MAX_MAP_SIZE = 1 << 30;
+    /**
+     * The initial amount of bytes in a row.
+     */
+    private static final int INITIAL_ROW_SIZE = 256;
+    /**
+     * The initial amount of fields in a row.
+     */
+    private static final int INITIAL_FIELD_COUNT = 16;
+    /**
+     * The largest value of a single byte character.
+     */
+    private static final int MAX_ASCII = 127;
+
+    /**
+     * The channel of the file.
+     */
+    private final FileChannel channel;
+    /**
+     * The size of the file.
+     */
+    private final long size;
+    /**
+     * The charset used to decode the fields.
+     */
+    private final Charset charset;
+    /**
+     * The currently mapped segment.
+     */
+    private MappedByteBuffer segment;
+    /**
+     * The file position of the first byte in the segment.
+     */
+    private long segmentStart;
+    /**
+     * The index of the next byte to scan in the segment.
+     */
+    private int position;
+    /**
+     * The amount of bytes in the segment.
+     */
+    private int limit;
+    /**
+     * The bytes of all fields in the current row.
+     */
+    private byte[] rowBytes;
+    /**
+     * The amount of bytes in the current row.
+     */
+    private int rowLength;
+    /**
+     * The start index of each field in the current row.
+     */
+    private int[] fieldStarts;
+    /**
+     * The end index of each field in the current row.
+     */
+    private int[] fieldEnds;
+    /**
+     * The amount of fields in the current row.
+     */
+    private int fieldCount;
+    /**
+     * The quote character.
+     */
+    private final byte quoteByte;
+    /**
+     * The column separator character.
+     */
+    private Character separatorChar;
+    /**
+     * The column separator as a byte.
+     */
+    private byte separatorByte;
+    /**
+     * Whether the column separator should be detected in the first row.
+     */
+    private boolean autoDetectSeparator;
+    /**
+     * The number of rows read.
+     */
+    private int lineCounter;
+    /**
+     * The fields to keep, or null to keep all fields.
+     */
+    private boolean[] keepFields;
+    /**
+     * Whether the current field is kept.
+     */
+    private boolean keepField;
+
+    /**
+     * Creates a new tokenizer reading the channel from the specified position.
+     *
+     * @param channel   the channel
+     * @param start     the position of the first byte to read
+     * @param charset   the ASCII compatible charset
+     * @param separator the separator character or null to detect it in the first row
+     * @param quote     the quote character
+     * @throws IOException when the file could not be mapped
+     */
+    public MappedCsvTokenizer(final FileChannel channel, final long start, final Charset charset,
+                              final Character separator, final char quote) throws IOException {
+        if (quote > MAX_ASCII || separator != null && separator > MAX_ASCII) {
+            throw new IllegalArgumentException("The separator and quote must be ASCII characters");
+        }
+        this.channel = channel;
+        this.size = channel.size();
+        this.charset = charset;
+        this.quoteByte = (byte) quote;
+        this.separatorChar = separator;
+        this.separatorByte = separator == null ? 0 : (byte) separator.charValue();
+        this.autoDetectSeparator = separator == null;
+        this.rowBytes = new byte[INITIAL_ROW_SIZE];
+        this.fieldStarts = new int[INITIAL_FIELD_COUNT];
+        this.fieldEnds = new int[INITIAL_FIELD_COUNT];
+        map(start);
+    }
+
+    /**
+     * Returns true if separators, quotes and line feeds can be found by looking at single bytes in the charset.
+     *
+     * @param charset the charset
+     * @return true when the charset is ASCII compatible
+     */
+    public static boolean isAsciiCompatible(final Charset charset) {
+        if (charset == null) {
+            return false;
+        }
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1)) {
+            return true;
+        }
+        String name = charset.name().toLowerCase(Locale.ROOT);
+        return name.startsWith("iso-8859-") || name.startsWith("windows-125");
+    }
+
+    /**
+     * Maps the next segment of the file.
+     *
+     * @param start the position of the segment
+     * @throws IOException when the file could not be mapped
+     */
+    private void map(final long start) throws IOException {
+        segmentStart = start;
+        position = 0;
+        limit = (int) Math.min(MAX_MAP_SIZE, Math.max(0, size - start));
+        segment = limit == 0 ? null : channel.map(FileChannel.MapMode.READ_ONLY, start, limit);
+    }
+
+    /**
+     * Returns whether there are more bytes to read, mapping the next segment when the current is exhausted.
+     *
+     * @return true when more bytes are available
+     * @throws IOException when the file could not be mapped
+     */
+    private boolean hasMore() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        long next = segmentStart + limit;
+        if (next >= size) {
+            return false;
+        }
+        map(next);
+        return limit > 0;
+    }
+
+    /**
+     * Returns the file position of the next byte to read.
+     *
+     * @return the position
+     */
+    public long getPosition() {
+        return segmentStart + position;
+    }
+
+    /**
+     * Returns whether there are more rows to read.
+     *
+     * @return true when there are more rows
+     * @throws IOException when the file could not be mapped
+     */
+    @Override
+    public boolean hasNextRow() throws IOException {
+        return hasMore();
+    }
+
+    /**
+     * Reads the next row into the reusable row buffer.
+     *
+     * @return false when there are no more rows
+     * @throws IOException when the file could not be mapped
+     */
+    @Override
+    public boolean nextRow() throws IOException {
+        rowLength = 0;
+        fieldCount = 0;
+        keepField = isKept(0);
+        if (!hasMore()) {
+            return false;
+        }
+        final byte quote = quoteByte;
+        int fieldStart = 0;
+        boolean isWithinQuote = false;
+        boolean isNextLine = false;
+        while (!isNextLine && hasMore()) {
+            byte currentByte = segment.get(position++);
+            boolean addValue = false;
+
+            // Look for separator characters in first line
+            if (lineCounter == 0 && autoDetectSeparator
+                    && (currentByte == CSV.TAB
+                    || currentByte == CSV.SEMICOLON
+                    || currentByte == CSV.PIPE
+                    || currentByte == CSV.COMMA)) {
+                separatorChar = (char) currentByte;
+                separatorByte = currentByte;
+                autoDetectSeparator = false;
+            }
+
+            if (currentByte == CSV.RETURN) {
+                // Ignored
+            } else if (currentByte == CSV.LINEFEED) {
+                addValue = true;
+                isNextLine = true;
+                if (isWithinQuote) {
+                    removeLast();
+                    isWithinQuote = false;
+                }
+            } else if (currentByte == quote) {
+                isWithinQuote = true;
+                while (hasMore()) {
+                    currentByte = segment.get(position++);
+                    if (currentByte == quote) {
+                        break;
+                    }
+                    append(currentByte);
+                }
+                append(currentByte);
+            } else if (separatorChar != null && currentByte == separatorByte) {
+                addValue = true;
+                if (isWithinQuote) {
+                    removeLast();
+                    isWithinQuote = false;
+                }
+            } else {
+                append(currentByte);
+            }
+            if (!hasMore()) {
+                addValue = true;
+                if (isWithinQuote) {
+                    removeLast();
+                    isWithinQuote = false;
+                }
+            }
+            if (addValue) {
+                addField(fieldStart, rowLength);
+                fieldStart = rowLength;
+            }
+        }
+        lineCounter++;
+        return true;
+    }
+
+    /**
+     * Appends a byte to the current row.
+     *
+     * @param b the byte
+     */
+    private void append(final byte b) {
+        if (!keepField) {
+            return;
+        }
+        if (rowLength == rowBytes.length) {
+            byte[] larger = new byte[rowBytes.length * 2];
+            System.arraycopy(rowBytes, 0, larger, 0, rowLength);
+            rowBytes = larger;
+        }
+        rowBytes[rowLength++] = b;
+    }
+
+    /**
+     * Adds a field to the current row.
+     *
+     * @param start the start index in the row buffer
+     * @param end   the end index in the row buffer
+     */
+    private void addField(final int start, final int end) {
+        if (fieldCount == fieldStarts.length) {
+            int[] starts = new int[fieldCount * 2];
+            int[] ends = new int[fieldCount * 2];
+            System.arraycopy(fieldStarts, 0, starts, 0, fieldCount);
+            System.arraycopy(fieldEnds, 0, ends, 0, fieldCount);
+            fieldStarts = starts;
+            fieldEnds = ends;
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+        keepField = isKept(fieldCount);
+    }
+
+    /**
+     * Removes the last byte from the current field.
+     */
+    private void removeLast() {
+        if (keepField) {
+            rowLength--;
+        }
+    }
+
+    /**
+     * Returns whether the field at the specified index should be kept.
+     *
+     * @param fieldIndex the index of the field
+     * @return true when the field is kept
+     */
+    private boolean isKept(final int fieldIndex) {
+        return keepFields == null || fieldIndex < keepFields.length && keepFields[fieldIndex];
+    }
+
+    /**
+     * Sets which fields to keep in the following rows. The bytes of the other fields are skipped and they are
+     * returned as empty fields. All fields are kept when null.
+     *
+     * @param fields true for each field index to keep
+     */
+    @Override
+    public void setKeepFields(final boolean[] fields) {
+        this.keepFields = fields;
+    }
+
+    /**
+     * Returns the amount of fields in the current row.
+     *
+     * @return the amount of fields
+     */
+    @Override
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Decodes the field at the specified index using the charset.
+     *
+     * @param fieldIndex the index of the field
+     * @return the field
+     */
+    @Override
+    public String getField(final int fieldIndex) {
+        int start = fieldStarts[fieldIndex];
+        return new String(rowBytes, start, fieldEnds[fieldIndex] - start, charset);
+    }
+
+    /**
+     * Returns true if the field at the specified index is empty or only contains whitespace.
+     *
+     * @param fieldIndex the index of the field
+     * @return true when blank
+     */
+    @Override
+    public boolean isBlank(final int fieldIndex) {
+        return NumberParser.isBlank(rowBytes, fieldStarts[fieldIndex], fieldEnds[fieldIndex]);
+    }
+
+    /**
+     * Parses the field at the specified index as an int.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    @Override
+    public int getInt(final int fieldIndex) {
+        return NumberParser.parseInt(rowBytes, fieldStarts[fieldIndex], fieldEnds[fieldIndex], charset);
+    }
+
+    /**
+     * Parses the field at the specified index as a float.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    @Override
+    public float getFloat(final int fieldIndex) {
+        return NumberParser.parseFloat(rowBytes, fieldStarts[fieldIndex], fieldEnds[fieldIndex], charset);
+    }
+
+    /**
+     * Parses the field at the specified index as a double.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     */
+    @Override
+    public double getDouble(final int fieldIndex) {
+        return NumberParser.parseDouble(rowBytes, fieldStarts[fieldIndex], fieldEnds[fieldIndex], charset);
+    }
+
+    /**
+     * Returns the start index of the field in the buffer returned by {@link #getRowBytes()}.
+     *
+     * @param fieldIndex the index of the field
+     * @return the start index
+     */
+    public int getFieldStart(final int fieldIndex) {
+        return fieldStarts[fieldIndex];
+    }
+
+    /**
+     * Returns the end index (exclusive) of the field in the buffer returned by {@link #getRowBytes()}.
+     *
+     * @param fieldIndex the index of the field
+     * @return the end index
+     */
+    public int getFieldEnd(final int fieldIndex) {
+        return fieldEnds[fieldIndex];
+    }
+
+    /**
+     * Returns the buffer holding the undecoded bytes of the current row. The buffer is reused for the next row.
+     *
+     * @return the bytes
+     */
+    public byte[] getRowBytes() {
+        return rowBytes;
+    }
+
+    /**
+     * Returns the separator character, or null when not yet detected.
+     *
+     * @return the separator character
+     */
+    @Override
+    public Character getSeparatorChar() {
+        return separatorChar;
+    }
+}
@@ -0,0 +1,327 @@
+package no.laukvik.csv.io;
+
+import java.nio.charset.Charset;
+
+/**
+ * Parses numbers directly from the character or byte buffer of a tokenizer.
+ *
+ * <p>Plain decimal numbers like <code>-123</code> and <code>45.67</code> are parsed without creating a String.
+ * Numbers with an exponent, too many digits, surrounding whitespace or any other format are parsed by
+ * {@link Integer#parseInt(String)}, {@link Float#parseFloat(String)} and {@link Double#parseDouble(String)}
+ * instead, so the result is always the same as parsing the String.</p>
+ *
+ * <p>The fast path for decimals divides the digits by a power of ten. Both are exactly representable when the
+ * number has few enough digits, and the division is then correctly rounded.</p>
+ */
+final class NumberParser {
+
+    /**
+     * The amount of digits that always fits in an int.
+     */
+    private static final int MAX_INT_DIGITS = 9;
+    /**
+     * The amount of digits that is always exactly representable as a double.
+     */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+    /**
+     * The amount of digits that is always exactly representable as a float.
+     */
+    private static final int MAX_FLOAT_DIGITS = 7;
+    /**
+     * The powers of ten that are exactly representable as a double.
+     */
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+    /**
+     * The powers of ten that are exactly representable as a float.
+     */
+    private static final float[] FLOAT_POWERS = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f
+    };
+    /**
+     * Indicates that the range is not a plain decimal number.
+     */
+    private static final long NOT_PLAIN = -1;
+
+    /**
+     * Utility class.
+     */
+    private NumberParser() {
+    }
+
+    /**
+     * Returns true if the range is empty or only contains whitespace.
+     *
+     * @param chars the characters
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return true when blank
+     */
+    static boolean isBlank(final char[] chars, final int start, final int end) {
+        for (int x = start; x < end; x++) {
+            if (chars[x] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the range is empty or only contains whitespace.
+     *
+     * @param bytes the bytes
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return true when blank
+     */
+    static boolean isBlank(final byte[] bytes, final int start, final int end) {
+        for (int x = start; x < end; x++) {
+            if (bytes[x] < 0 || bytes[x] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the range as an int.
+     *
+     * @param chars the characters
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return the value
+     * @throws NumberFormatException when the range is not a number
+     */
+    static int parseInt(final char[] chars, final int start, final int end) {
+        int x = start;
+        boolean negative = false;
+        if (x < end && (chars[x] == '-' || chars[x] == '+')) {
+            negative = chars[x] == '-';
+            x++;
+        }
+        if (end > x && end - x <= MAX_INT_DIGITS) {
+            int value = 0;
+            while (x < end) {
+                int digit = chars[x] - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                x++;
+            }
+            if (x == end) {
+                return negative ? -value : value;
+            }
+        }
+        return Integer.parseInt(new String(chars, start, end - start));
+    }
+
+    /**
+     * Parses the range as an int.
+     *
+     * @param bytes   the bytes
+     * @param start   the start index
+     * @param end     the end index (exclusive)
+     * @param charset the charset of the bytes
+     * @return the value
+     * @throws NumberFormatException when the range is not a number
+     */
+    static int parseInt(final byte[] bytes, final int start, final int end, final Charset charset) {
+        int x = start;
+        boolean negative = false;
+        if (x < end && (bytes[x] == '-' || bytes[x] == '+')) {
+            negative = bytes[x] == '-';
+            x++;
+        }
+        if (end > x && end - x <= MAX_INT_DIGITS) {
+            int value = 0;
+            while (x < end) {
+                int digit = bytes[x] - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                x++;
+            }
+            if (x == end) {
+                return negative ? -value : value;
+            }
+        }
+        return Integer.parseInt(new String(bytes, start, end - start, charset));
+    }
+
+    /**
+     * Parses the range as a double.
+     *
+     * @param chars the characters
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return the value
+     * @throws NumberFormatException when the range is not a number
+     */
+    static double parseDouble(final char[] chars, final int start, final int end) {
+        long digits = parseDigits(chars, start, end, MAX_DOUBLE_DIGITS);
+        if (digits != NOT_PLAIN) {
+            double value = digits / DOUBLE_POWERS[scale(chars, start, end)];
+            return chars[start] == '-' ? -value : value;
+        }
+        return Double.parseDouble(new String(chars, start, end - start));
+    }
+
+    /**
+     * Parses the range as a double.
+     *
+     * @param bytes   the bytes
+     * @param start   the start index
+     * @param end     the end index (exclusive)
+     * @param charset the charset of the bytes
+     * @return the value
+     * @throws NumberFormatException when the range is not a number
+     */
+    static double parseDouble(final byte[] bytes, final int start, final int end, final Charset charset) {
+        long digits = parseDigits(bytes, start, end, MAX_DOUBLE_DIGITS);
+        if (digits != NOT_PLAIN) {
+            double value = digits / DOUBLE_POWERS[scale(bytes, start, end)];
+            return bytes[start] == '-' ? -value : value;
+        }
+        return Double.parseDouble(new String(bytes, start, end - start, charset));
+    }
+
+    /**
+     * Parses the range as a float.
+     *
+     * @param chars the characters
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return the value
+     * @throws NumberFormatException when the range is not a number
+     */
+    static float parseFloat(final char[] chars, final int start, final int end) {
+        long digits = parseDigits(chars, start, end, MAX_FLOAT_DIGITS);
+        if (digits != NOT_PLAIN) {
+            float value = digits / FLOAT_POWERS[scale(chars, start, end)];
+            return chars[start] == '-' ? -value : value;
+        }
+        return Float.parseFloat(new String(chars, start, end - start));
+    }
+
+    /**
+     * Parses the range as a float.
+     *
+     * @param bytes   the bytes
+     * @param start   the start index
+     * @param end     the end index (exclusive)
+     * @param charset the charset of the bytes
+     * @return the value
+     * @throws NumberFormatException when the range is not a number
+     */
+    static float parseFloat(final byte[] bytes, final int start, final int end, final Charset charset) {
+        long digits = parseDigits(bytes, start, end, MAX_FLOAT_DIGITS);
+        if (digits != NOT_PLAIN) {
+            float value = digits / FLOAT_POWERS[scale(bytes, start, end)];
+            return bytes[start] == '-' ? -value : value;
+        }
+        return Float.parseFloat(new String(bytes, start, end - start, charset));
+    }
+
+    /**
+     * Returns the digits of a plain decimal number without the sign and the decimal point.
+     *
+     * @param chars     the characters
+     * @param start     the start index
+     * @param end       the end index (exclusive)
+     * @param maxDigits the largest amount of digits allowed
+     * @return the digits, or -1 when the range is not a plain decimal number
+     */
+    private static long parseDigits(final char[] chars, final int start, final int end, final int maxDigits) {
+        int x = start;
+        if (x < end && (chars[x] == '-' || chars[x] == '+')) {
+            x++;
+        }
+        long value = 0;
+        int digitCount = 0;
+        boolean point = false;
+        for (; x < end; x++) {
+            char c = chars[x];
+            if (c >= '0' && c <= '9') {
+                if (++digitCount > maxDigits) {
+                    return NOT_PLAIN;
+                }
+                value = value * 10 + (c - '0');
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return NOT_PLAIN;
+            }
+        }
+        return digitCount == 0 ? NOT_PLAIN : value;
+    }
+
+    /**
+     * Returns the digits of a plain decimal number without the sign and the decimal point.
+     *
+     * @param bytes     the bytes
+     * @param start     the start index
+     * @param end       the end index (exclusive)
+     * @param maxDigits the largest amount of digits allowed
+     * @return the digits, or -1 when the range is not a plain decimal number
+     */
+    private static long parseDigits(final byte[] bytes, final int start, final int end, final int maxDigits) {
+        int x = start;
+        if (x < end && (bytes[x] == '-' || bytes[x] == '+')) {
+            x++;
+        }
+        long value = 0;
+        int digitCount = 0;
+        boolean point = false;
+        for (; x < end; x++) {
+            byte b = bytes[x];
+            if (b >= '0' && b <= '9') {
+                if (++digitCount > maxDigits) {
+                    return NOT_PLAIN;
+                }
+                value = value * 10 + (b - '0');
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                return NOT_PLAIN;
+            }
+        }
+        return digitCount == 0 ? NOT_PLAIN : value;
+    }
+
+    /**
+     * Returns the amount of digits after the decimal point of a plain decimal number.
+     *
+     * @param chars the characters
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return the amount of decimals
+     */
+    private static int scale(final char[] chars, final int start, final int end) {
+        for (int x = end - 1; x >= start; x--) {
+            if (chars[x] == '.') {
+                return end - 1 - x;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the amount of digits after the decimal point of a plain decimal number.
+     *
+     * @param bytes the bytes
+     * @param start the start index
+     * @param end   the end index (exclusive)
+     * @return the amount of decimals
+     */
+    private static int scale(final byte[] bytes, final int start, final int end) {
+        for (int x = end - 1; x >= start; x--) {
+            if (bytes[x] == '.') {
+                return end - 1 - x;
+            }
+        }
+        return 0;
+    }
+}
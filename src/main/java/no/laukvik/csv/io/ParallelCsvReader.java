@@ -0,0 +1,381 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.Row;
+import no.laukvik.csv.columns.Column;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads the rows of a single CSV file in parallel.
+ *
+ * <p>The file is split into byte ranges which are moved forward to the start of the next record. A line feed
+ * only ends a record when an even number of quote characters precedes it, so each range is first scanned in
+ * parallel for its quote parity and for the first line feed seen with an even and with an odd number of quotes.
+ * Walking the ranges in order then tells which of the two guesses is the real record boundary. The resulting
+ * ranges are parsed in parallel on a ForkJoinPool and the rows are returned in file order.</p>
+ *
+ * <p>The byte level scanning requires a charset where the line feed and the quote character are always encoded
+ * as the single byte they have in ASCII.</p>
+ */
+final class ParallelCsvReader {
+
+    /**
+     * The smallest amount of bytes to give each range.
+     */
+    static final int MIN_CHUNK_SIZE = 1024 * 1024;
+    /**
+     * The amount of ranges to create for each thread.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /**
+     * The amount of bytes to scan at a time.
+     */
+    private static final int SCAN_BUFFER_SIZE = 65536;
+    /**
+     * The largest value of a single byte character.
+     */
+    private static final int MAX_ASCII = 127;
+    /**
+     * The byte representing LF.
+     */
+    private static final byte LINEFEED = (byte) CSV.LINEFEED;
+    /**
+     * Indicates that a range contains no record boundary.
+     */
+    private static final long NOT_FOUND = -1;
+
+    /**
+     * The amount of threads.
+     */
+    private final int parallelism;
+    /**
+     * The charset of the file.
+     */
+    private final Charset charset;
+    /**
+     * The column separator character.
+     */
+    private final Character separatorChar;
+    /**
+     * The quote character.
+     */
+    private final char quoteChar;
+    /**
+     * Whether the values are parsed the first time they are read.
+     */
+    private final boolean lazyParsing;
+    /**
+     * The maximum amount of distinct values shared by each string column in a range, or 0 to not share values.
+     */
+    private final int dictionaryThreshold;
+
+    /**
+     * Creates a new parallel reader.
+     *
+     * @param parallelism         the amount of threads
+     * @param charset             the charset
+     * @param separator           the separator character
+     * @param quote               the quote character
+     * @param lazyParsing         whether the values are parsed the first time they are read
+     * @param dictionaryThreshold the maximum amount of distinct values shared by each string column in a range
+     */
+    ParallelCsvReader(final int parallelism, final Charset charset, final Character separator,
+                      final char quote, final boolean lazyParsing, final int dictionaryThreshold) {
+        this.parallelism = parallelism;
+        this.charset = charset;
+        this.separatorChar = separator;
+        this.quoteChar = quote;
+        this.lazyParsing = lazyParsing;
+        this.dictionaryThreshold = dictionaryThreshold;
+    }
+
+    /**
+     * Returns true if line feeds and the quote character can be found by looking at single bytes.
+     *
+     * @param charset the charset
+     * @param quote   the quote character
+     * @return true when the charset is ASCII compatible
+     */
+    static boolean isSupported(final Charset charset, final char quote) {
+        return quote <= MAX_ASCII && MappedCsvTokenizer.isAsciiCompatible(charset);
+    }
+
+    /**
+     * The quote parity of a range and its candidate record boundaries.
+     */
+    private static final class Speculation {
+        /**
+         * Whether the range has an odd number of quote characters.
+         */
+        private boolean oddQuotes;
+        /**
+         * The position after the first line feed preceded by an even number of quotes in the range.
+         */
+        private long firstEven = NOT_FOUND;
+        /**
+         * The position after the first line feed preceded by an odd number of quotes in the range.
+         */
+        private long firstOdd = NOT_FOUND;
+    }
+
+    /**
+     * Reads all rows starting at the specified byte offset.
+     *
+     * @param file         the file
+     * @param dataStart    the byte offset of the first row
+     * @param fieldColumns the column of each field, or null for fields that are skipped
+     * @param filter       the filter the rows must match, or null to read all rows
+     * @return the rows in file order
+     * @throws IOException when the file could not be read
+     */
+    List<Row> read(final File file, final long dataStart, final Column[] fieldColumns, final QueryFilter filter)
+            throws IOException {
+        long size = file.length();
+        long length = size - dataStart;
+        if (length <= 0) {
+            return new ArrayList<>();
+        }
+        int chunkCount = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_THREAD,
+                length / MIN_CHUNK_SIZE));
+        long[] splits = new long[chunkCount + 1];
+        for (int x = 0; x < chunkCount; x++) {
+            splits[x] = dataStart + length / chunkCount * x;
+        }
+        splits[chunkCount] = size;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Find the quote parity and the candidate boundaries of each range in parallel
+            List<ForkJoinTask<Speculation>> scans = new ArrayList<>();
+            for (int x = 0; x < chunkCount; x++) {
+                final long from = splits[x];
+                final long to = splits[x + 1];
+                scans.add(pool.submit((Callable<Speculation>) () -> scan(file, from, to)));
+            }
+            // Resolve which candidates are real record boundaries
+            List<Long> boundaries = new ArrayList<>();
+            boundaries.add(dataStart);
+            boolean withinQuote = join(scans.get(0)).oddQuotes;
+            for (int x = 1; x < chunkCount; x++) {
+                Speculation s = join(scans.get(x));
+                long boundary = withinQuote ? s.firstOdd : s.firstEven;
+                if (boundary != NOT_FOUND && boundary < size) {
+                    boundaries.add(boundary);
+                }
+                withinQuote ^= s.oddQuotes;
+            }
+            boundaries.add(size);
+            // Parse the records in parallel
+            List<ForkJoinTask<List<Row>>> parsers = new ArrayList<>();
+            for (int x = 0; x < boundaries.size() - 1; x++) {
+                final long from = boundaries.get(x);
+                final long to = boundaries.get(x + 1);
+                parsers.add(pool.submit((Callable<List<Row>>) () -> parse(file, from, to, fieldColumns, filter)));
+            }
+            List<Row> rows = new ArrayList<>();
+            for (ForkJoinTask<List<Row>> parser : parsers) {
+                rows.addAll(join(parser));
+            }
+            return rows;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the position after the first line feed that is not within quotes.
+     *
+     * @param file  the file
+     * @param quote the quote character
+     * @return the position or -1 when not found
+     * @throws IOException when the file could not be read
+     */
+    static long findFirstRecordEnd(final File file, final char quote) throws IOException {
+        Speculation s = scan(file, 0, file.length(), quote, true);
+        return s.firstEven;
+    }
+
+    /**
+     * Scans the range for quote parity and candidate record boundaries.
+     *
+     * @param file the file
+     * @param from the start position
+     * @param to   the end position (exclusive)
+     * @return the speculation
+     * @throws IOException when the file could not be read
+     */
+    private Speculation scan(final File file, final long from, final long to) throws IOException {
+        return scan(file, from, to, quoteChar, false);
+    }
+
+    /**
+     * Scans the range for quote parity and candidate record boundaries.
+     *
+     * @param file  the file
+     * @param from  the start position
+     * @param to    the end position (exclusive)
+     * @param quote the quote character
+     * @param stop  whether to stop at the first line feed preceded by an even number of quotes
+     * @return the speculation
+     * @throws IOException when the file could not be read
+     */
+    private static Speculation scan(final File file, final long from, final long to, final char quote,
+                                    final boolean stop) throws IOException {
+        Speculation s = new Speculation();
+        byte quoteByte = (byte) quote;
+        boolean odd = false;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+            long position = from;
+            while (position < to) {
+                buffer.clear();
+                buffer.limit((int) Math.min(SCAN_BUFFER_SIZE, to - position));
+                int count = channel.read(buffer, position);
+                if (count < 0) {
+                    break;
+                }
+                for (int x = 0; x < count; x++) {
+                    byte b = bytes[x];
+                    if (b == quoteByte) {
+                        odd = !odd;
+                    } else if (b == LINEFEED) {
+                        if (odd) {
+                            if (s.firstOdd == NOT_FOUND) {
+                                s.firstOdd = position + x + 1;
+                            }
+                        } else if (s.firstEven == NOT_FOUND) {
+                            s.firstEven = position + x + 1;
+                            if (stop) {
+                                return s;
+                            }
+                        }
+                    }
+                }
+                position += count;
+            }
+        }
+        s.oddQuotes = odd;
+        return s;
+    }
+
+    /**
+     * Parses the rows within the range.
+     *
+     * @param file         the file
+     * @param from         the start position of the first record
+     * @param to           the end position (exclusive)
+     * @param fieldColumns the column of each field, or null for fields that are skipped
+     * @param filter       the filter the rows must match, or null to read all rows
+     * @return the rows
+     * @throws IOException when the file could not be read
+     */
+    private List<Row> parse(final File file, final long from, final long to, final Column[] fieldColumns,
+                            final QueryFilter filter) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (FileInputStream in = new FileInputStream(file)) {
+            in.getChannel().position(from);
+            InputStreamReader reader = new InputStreamReader(new RangeInputStream(in, to - from), charset);
+            CsvTokenizer tokenizer = new CsvTokenizer(reader, separatorChar, quoteChar);
+            tokenizer.setKeepFields(CsvReader.keepFields(fieldColumns, filter));
+            FieldDictionary[] dictionaries = FieldDictionary.create(fieldColumns, dictionaryThreshold);
+            while (tokenizer.nextRow()) {
+                if (filter == null || filter.matches(tokenizer)) {
+                    rows.add(CsvReader.buildRow(tokenizer, fieldColumns, lazyParsing, dictionaries, null, -1));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Waits for the task and returns its result.
+     *
+     * @param task the task
+     * @param <T>  the result type
+     * @return the result
+     * @throws IOException when the task failed
+     */
+    private static <T> T join(final ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * An InputStream that ends after a fixed amount of bytes.
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+        /**
+         * The remaining bytes.
+         */
+        private long remaining;
+
+        /**
+         * Creates a stream reading at most the specified amount of bytes.
+         *
+         * @param in     the stream
+         * @param length the amount of bytes
+         */
+        RangeInputStream(final InputStream in, final long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = super.read(b, off, (int) Math.min(len, remaining));
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.columns.Column;
+
+/**
+ * A value that could not be parsed by its column while reading a file.
+ *
+ * @see ParseErrors
+ */
+public final class ParseError {
+
+    /**
+     * The index of the row in the file.
+     */
+    private final long rowIndex;
+    /**
+     * The column.
+     */
+    private final Column column;
+    /**
+     * The value as read from the file.
+     */
+    private final String value;
+    /**
+     * The exception thrown when parsing.
+     */
+    private final RuntimeException cause;
+
+    /**
+     * Creates a new parse error.
+     *
+     * @param rowIndex the index of the row in the file, where 0 is the first row in the file
+     * @param column   the column
+     * @param value    the value as read from the file
+     * @param cause    the exception thrown when parsing
+     */
+    public ParseError(final long rowIndex, final Column column, final String value, final RuntimeException cause) {
+        this.rowIndex = rowIndex;
+        this.column = column;
+        this.value = value;
+        this.cause = cause;
+    }
+
+    /**
+     * Returns the index of the row in the file, where 0 is the first row in the file. The row with the column
+     * names is counted, so the index can be used with {@link RowIndex#getOffset(int)}.
+     *
+     * @return the row index
+     */
+    public long getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * Returns the column.
+     *
+     * @return the column
+     */
+    public Column getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the value as read from the file.
+     *
+     * @return the value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the exception thrown when parsing.
+     *
+     * @return the exception
+     */
+    public RuntimeException getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "Row " + rowIndex + ", column " + column.getName() + ": '" + value + "' (" + cause + ")";
+    }
+}
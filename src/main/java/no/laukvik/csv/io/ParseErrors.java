@@ -0,0 +1,137 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.columns.Column;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the values that could not be parsed while reading a file. When a reader has a collector the values that
+ * can not be parsed are left null and the reading continues, until more errors than the error budget are found.
+ * <pre>{@code
+ * ParseErrors errors = new ParseErrors(1000);
+ * CsvReader reader = new CsvReader(null, null, null);
+ * reader.setParseErrors(errors);
+ * reader.readFile(file, csv);
+ * for (ParseError error : errors.getErrors()) {
+ *     System.out.println(error);
+ * }
+ * }</pre>
+ *
+ * <p>Only the first errors are kept, so the memory used stays bounded even when every value fails. The total
+ * amount of errors is always counted. The collector can be shared by several threads.</p>
+ */
+public final class ParseErrors {
+
+    /**
+     * The default amount of errors to keep.
+     */
+    public static final int DEFAULT_MAX_KEPT = 1000;
+
+    /**
+     * The maximum amount of errors allowed before reading is aborted.
+     */
+    private final long errorBudget;
+    /**
+     * The maximum amount of errors to keep.
+     */
+    private final int maxKept;
+    /**
+     * The first errors.
+     */
+    private final List<ParseError> errors;
+    /**
+     * The total amount of errors.
+     */
+    private long errorCount;
+
+    /**
+     * Creates a collector allowing the specified amount of errors and keeping the default amount of errors.
+     *
+     * @param errorBudget the maximum amount of errors allowed before reading is aborted
+     */
+    public ParseErrors(final long errorBudget) {
+        this(errorBudget, DEFAULT_MAX_KEPT);
+    }
+
+    /**
+     * Creates a collector allowing the specified amount of errors.
+     *
+     * @param errorBudget the maximum amount of errors allowed before reading is aborted
+     * @param maxKept     the maximum amount of errors to keep
+     */
+    public ParseErrors(final long errorBudget, final int maxKept) {
+        if (errorBudget < 0 || maxKept < 0) {
+            throw new IllegalArgumentException("Illegal error budget " + errorBudget + " or size " + maxKept);
+        }
+        this.errorBudget = errorBudget;
+        this.maxKept = maxKept;
+        this.errors = new ArrayList<>();
+    }
+
+    /**
+     * Returns a new empty collector with the same error budget and amount of errors to keep.
+     *
+     * @return the new collector
+     */
+    ParseErrors copy() {
+        return new ParseErrors(errorBudget, maxKept);
+    }
+
+    /**
+     * Adds an error.
+     *
+     * @param rowIndex the index of the row in the file
+     * @param column   the column
+     * @param value    the value as read from the file
+     * @param cause    the exception thrown when parsing
+     * @throws TooManyParseErrorsException when the error budget is exceeded
+     */
+    public synchronized void add(final long rowIndex, final Column column, final String value,
+                                 final RuntimeException cause) {
+        errorCount++;
+        ParseError error = new ParseError(rowIndex, column, value, cause);
+        if (errors.size() < maxKept) {
+            errors.add(error);
+        }
+        if (errorCount > errorBudget) {
+            throw new TooManyParseErrorsException(error, errorBudget);
+        }
+    }
+
+    /**
+     * Returns the first errors in the order they were found.
+     *
+     * @return the errors
+     */
+    public synchronized List<ParseError> getErrors() {
+        return Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    /**
+     * Returns the total amount of errors, including those not kept.
+     *
+     * @return the amount of errors
+     */
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the maximum amount of errors allowed before reading is aborted.
+     *
+     * @return the error budget
+     */
+    public long getErrorBudget() {
+        return errorBudget;
+    }
+
+    /**
+     * Removes all errors.
+     */
+    public synchronized void clear() {
+        errors.clear();
+        errorCount = 0;
+    }
+}
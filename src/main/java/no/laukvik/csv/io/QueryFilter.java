@@ -0,0 +1,171 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.query.Query;
+import no.laukvik.csv.query.ValueMatcher;
+
+import java.util.List;
+
+/**
+ * Evaluates the matchers of a query against the fields read by a tokenizer before a row is built.
+ *
+ * <p>Each matcher is bound to the field with the same name as its column when the column names are read. Only the
+ * fields used by the matchers are parsed, and they are parsed by the column of the matcher. A matcher whose column
+ * is not found in the file is given a null value, just like {@link Query#matches(no.laukvik.csv.Row)} does for a
+ * row without the column. The filter keeps no state between records and can be shared by several threads.</p>
+ *
+ * <p>With a collector of parse errors, a value that can not be parsed is given a null value and added to the
+ * errors, unless the row matches and the value is added to the errors when the row is built.</p>
+ */
+final class QueryFilter {
+
+    /**
+     * Indicates that the column of a matcher is not found in the file.
+     */
+    private static final int NOT_FOUND = -1;
+
+    /**
+     * The matchers of the query.
+     */
+    private final ValueMatcher[] matchers;
+    /**
+     * The field index of each matcher, or -1 when the column is not found.
+     */
+    private final int[] fieldIndexes;
+    /**
+     * The column each field is built with, or null when no fields are built.
+     */
+    private final Column[] fieldColumns;
+    /**
+     * The collector of values that can not be parsed, or null to throw the exception.
+     */
+    private final ParseErrors errors;
+
+    /**
+     * Binds the matchers of the query to the fields with the same name.
+     *
+     * @param query      the query
+     * @param fieldNames the column name of each field
+     */
+    QueryFilter(final Query query, final String[] fieldNames) {
+        this(query, fieldNames, null, null);
+    }
+
+    /**
+     * Binds the matchers of the query to the fields with the same name.
+     *
+     * @param query        the query
+     * @param fieldNames   the column name of each field
+     * @param fieldColumns the column each field is built with, or null for fields that are skipped
+     * @param errors       the collector of values that can not be parsed, or null to throw the exception
+     */
+    QueryFilter(final Query query, final String[] fieldNames, final Column[] fieldColumns,
+                final ParseErrors errors) {
+        this.fieldColumns = fieldColumns;
+        this.errors = errors;
+        List<ValueMatcher> list = query.getMatchers();
+        this.matchers = list.toArray(new ValueMatcher[0]);
+        this.fieldIndexes = new int[matchers.length];
+        for (int x = 0; x < matchers.length; x++) {
+            fieldIndexes[x] = indexOf(matchers[x].getColumn().getName(), fieldNames);
+        }
+    }
+
+    /**
+     * Returns the index of the field with the name. The names are compared ignoring case, the same way as the CSV
+     * finds a column by name.
+     *
+     * @param name       the name
+     * @param fieldNames the column name of each field
+     * @return the index or -1 when not found
+     */
+    private static int indexOf(final String name, final String[] fieldNames) {
+        for (int x = 0; x < fieldNames.length; x++) {
+            if (fieldNames[x].equalsIgnoreCase(name)) {
+                return x;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Adds the fields used by the matchers to the fields the tokenizer needs to keep.
+     *
+     * @param keepFields true for each field to keep
+     * @return true for each field to keep
+     */
+    boolean[] keepFields(final boolean[] keepFields) {
+        boolean[] keep = keepFields.clone();
+        for (int fieldIndex : fieldIndexes) {
+            if (fieldIndex != NOT_FOUND && fieldIndex < keep.length) {
+                keep[fieldIndex] = true;
+            }
+        }
+        return keep;
+    }
+
+    /**
+     * Returns true if the fields read by the tokenizer matches all matchers. The matchers are evaluated in the
+     * order they were added to the query, and the remaining fields are not parsed once a matcher fails.
+     *
+     * @param tokenizer the tokenizer
+     * @return true when the record matches
+     */
+    boolean matches(final Tokenizer tokenizer) {
+        return matches(tokenizer, -1);
+    }
+
+    /**
+     * Returns true if the fields read by the tokenizer matches all matchers. The matchers are evaluated in the
+     * order they were added to the query, and the remaining fields are not parsed once a matcher fails.
+     *
+     * @param tokenizer the tokenizer
+     * @param rowIndex  the index of the row in the file, used for the parse errors
+     * @return true when the record matches
+     */
+    @SuppressWarnings("unchecked")
+    boolean matches(final Tokenizer tokenizer, final long rowIndex) {
+        RuntimeException[] failures = null;
+        boolean matches = true;
+        for (int x = 0; x < matchers.length && matches; x++) {
+            ValueMatcher matcher = matchers[x];
+            Object value = null;
+            int fieldIndex = fieldIndexes[x];
+            if (fieldIndex != NOT_FOUND && fieldIndex < tokenizer.getFieldCount()) {
+                try {
+                    value = CsvReader.parseField(tokenizer, matcher.getColumn(), fieldIndex);
+                } catch (RuntimeException e) {
+                    if (errors == null) {
+                        throw e;
+                    }
+                    if (failures == null) {
+                        failures = new RuntimeException[matchers.length];
+                    }
+                    failures[x] = e;
+                }
+            }
+            matches = matcher.matches(value);
+        }
+        if (failures != null) {
+            for (int x = 0; x < failures.length; x++) {
+                if (failures[x] != null && (!matches || !isBuiltAs(fieldIndexes[x], matchers[x].getColumn()))) {
+                    errors.add(rowIndex, matchers[x].getColumn(), tokenizer.getField(fieldIndexes[x]), failures[x]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns true if the field is built with a column of the same type, which adds the error when the row is
+     * built.
+     *
+     * @param fieldIndex the index of the field
+     * @param column     the column of the matcher
+     * @return true when built with the same type
+     */
+    private boolean isBuiltAs(final int fieldIndex, final Column column) {
+        return fieldColumns != null && fieldIndex < fieldColumns.length && fieldColumns[fieldIndex] != null
+                && fieldColumns[fieldIndex].getClass() == column.getClass();
+    }
+}
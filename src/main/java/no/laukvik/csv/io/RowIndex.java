@@ -0,0 +1,289 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The byte offset of every row in a CSV file, making it possible to start reading at any row without parsing the
+ * rows before it.
+ *
+ * <p>The index is built once by scanning the bytes of the file for line feeds that are not within quotes, and is
+ * stored next to the file with the suffix {@link #SUFFIX}. The stored index is rebuilt when the size or the last
+ * modified time of the file has changed.</p>
+ * <pre>{@code
+ * RowIndex index = RowIndex.open(file, CSV.QUOTE_DOUBLE);
+ * CsvReader reader = new CsvReader(null, null, null);
+ * reader.setRowIndex(index);
+ * reader.readRows(file, csv, 1000000, 1000100);
+ * }</pre>
+ *
+ * <p>Like the parallel reader, the index requires a charset where the line feed and the quote character are
+ * always encoded as the single byte they have in ASCII. Compressed files can not be indexed.</p>
+ */
+public final class RowIndex {
+
+    /**
+     * The suffix of the file the index is stored in.
+     */
+    public static final String SUFFIX = ".rowindex";
+    /**
+     * Identifies a stored index.
+     */
+    private static final int MAGIC = 0x43535649;
+    /**
+     * The version of the stored format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The amount of bytes to scan at a time.
+     */
+    private static final int SCAN_BUFFER_SIZE = 65536;
+    /**
+     * The initial amount of offsets.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * The byte representing LF.
+     */
+    private static final byte LINEFEED = (byte) CSV.LINEFEED;
+
+    /**
+     * The quote character the file was scanned with.
+     */
+    private final char quoteChar;
+    /**
+     * The size of the file when indexed.
+     */
+    private final long fileLength;
+    /**
+     * The last modified time of the file when indexed.
+     */
+    private final long lastModified;
+    /**
+     * The byte offset of each row.
+     */
+    private final long[] offsets;
+
+    /**
+     * Creates a new index.
+     *
+     * @param quoteChar    the quote character
+     * @param fileLength   the size of the file
+     * @param lastModified the last modified time of the file
+     * @param offsets      the byte offset of each row
+     */
+    private RowIndex(final char quoteChar, final long fileLength, final long lastModified, final long[] offsets) {
+        this.quoteChar = quoteChar;
+        this.fileLength = fileLength;
+        this.lastModified = lastModified;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns the stored index of the file, or builds and stores a new index when it is missing or stale. The new
+     * index is still returned when it could not be stored.
+     *
+     * @param file  the CSV file
+     * @param quote the quote character
+     * @return the index
+     * @throws IOException when the CSV file could not be read
+     */
+    public static RowIndex open(final File file, final char quote) throws IOException {
+        RowIndex index = load(file, quote);
+        if (index == null) {
+            index = build(file, quote);
+            try {
+                index.save(getIndexFile(file));
+            } catch (IOException e) {
+                // The index is still usable in memory
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns true if the file can be read with an index. Compressed files can not, and neither can files with a
+     * charset where line feeds and the quote character can not be found by looking at single bytes.
+     *
+     * @param file    the CSV file
+     * @param charset the charset, used when the file has no BOM
+     * @param quote   the quote character
+     * @return true when supported
+     * @throws IOException when the file could not be read
+     */
+    public static boolean isSupported(final File file, final Charset charset, final char quote) throws IOException {
+        byte[] start = new byte[Math.max(Compression.MAX_MAGIC_SIZE, BOM.MAX_BOM_SIZE)];
+        int length = 0;
+        try (FileInputStream in = new FileInputStream(file)) {
+            int count;
+            while (length < start.length && (count = in.read(start, length, start.length - length)) > 0) {
+                length += count;
+            }
+        }
+        byte[] bytes = Arrays.copyOf(start, length);
+        if (Compression.parse(bytes) != null) {
+            return false;
+        }
+        BOM bom = BOM.parse(bytes);
+        return ParallelCsvReader.isSupported(bom == null ? charset : bom.getCharset(), quote);
+    }
+
+    /**
+     * Returns the stored index of the file.
+     *
+     * @param file  the CSV file
+     * @param quote the quote character
+     * @return the index, or null when it is missing, stale or built with another quote character
+     */
+    public static RowIndex load(final File file, final char quote) {
+        File indexFile = getIndexFile(file);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            char storedQuote = in.readChar();
+            long length = in.readLong();
+            long modified = in.readLong();
+            long[] offsets = new long[in.readInt()];
+            for (int x = 0; x < offsets.length; x++) {
+                offsets[x] = in.readLong();
+            }
+            RowIndex index = new RowIndex(storedQuote, length, modified, offsets);
+            return storedQuote != quote || index.isStale(file) ? null : index;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds the index by scanning the file.
+     *
+     * @param file  the CSV file
+     * @param quote the quote character
+     * @return the index
+     * @throws IOException when the file could not be read
+     */
+    public static RowIndex build(final File file, final char quote) throws IOException {
+        long modified = file.lastModified();
+        byte quoteByte = (byte) quote;
+        long[] offsets = new long[INITIAL_CAPACITY];
+        int count = 0;
+        boolean odd = false;
+        long position = 0;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > 0) {
+                offsets[count++] = 0;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+            while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                for (int x = 0; x < read; x++) {
+                    byte b = bytes[x];
+                    if (b == quoteByte) {
+                        odd = !odd;
+                    } else if (b == LINEFEED && !odd && position + x + 1 < size) {
+                        if (count == offsets.length) {
+                            offsets = Arrays.copyOf(offsets, count * 2);
+                        }
+                        offsets[count++] = position + x + 1;
+                    }
+                }
+                position += read;
+            }
+        }
+        return new RowIndex(quote, position, modified, Arrays.copyOf(offsets, count));
+    }
+
+    /**
+     * Stores the index.
+     *
+     * @param indexFile the file to store the index in
+     * @throws IOException when the index could not be stored
+     */
+    public void save(final File indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeChar(quoteChar);
+            out.writeLong(fileLength);
+            out.writeLong(lastModified);
+            out.writeInt(offsets.length);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+    }
+
+    /**
+     * Returns the file the index of the CSV file is stored in.
+     *
+     * @param file the CSV file
+     * @return the index file
+     */
+    public static File getIndexFile(final File file) {
+        return new File(file.getPath() + SUFFIX);
+    }
+
+    /**
+     * Returns true if the size or the last modified time of the file has changed since it was indexed.
+     *
+     * @param file the CSV file
+     * @return true when stale
+     */
+    public boolean isStale(final File file) {
+        return file.length() != fileLength || file.lastModified() != lastModified;
+    }
+
+    /**
+     * Returns the quote character the file was indexed with.
+     *
+     * @return the quote character
+     */
+    public char getQuoteChar() {
+        return quoteChar;
+    }
+
+    /**
+     * Returns the amount of rows in the file including the row with column names.
+     *
+     * @return the amount of rows
+     */
+    public int getRowCount() {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the byte offset of the row. The offset of the first row includes any BOM.
+     *
+     * @param rowIndex the index of the row, where 0 is the first row in the file
+     * @return the byte offset, or the size of the file when the index is after the last row
+     */
+    public long getOffset(final int rowIndex) {
+        if (rowIndex < 0) {
+            throw new IndexOutOfBoundsException("Illegal row index " + rowIndex);
+        }
+        return rowIndex < offsets.length ? offsets[rowIndex] : fileLength;
+    }
+}
@@ -0,0 +1,148 @@
+package no.laukvik.csv.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a sample of the rows from another tokenizer in advance, and returns the sampled rows before the remaining
+ * rows of the other tokenizer. This makes it possible to look at the first rows before they are read.
+ */
+final class SampledTokenizer implements Tokenizer {
+
+    /**
+     * The tokenizer to read from.
+     */
+    private final Tokenizer source;
+    /**
+     * The fields of the sampled rows.
+     */
+    private final List<String[]> rows;
+    /**
+     * The index of the current sampled row.
+     */
+    private int index;
+    /**
+     * The fields of the current row, or null when the current row is read from the source.
+     */
+    private String[] fields;
+
+    /**
+     * Reads the sample from the tokenizer.
+     *
+     * @param source         the tokenizer
+     * @param includeCurrent whether the current row of the tokenizer is part of the sample
+     * @param sampleRows     the maximum amount of rows to sample
+     * @throws IOException when the rows could not be read
+     */
+    SampledTokenizer(final Tokenizer source, final boolean includeCurrent, final int sampleRows) throws IOException {
+        this.source = source;
+        this.rows = new ArrayList<>();
+        this.index = -1;
+        if (includeCurrent) {
+            rows.add(getFields(source));
+        }
+        while (rows.size() < sampleRows && source.nextRow()) {
+            rows.add(getFields(source));
+        }
+    }
+
+    /**
+     * Returns the fields of the current row of the tokenizer.
+     *
+     * @param tokenizer the tokenizer
+     * @return the fields
+     */
+    private static String[] getFields(final Tokenizer tokenizer) {
+        String[] values = new String[tokenizer.getFieldCount()];
+        for (int x = 0; x < values.length; x++) {
+            values[x] = tokenizer.getField(x);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the sampled rows.
+     *
+     * @return the fields of each row
+     */
+    List<String[]> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public boolean hasNextRow() throws IOException {
+        return index + 1 < rows.size() || source.hasNextRow();
+    }
+
+    @Override
+    public boolean nextRow() throws IOException {
+        if (index + 1 < rows.size()) {
+            index++;
+            fields = rows.get(index);
+            return true;
+        }
+        if (fields != null) {
+            fields = null;
+            rows.clear();
+        }
+        return source.nextRow();
+    }
+
+    @Override
+    public int getFieldCount() {
+        return fields == null ? source.getFieldCount() : fields.length;
+    }
+
+    @Override
+    public String getField(final int fieldIndex) {
+        return fields == null ? source.getField(fieldIndex) : fields[fieldIndex];
+    }
+
+    @Override
+    public boolean isBlank(final int fieldIndex) {
+        if (fields == null) {
+            return source.isBlank(fieldIndex);
+        }
+        String value = fields[fieldIndex];
+        return NumberParser.isBlank(value.toCharArray(), 0, value.length());
+    }
+
+    @Override
+    public int getInt(final int fieldIndex) {
+        if (fields == null) {
+            return source.getInt(fieldIndex);
+        }
+        String value = fields[fieldIndex];
+        return NumberParser.parseInt(value.toCharArray(), 0, value.length());
+    }
+
+    @Override
+    public float getFloat(final int fieldIndex) {
+        if (fields == null) {
+            return source.getFloat(fieldIndex);
+        }
+        String value = fields[fieldIndex];
+        return NumberParser.parseFloat(value.toCharArray(), 0, value.length());
+    }
+
+    @Override
+    public double getDouble(final int fieldIndex) {
+        if (fields == null) {
+            return source.getDouble(fieldIndex);
+        }
+        String value = fields[fieldIndex];
+        return NumberParser.parseDouble(value.toCharArray(), 0, value.length());
+    }
+
+    @Override
+    public void setKeepFields(final boolean[] keepFields) {
+        source.setKeepFields(keepFields);
+    }
+
+    @Override
+    public Character getSeparatorChar() {
+        return source.getSeparatorChar();
+    }
+}
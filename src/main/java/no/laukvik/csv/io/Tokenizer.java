@@ -0,0 +1,96 @@
+package no.laukvik.csv.io;
+
+import java.io.IOException;
+
+/**
+ * Splits CSV data into rows of fields. The fields of the current row are kept until the next row is read.
+ *
+ * @see CsvTokenizer
+ * @see MappedCsvTokenizer
+ */
+public interface Tokenizer {
+
+    /**
+     * Returns whether there are more rows to read.
+     *
+     * @return true when there are more rows
+     * @throws IOException when the data could not be read
+     */
+    boolean hasNextRow() throws IOException;
+
+    /**
+     * Reads the next row.
+     *
+     * @return false when there are no more rows
+     * @throws IOException when the data could not be read
+     */
+    boolean nextRow() throws IOException;
+
+    /**
+     * Returns the amount of fields in the current row.
+     *
+     * @return the amount of fields
+     */
+    int getFieldCount();
+
+    /**
+     * Returns the field at the specified index as a String.
+     *
+     * @param fieldIndex the index of the field
+     * @return the field
+     */
+    String getField(int fieldIndex);
+
+    /**
+     * Returns true if the field at the specified index is empty or only contains whitespace.
+     *
+     * @param fieldIndex the index of the field
+     * @return true when blank
+     */
+    boolean isBlank(int fieldIndex);
+
+    /**
+     * Parses the field at the specified index as an int. Plain decimal numbers are parsed without creating a
+     * String.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     * @throws NumberFormatException when the field is not a number
+     */
+    int getInt(int fieldIndex);
+
+    /**
+     * Parses the field at the specified index as a float. Plain decimal numbers are parsed without creating a
+     * String.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     * @throws NumberFormatException when the field is not a number
+     */
+    float getFloat(int fieldIndex);
+
+    /**
+     * Parses the field at the specified index as a double. Plain decimal numbers are parsed without creating a
+     * String.
+     *
+     * @param fieldIndex the index of the field
+     * @return the value
+     * @throws NumberFormatException when the field is not a number
+     */
+    double getDouble(int fieldIndex);
+
+    /**
+     * Sets which fields to keep in the following rows. The other fields are skipped without being stored, and
+     * are returned as empty fields. All fields are kept when null.
+     *
+     * @param fields true for each field index to keep
+     */
+    void setKeepFields(boolean[] fields);
+
+    /**
+     * Returns the separator character, or null when not yet detected.
+     *
+     * @return the separator character
+     */
+    Character getSeparatorChar();
+}
@@ -0,0 +1,32 @@
+package no.laukvik.csv.io;
+
+/**
+ * Thrown when more values could not be parsed than allowed by the error budget of {@link ParseErrors}.
+ */
+public final class TooManyParseErrorsException extends RuntimeException {
+
+    /**
+     * The error exceeding the budget.
+     */
+    private final transient ParseError error;
+
+    /**
+     * Creates a new exception.
+     *
+     * @param error       the error exceeding the budget
+     * @param errorBudget the error budget
+     */
+    public TooManyParseErrorsException(final ParseError error, final long errorBudget) {
+        super("More than " + errorBudget + " values could not be parsed. The last was " + error, error.getCause());
+        this.error = error;
+    }
+
+    /**
+     * Returns the error exceeding the budget.
+     *
+     * @return the error
+     */
+    public ParseError getError() {
+        return error;
+    }
+}
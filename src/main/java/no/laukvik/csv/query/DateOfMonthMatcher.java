@@ -55,7 +55,7 @@ public final class DateOfMonthMatcher implements ValueMatcher<Date> {
      */
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getDayOfMonth(value));
+        return values.contains(value == null ? null : DateColumn.getDayOfMonth(value.getTime()));
     }
 
 }
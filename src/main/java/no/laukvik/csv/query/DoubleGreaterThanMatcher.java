@@ -21,7 +21,7 @@ import no.laukvik.csv.columns.DoubleColumn;
 /**
  * Compares a IntegerColumn to be greater than a value.
  */
-public final class DoubleGreaterThanMatcher implements ValueMatcher<Double> {
+public final class DoubleGreaterThanMatcher implements DoubleValueMatcher {
 
     /**
      * The minimum value.
@@ -67,4 +67,9 @@ public final class DoubleGreaterThanMatcher implements ValueMatcher<Double> {
     public boolean matches(final Double value) {
         return isGreaterThan(value, min);
     }
+
+    @Override
+    public boolean matchesDouble(final double value) {
+        return value > min;
+    }
 }
@@ -21,7 +21,7 @@ import no.laukvik.csv.columns.DoubleColumn;
 /**
  * Compares a IntegerColumn to be less than a value.
  */
-public final class DoubleLessThanMatcher implements ValueMatcher<Double> {
+public final class DoubleLessThanMatcher implements DoubleValueMatcher {
 
     /**
      * The value to match.
@@ -53,4 +53,9 @@ public final class DoubleLessThanMatcher implements ValueMatcher<Double> {
     public boolean matches(final Double i) {
         return i != null && i < value;
     }
+
+    @Override
+    public boolean matchesDouble(final double i) {
+        return i < value;
+    }
 }
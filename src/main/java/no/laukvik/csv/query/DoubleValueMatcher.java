@@ -0,0 +1,16 @@
+package no.laukvik.csv.query;
+
+/**
+ * A value matcher that matches the double values of a DoubleColumn without boxing them. Null values never match, so
+ * the double value is only matched when the value of the row is not null.
+ */
+public interface DoubleValueMatcher extends ValueMatcher<Double> {
+
+    /**
+     * Returns true when the value matches.
+     *
+     * @param value the value to test against
+     * @return true when matches
+     */
+    boolean matchesDouble(double value);
+}
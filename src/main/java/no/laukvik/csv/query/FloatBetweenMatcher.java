@@ -21,7 +21,7 @@ import no.laukvik.csv.columns.FloatColumn;
 /**
  * Compares a IntegerColumn to be between to values.
  */
-public final class FloatBetweenMatcher implements ValueMatcher<Float> {
+public final class FloatBetweenMatcher implements FloatValueMatcher {
 
     /**
      * The smallest allowed value.
@@ -74,4 +74,9 @@ public final class FloatBetweenMatcher implements ValueMatcher<Float> {
     public boolean matches(final Float value) {
         return isBetween(value, min, max);
     }
+
+    @Override
+    public boolean matchesFloat(final float value) {
+        return value >= min && value < max;
+    }
 }
@@ -21,7 +21,7 @@ import no.laukvik.csv.columns.FloatColumn;
 /**
  * Compares a IntegerColumn to be greater than a value.
  */
-public final class FloatGreaterThanMatcher implements ValueMatcher<Float> {
+public final class FloatGreaterThanMatcher implements FloatValueMatcher {
 
     /**
      * The minimum value.
@@ -67,4 +67,9 @@ public final class FloatGreaterThanMatcher implements ValueMatcher<Float> {
     public boolean matches(final Float value) {
         return isGreaterThan(value, min);
     }
+
+    @Override
+    public boolean matchesFloat(final float value) {
+        return value > min;
+    }
 }
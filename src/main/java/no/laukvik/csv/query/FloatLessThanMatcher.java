@@ -21,7 +21,7 @@ import no.laukvik.csv.columns.FloatColumn;
 /**
  * Compares a FloatColumn to be less than a value.
  */
-public final class FloatLessThanMatcher implements ValueMatcher<Float> {
+public final class FloatLessThanMatcher implements FloatValueMatcher {
 
     /**
      * The value to match.
@@ -53,4 +53,9 @@ public final class FloatLessThanMatcher implements ValueMatcher<Float> {
     public boolean matches(final Float i) {
         return i != null && i < value;
     }
+
+    @Override
+    public boolean matchesFloat(final float i) {
+        return i < value;
+    }
 }
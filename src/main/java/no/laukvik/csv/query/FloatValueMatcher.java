@@ -0,0 +1,16 @@
+package no.laukvik.csv.query;
+
+/**
+ * A value matcher that matches the float values of a FloatColumn without boxing them. Null values never match, so
+ * the float value is only matched when the value of the row is not null.
+ */
+public interface FloatValueMatcher extends ValueMatcher<Float> {
+
+    /**
+     * Returns true when the value matches.
+     *
+     * @param value the value to test against
+     * @return true when matches
+     */
+    boolean matchesFloat(float value);
+}
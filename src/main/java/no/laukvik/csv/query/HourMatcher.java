@@ -70,7 +70,7 @@ public final class HourMatcher implements ValueMatcher<Date> {
      */
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getHour(value));
+        return values.contains(value == null ? null : DateColumn.getHour(value.getTime()));
     }
 
 }
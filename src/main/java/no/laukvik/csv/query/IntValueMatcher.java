@@ -0,0 +1,16 @@
+package no.laukvik.csv.query;
+
+/**
+ * A value matcher that matches the int values of a IntegerColumn without boxing them. Null values never match, so
+ * the int value is only matched when the value of the row is not null.
+ */
+public interface IntValueMatcher extends ValueMatcher<Integer> {
+
+    /**
+     * Returns true when the value matches.
+     *
+     * @param value the value to test against
+     * @return true when matches
+     */
+    boolean matchesInt(int value);
+}
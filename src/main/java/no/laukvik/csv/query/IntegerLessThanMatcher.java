@@ -21,7 +21,7 @@ import no.laukvik.csv.columns.IntegerColumn;
 /**
  * Compares a IntegerColumn to be less than a value.
  */
-public final class IntegerLessThanMatcher implements ValueMatcher<Integer> {
+public final class IntegerLessThanMatcher implements IntValueMatcher {
 
     /**
      * The value to match.
@@ -53,4 +53,9 @@ public final class IntegerLessThanMatcher implements ValueMatcher<Integer> {
     public boolean matches(final Integer i) {
         return i != null && i < value;
     }
+
+    @Override
+    public boolean matchesInt(final int i) {
+        return i < value;
+    }
 }
@@ -71,7 +71,16 @@ public final class MillisecondMatcher implements ValueMatcher<Date> {
      */
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getMilliseconds(value));
+        if (value == null) {
+            return values.contains(null);
+        }
+        int milliseconds = DateColumn.getMilliseconds(value.getTime());
+        for (Integer v : values) {
+            if (v != null && v == milliseconds) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -71,7 +71,7 @@ public final class MinuteMatcher implements ValueMatcher<Date> {
      */
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getMinutes(value));
+        return values.contains(value == null ? null : DateColumn.getMinutes(value.getTime()));
     }
 
 }
@@ -64,6 +64,6 @@ public final class MonthMatcher implements ValueMatcher<Date> {
 
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getMonth(value));
+        return values.contains(value == null ? null : DateColumn.getMonth(value.getTime()));
     }
 }
@@ -17,6 +17,7 @@ package no.laukvik.csv.query;
 
 import no.laukvik.csv.CSV;
 import no.laukvik.csv.Row;
+import no.laukvik.csv.StringDictionary;
 import no.laukvik.csv.columns.BigDecimalColumn;
 import no.laukvik.csv.columns.BooleanColumn;
 import no.laukvik.csv.columns.Column;
@@ -804,13 +805,40 @@ public final class Query {
 
         for (ValueMatcher matcher : matchers) {
             Column c = matcher.getColumn();
-            if (matcher.matches(row.getObject(c))) {
+            if (matches(matcher, c, row)) {
                 matchCount++;
             }
         }
         return matchCount == matchers.size();
     }
 
+    /**
+     * Returns true if the value of the column in the row matches. Matchers of int, float and double values are given
+     * the value without boxing it, and matchers of strings are given the code when the values are encoded.
+     *
+     * @param matcher the matcher
+     * @param column  the column of the matcher
+     * @param row     the row
+     * @return true when matches
+     */
+    private static boolean matches(final ValueMatcher matcher, final Column column, final Row row) {
+        if (matcher instanceof IntValueMatcher) {
+            return !row.isNull(column) && ((IntValueMatcher) matcher).matchesInt(row.getInt((IntegerColumn) column));
+        } else if (matcher instanceof FloatValueMatcher) {
+            return !row.isNull(column)
+                    && ((FloatValueMatcher) matcher).matchesFloat(row.getFloat((FloatColumn) column));
+        } else if (matcher instanceof DoubleValueMatcher) {
+            return !row.isNull(column)
+                    && ((DoubleValueMatcher) matcher).matchesDouble(row.getDouble((DoubleColumn) column));
+        } else if (matcher instanceof StringCodeMatcher) {
+            StringDictionary dictionary = row.getDictionary((StringColumn) column);
+            if (dictionary != null) {
+                return ((StringCodeMatcher) matcher).matchesCode(dictionary, row.getCode((StringColumn) column));
+            }
+        }
+        return matcher.matches(row.getObject(column));
+    }
+
     /**
      * Returns the matching rows.
      *
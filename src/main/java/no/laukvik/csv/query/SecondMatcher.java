@@ -64,7 +64,7 @@ public final class SecondMatcher implements ValueMatcher<Date> {
 
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getSeconds(value));
+        return values.contains(value == null ? null : DateColumn.getSeconds(value.getTime()));
     }
 
 }
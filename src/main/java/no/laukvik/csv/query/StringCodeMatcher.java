@@ -0,0 +1,19 @@
+package no.laukvik.csv.query;
+
+import no.laukvik.csv.StringDictionary;
+
+/**
+ * A value matcher that matches the codes of dictionary encoded values of a StringColumn, so the values are compared
+ * without comparing strings.
+ */
+public interface StringCodeMatcher extends ValueMatcher<String> {
+
+    /**
+     * Returns true when the value of the code matches.
+     *
+     * @param dictionary the dictionary of the code
+     * @param code       the code, or -1 when the value is null
+     * @return true when matches
+     */
+    boolean matchesCode(StringDictionary dictionary, int code);
+}
@@ -15,6 +15,7 @@
  */
 package no.laukvik.csv.query;
 
+import no.laukvik.csv.StringDictionary;
 import no.laukvik.csv.columns.Column;
 import no.laukvik.csv.columns.StringColumn;
 
@@ -24,7 +25,7 @@ import java.util.List;
 /**
  * Compares a StringColumn to have one or more of the specified values.
  */
-public final class StringInMatcher implements ValueMatcher<String> {
+public final class StringInMatcher implements StringCodeMatcher {
 
     /**
      * The values to match.
@@ -34,6 +35,10 @@ public final class StringInMatcher implements ValueMatcher<String> {
      * The Column to match.
      */
     private final StringColumn column;
+    /**
+     * The codes of the values in the dictionary last matched, or null.
+     */
+    private Codes codes;
 
     /**
      * The value of the column must be among the values.
@@ -92,4 +97,49 @@ public final class StringInMatcher implements ValueMatcher<String> {
     public boolean matches(final String value) {
         return values.contains(value);
     }
+
+    @Override
+    public boolean matchesCode(final StringDictionary dictionary, final int code) {
+        if (code < 0) {
+            return matches(null);
+        }
+        Codes c = codes;
+        if (c == null || c.dictionary != dictionary || code >= c.accepted.length) {
+            c = new Codes(dictionary, values);
+            codes = c;
+        }
+        return c.accepted[code];
+    }
+
+    /**
+     * Whether each code of a dictionary is among the values. Values added to the dictionary later get codes outside
+     * the array, and the codes are then found again.
+     */
+    private static final class Codes {
+        /**
+         * The dictionary.
+         */
+        private final StringDictionary dictionary;
+        /**
+         * Whether each code is among the values.
+         */
+        private final boolean[] accepted;
+
+        /**
+         * Finds the codes of the values in the dictionary.
+         *
+         * @param dictionary the dictionary
+         * @param values     the values
+         */
+        Codes(final StringDictionary dictionary, final List<String> values) {
+            this.dictionary = dictionary;
+            this.accepted = new boolean[dictionary.size()];
+            for (String value : values) {
+                int code = value == null ? -1 : dictionary.getCode(value);
+                if (code >= 0) {
+                    accepted[code] = true;
+                }
+            }
+        }
+    }
 }
@@ -49,7 +49,7 @@ public final class WeekMatcher implements ValueMatcher<Date> {
 
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getWeekOfYear(value));
+        return values.contains(value == null ? null : DateColumn.getWeekOfYear(value.getTime()));
     }
 
 }
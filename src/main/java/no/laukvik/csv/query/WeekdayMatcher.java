@@ -45,7 +45,7 @@ public final class WeekdayMatcher implements ValueMatcher<Date> {
 
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getDayOfWeek(value));
+        return values.contains(value == null ? null : DateColumn.getDayOfWeek(value.getTime()));
     }
 
     @Override
@@ -49,7 +49,16 @@ public final class YearMatcher implements ValueMatcher<Date> {
 
     @Override
     public boolean matches(final Date value) {
-        return values.contains(DateColumn.getYear(value));
+        if (value == null) {
+            return values.contains(null);
+        }
+        int year = DateColumn.getYear(value.getTime());
+        for (Integer v : values) {
+            if (v != null && v == year) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -2,6 +2,9 @@ package no.laukvik.csv.report;
 
 import no.laukvik.csv.Row;
 import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.DoubleColumn;
+import no.laukvik.csv.columns.FloatColumn;
+import no.laukvik.csv.columns.IntegerColumn;
 
 /**
  * An abstract class that aggregates a column.
@@ -35,6 +38,32 @@ public abstract class Aggregate {
         return c;
     }
 
+    /**
+     * Returns true if the column has int, float or double values.
+     *
+     * @param column the column
+     * @return true when a number column
+     */
+    static boolean isNumber(final Column column) {
+        return column instanceof IntegerColumn || column instanceof FloatColumn || column instanceof DoubleColumn;
+    }
+
+    /**
+     * Returns the value of an int, float or double column in the row as a double, without boxing it.
+     *
+     * @param row    the row
+     * @param column the column
+     * @return the value, or 0 when null
+     */
+    static double getNumber(final Row row, final Column column) {
+        if (column instanceof IntegerColumn) {
+            return row.getInt((IntegerColumn) column);
+        } else if (column instanceof FloatColumn) {
+            return row.getFloat((FloatColumn) column);
+        }
+        return row.getDouble((DoubleColumn) column);
+    }
+
     /**
      * Aggregate the column in the row.
      *
@@ -2,6 +2,7 @@ package no.laukvik.csv.report;
 
 import no.laukvik.csv.Row;
 import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.IntegerColumn;
 
 import java.math.BigDecimal;
 
@@ -20,6 +21,10 @@ public final class Avg extends Aggregate {
      * The amount of values.
      */
     private long count;
+    /**
+     * The sum of the int values, added to the sum when returned.
+     */
+    private long total;
 
     /**
      * The IntegerColumn to aggregate.
@@ -38,7 +43,15 @@ public final class Avg extends Aggregate {
      */
     @Override
     public void aggregate(final Row row) {
-        Object value = row.getObject(getColumn());
+        Column column = getColumn();
+        if (column instanceof IntegerColumn) {
+            if (!row.isNull(column)) {
+                total += row.getInt((IntegerColumn) column);
+            }
+            count++;
+            return;
+        }
+        Object value = row.getObject(column);
         if (value != null) {
             if (value instanceof Integer) {
                 sum = sum.add(new BigDecimal((Integer) value));
@@ -63,7 +76,7 @@ public final class Avg extends Aggregate {
         if (count == 0) {
             return new BigDecimal(0);
         }
-        return sum.divideToIntegralValue(new BigDecimal(count));
+        return sum.add(BigDecimal.valueOf(total)).divideToIntegralValue(new BigDecimal(count));
     }
 
     /**
@@ -14,6 +14,14 @@ public final class Max extends Aggregate {
      * Container for the maximum value.
      */
     private BigDecimal max;
+    /**
+     * The maximum value of an int, float or double column.
+     */
+    private double largest;
+    /**
+     * Whether a value of an int, float or double column is found.
+     */
+    private boolean found;
 
     /**
      * Creates a maximum aggregator for the column.
@@ -31,7 +39,7 @@ public final class Max extends Aggregate {
      */
     @Override
     public BigDecimal getValue() {
-        return max;
+        return found ? new BigDecimal(largest) : max;
     }
 
     /**
@@ -41,7 +49,18 @@ public final class Max extends Aggregate {
      */
     @Override
     public void aggregate(final Row row) {
-        Object value = row.getObject(getColumn());
+        Column column = getColumn();
+        if (isNumber(column)) {
+            if (!row.isNull(column)) {
+                double value = getNumber(row, column);
+                if (!found || largest < value) {
+                    largest = value;
+                    found = true;
+                }
+            }
+            return;
+        }
+        Object value = row.getObject(column);
         if (value != null) {
 
             if (value instanceof Integer) {
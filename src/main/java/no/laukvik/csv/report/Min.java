@@ -14,6 +14,14 @@ public final class Min extends Aggregate {
      * Container for the minimum value.
      */
     private BigDecimal min;
+    /**
+     * The minimum value of an int, float or double column.
+     */
+    private double smallest;
+    /**
+     * Whether a value of an int, float or double column is found.
+     */
+    private boolean found;
 
     /**
      * Creates a new Min with the column.
@@ -32,7 +40,7 @@ public final class Min extends Aggregate {
      */
     @Override
     public BigDecimal getValue() {
-        return min;
+        return found ? new BigDecimal(smallest) : min;
     }
 
     /**
@@ -42,7 +50,18 @@ public final class Min extends Aggregate {
      */
     @Override
     public void aggregate(final Row row) {
-        Object value = row.getObject(getColumn());
+        Column column = getColumn();
+        if (isNumber(column)) {
+            if (!row.isNull(column)) {
+                double value = getNumber(row, column);
+                if (!found || smallest > value) {
+                    smallest = value;
+                    found = true;
+                }
+            }
+            return;
+        }
+        Object value = row.getObject(column);
         if (value != null) {
 
             if (value instanceof Integer) {
@@ -1,10 +1,12 @@
 package no.laukvik.csv.report;
 
+import no.laukvik.csv.StringDictionary;
 import no.laukvik.csv.columns.Column;
 import no.laukvik.csv.columns.IntegerColumn;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -49,6 +51,14 @@ public final class Node {
      * The sum of all values found.
      */
     private BigDecimal sum;
+    /**
+     * The dictionary of the codes of the sub elements, or null.
+     */
+    private StringDictionary codeDictionary;
+    /**
+     * The sub elements by the code of their value.
+     */
+    private Node[] codeNodes;
 
 
     /**
@@ -186,6 +196,35 @@ public final class Node {
         }
     }
 
+    /**
+     * Adds a new node for the value of the code if it doesn't exist. The node is found by the code, without
+     * comparing the value.
+     *
+     * @param dictionary the dictionary of the code
+     * @param code       the code, or -1 when the value is null
+     * @param column     the column
+     * @return the node added
+     */
+    public Node add(final StringDictionary dictionary, final int code, final Column column) {
+        if (code < 0) {
+            return add(null, column);
+        }
+        if (dictionary != codeDictionary) {
+            codeDictionary = dictionary;
+            codeNodes = new Node[dictionary.size()];
+        } else if (code >= codeNodes.length) {
+            codeNodes = Arrays.copyOf(codeNodes, dictionary.size());
+        }
+        Node n = codeNodes[code];
+        if (n == null) {
+            n = add(dictionary.getValue(code), column);
+            codeNodes[code] = n;
+        } else {
+            n.count++;
+        }
+        return n;
+    }
+
     /**
      * Returns the value.
      *
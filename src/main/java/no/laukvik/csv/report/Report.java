@@ -2,6 +2,7 @@ package no.laukvik.csv.report;
 
 import no.laukvik.csv.CSV;
 import no.laukvik.csv.Row;
+import no.laukvik.csv.StringDictionary;
 import no.laukvik.csv.columns.Column;
 import no.laukvik.csv.columns.IntegerColumn;
 import no.laukvik.csv.columns.StringColumn;
@@ -121,8 +122,12 @@ public final class Report {
             if (matchesAll) {
                 for (int x = 0; x < groups.size(); x++) {
                     Column c = groups.get(x);
-                    Object o = r.getObject(c);
-                    extra = extra.add(o, c);
+                    StringDictionary dictionary = c instanceof StringColumn ? r.getDictionary((StringColumn) c) : null;
+                    if (dictionary == null) {
+                        extra = extra.add(r.getObject(c), c);
+                    } else {
+                        extra = extra.add(dictionary, r.getCode((StringColumn) c), c);
+                    }
                 }
                 for (Aggregate a : aggregateList) {
                     Column c = a.getColumn();
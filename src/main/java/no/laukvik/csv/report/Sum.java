@@ -1,6 +1,7 @@
 package no.laukvik.csv.report;
 
 import no.laukvik.csv.Row;
+import no.laukvik.csv.columns.Column;
 import no.laukvik.csv.columns.IntegerColumn;
 
 import java.math.BigDecimal;
@@ -14,6 +15,10 @@ public final class Sum extends Aggregate {
      * Container for the sumValue.
      */
     private BigDecimal sumValue;
+    /**
+     * The sum of the int values, added to the sumValue when returned.
+     */
+    private long total;
 
     /**
      * Creates a new SUM for the column.
@@ -27,7 +32,14 @@ public final class Sum extends Aggregate {
 
     @Override
     public void aggregate(final Row row) {
-        Object value = row.getObject(getColumn());
+        Column column = getColumn();
+        if (column instanceof IntegerColumn) {
+            if (!row.isNull(column)) {
+                total += row.getInt((IntegerColumn) column);
+            }
+            return;
+        }
+        Object value = row.getObject(column);
         if (value instanceof Integer) {
             Integer i = (Integer) value;
 
@@ -74,7 +86,7 @@ public final class Sum extends Aggregate {
      */
     @Override
     public BigDecimal getValue() {
-        return sumValue;
+        return sumValue.add(BigDecimal.valueOf(total));
     }
 
     @Override
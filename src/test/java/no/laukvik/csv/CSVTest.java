@@ -18,6 +18,7 @@ package no.laukvik.csv;
 import no.laukvik.csv.columns.*;
 import no.laukvik.csv.io.CsvReaderException;
 import no.laukvik.csv.io.CsvWriterException;
+import no.laukvik.csv.query.Query;
 import no.laukvik.csv.query.StringInMatcher;
 import no.laukvik.csv.query.ValueMatcher;
 import no.laukvik.csv.statistics.FrequencyDistribution;
@@ -34,6 +35,7 @@ import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -42,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -70,6 +73,76 @@ public class CSVTest {
         assertEquals(88, count);
     }
 
+    @Test
+    public void readFileStream() throws CsvReaderException {
+        CSV csv = new CSV();
+        try (Stream<Row> rows = csv.readFileStream(getResource("presidents.csv"))) {
+            StringColumn party = csv.getStringColumn("Party");
+            long count = rows.filter(r -> r.get(party).startsWith("Democratic")).count();
+            assertEquals(9, csv.getColumnCount());
+            assertEquals(20, count);
+        }
+        assertEquals(0, csv.getRowCount());
+    }
+
+    @Test
+    public void readFileWithProjection() throws CsvReaderException {
+        CSV csv = new CSV();
+        csv.readFile(getResource("presidents.csv"), "President", "party");
+        assertEquals(2, csv.getColumnCount());
+        assertEquals(44, csv.getRowCount());
+        StringColumn president = csv.getStringColumn("President");
+        StringColumn party = csv.getStringColumn("Party");
+        assertEquals("George Washington", csv.getRow(0).get(president));
+        assertEquals("Independent ", csv.getRow(0).get(party));
+        assertNull(csv.getColumn("Presidency"));
+    }
+
+    @Test
+    public void readFileWithQuery() throws CsvReaderException {
+        CSV csv = new CSV();
+        Query query = new Query();
+        query.isGreaterThan(new IntegerColumn("Presidency"), 40);
+        query.descending(new StringColumn("President"));
+        csv.readFile(getResource("presidents.csv"), query);
+        assertEquals(9, csv.getColumnCount());
+        assertEquals(4, csv.getRowCount());
+        StringColumn president = csv.getStringColumn("President");
+        assertEquals("George W. Bush", csv.getRow(0).get(president));
+        assertEquals("Barack Obama", csv.getRow(3).get(president));
+    }
+
+    @Test
+    public void readFileLazy() throws CsvReaderException {
+        CSV eager = new CSV();
+        eager.readFile(getResource("presidents.csv"));
+        CSV lazy = new CSV();
+        lazy.setLazyParsing(true);
+        lazy.readFile(getResource("presidents.csv"));
+        assertEquals(eager.getRowCount(), lazy.getRowCount());
+        for (int y = 0; y < eager.getRowCount(); y++) {
+            for (int x = 0; x < eager.getColumnCount(); x++) {
+                assertEquals(eager.getRow(y).getObject(eager.getColumn(x)),
+                        lazy.getRow(y).getObject(lazy.getColumn(x)));
+            }
+        }
+    }
+
+    @Test
+    public void readStream() throws CsvReaderException, IOException {
+        CSV csv = new CSV();
+        try (FileInputStream in = new FileInputStream(getResource("presidents.csv"))) {
+            csv.readStream(in);
+        }
+        assertEquals(44, csv.getRowCount());
+        assertNull(csv.getFile());
+        csv.readResource("presidents.csv");
+        assertEquals(44, csv.getRowCount());
+        csv.readFile(getResource("presidents.csv").toPath());
+        assertEquals(44, csv.getRowCount());
+        assertNotNull(csv.getFile());
+    }
+
     private static boolean xsd_valid(File file) {
         File schemaFile = new File("src/main/resources/csv.xsd"); // etc.
         Source xmlFile = new StreamSource(file);
@@ -190,6 +263,35 @@ public class CSVTest {
         assertEquals(cols - 2, csv.getColumnCount());
     }
 
+    @Test
+    public void shouldFindColumnsAfterChangingColumns() {
+        CSV csv = new CSV();
+        StringColumn first = csv.addStringColumn("First");
+        StringColumn last = csv.addStringColumn("Last");
+        IntegerColumn age = csv.addIntegerColumn("Age");
+        assertEquals(1, csv.indexOf("LAST"));
+        assertEquals(2, csv.indexOf(age));
+        csv.moveColumn(2, 0);
+        assertEquals(0, csv.indexOf("age"));
+        assertEquals(1, csv.indexOf(first));
+        csv.swapColumn(1, 2);
+        assertEquals(2, csv.indexOf("first"));
+        assertEquals(1, csv.indexOf(last));
+        csv.removeColumn(age);
+        assertEquals(CSV.COLUMN_NOT_FOUND, csv.indexOf(age));
+        assertEquals(CSV.COLUMN_NOT_FOUND, csv.indexOf("Age"));
+        assertEquals(0, csv.indexOf(last));
+        last.setName("Surname");
+        assertEquals(0, csv.indexOf("surname"));
+        assertEquals(CSV.COLUMN_NOT_FOUND, csv.indexOf("Last"));
+        csv.removeColumn(0);
+        assertEquals(0, csv.indexOf("First"));
+        assertEquals(CSV.COLUMN_NOT_FOUND, csv.indexOf(new StringColumn("First")));
+        assertEquals(CSV.COLUMN_NOT_FOUND, csv.indexOf((String) null));
+        csv.clear();
+        assertEquals(CSV.COLUMN_NOT_FOUND, csv.indexOf("First"));
+    }
+
     // ------ Rows ------
 
     @Test
@@ -0,0 +1,312 @@
+package no.laukvik.csv;
+
+import no.laukvik.csv.columns.BooleanColumn;
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.DateColumn;
+import no.laukvik.csv.columns.DoubleColumn;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
+import no.laukvik.csv.columns.StringColumn;
+import no.laukvik.csv.io.CsvReaderException;
+import no.laukvik.csv.query.Query;
+import no.laukvik.csv.query.StringInMatcher;
+import no.laukvik.csv.report.Max;
+import no.laukvik.csv.report.Node;
+import no.laukvik.csv.report.Report;
+import no.laukvik.csv.report.Sum;
+import no.laukvik.csv.statistics.FrequencyDistribution;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static no.laukvik.csv.io.CsvReaderTest.getResource;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnStoreTest {
+
+    @Test
+    public void shouldReadSameValuesAsRows() throws CsvReaderException {
+        CSV rows = new CSV();
+        rows.readFile(getResource("presidents.csv"));
+        CSV columnar = new CSV();
+        columnar.setColumnar(true);
+        columnar.setLazyParsing(true);
+        columnar.readFile(getResource("presidents.csv"));
+        assertTrue(columnar.isColumnar());
+        assertEquals(rows.getRowCount(), columnar.getRowCount());
+        for (int y = 0; y < rows.getRowCount(); y++) {
+            for (Column c : rows.getColumns()) {
+                assertEquals(rows.getRow(y).getObject(c), columnar.getRow(y).getObject(c));
+            }
+        }
+        Query query = new Query();
+        query.is(columnar.getStringColumn("Home State"), "Ohio");
+        assertEquals(rows.findRowsByQuery(query).size(), columnar.findRowsByQuery(query).size());
+        assertEquals(7, columnar.findRowsByQuery(query).size());
+    }
+
+    @Test
+    public void shouldKeepValuesOfRemovedRows() {
+        CSV csv = new CSV();
+        csv.setColumnar(true);
+        StringColumn name = csv.addStringColumn("Name");
+        IntegerColumn age = csv.addIntegerColumn("Age");
+        csv.addRow().set(name, "Bob").set(age, 30);
+        csv.addRow().set(name, "Ann");
+        Row removed = csv.getRow(0);
+        csv.removeRow(0);
+        Row added = csv.addRow().set(name, "Joe").set(age, 40);
+        assertEquals("Bob", removed.get(name));
+        assertEquals((Integer) 30, removed.get(age));
+        assertEquals("Joe", added.get(name));
+        assertNull(csv.getRow(0).get(age));
+        csv.swapRows(0, 1);
+        assertEquals("Joe", csv.getRow(0).get(name));
+        assertEquals("Joe", csv.getRow(0).get(new StringColumn("Name")));
+        csv.getRow(0).setNull(age);
+        assertTrue(csv.getRow(0).isNull(age));
+    }
+
+    @Test
+    public void shouldMoveValuesWhenSwitchingStorage() {
+        CSV csv = new CSV();
+        StringColumn name = csv.addStringColumn("Name");
+        csv.addRow().set(name, "Bob");
+        csv.setColumnar(true);
+        assertEquals("Bob", csv.getRow(0).get(name));
+        CSV other = new CSV();
+        other.setColumnar(true);
+        other.addStringColumn("Name");
+        Row copy = other.addRow(csv.getRow(0));
+        assertNotSame(csv.getRow(0), copy);
+        copy.set(name, "Ann");
+        assertEquals("Bob", csv.getRow(0).get(name));
+        csv.setColumnar(false);
+        assertFalse(csv.isColumnar());
+        assertEquals("Bob", csv.getRow(0).get(name));
+        csv.removeColumn(name);
+        assertNull(csv.getRow(0).get(name));
+    }
+
+    @Test
+    public void shouldRemoveValuesOfColumnByIndex() {
+        CSV csv = new CSV();
+        csv.setColumnar(true);
+        StringColumn name = csv.addStringColumn("Name");
+        csv.addRow().set(name, "Bob");
+        csv.removeColumn(0);
+        assertNull(name.getCSV());
+        StringColumn other = csv.addStringColumn("Name");
+        assertNull(csv.getRow(0).get(other));
+    }
+
+    @Test
+    public void shouldStorePrimitiveValuesWithNulls() {
+        CSV csv = new CSV();
+        csv.setColumnar(true);
+        IntegerColumn number = csv.addIntegerColumn("Number");
+        DoubleColumn half = csv.addDoubleColumn("Half");
+        BooleanColumn even = csv.addBooleanColumn("Even");
+        LocalDateColumn day = csv.addLocalDateColumn("Day");
+        DateColumn time = csv.addDateColumn("Time");
+        for (int x = 0; x < 150; x++) {
+            Row row = csv.addRow();
+            if (x % 3 != 0) {
+                row.setLazy(number, String.valueOf(x)).set(half, x / 2d).set(even, x % 2 == 0);
+                row.setRaw(day, LocalDate.ofEpochDay(x).toString()).set(time, new Date(x * 1000L));
+            }
+        }
+        for (int x = 0; x < 150; x++) {
+            Row row = csv.getRow(x);
+            boolean isNull = x % 3 == 0;
+            assertEquals(isNull, row.isNull(number));
+            assertEquals(isNull, row.isNull(even));
+            assertEquals(isNull ? 0 : x, row.getInt(number));
+            assertEquals(isNull ? 0 : x / 2d, row.getDouble(half), 0);
+            assertEquals(!isNull && x % 2 == 0, row.getBoolean(even));
+            assertEquals(isNull ? 0 : x, row.getEpochDay(day));
+            assertEquals(isNull ? 0 : x * 1000L, row.getTime(time));
+            assertEquals(isNull ? null : (Integer) x, row.get(number));
+            assertEquals(isNull ? null : LocalDate.ofEpochDay(x), row.getObject(day));
+        }
+        csv.getRow(1).setNull(number);
+        assertTrue(csv.getRow(1).isNull(number));
+        assertEquals((Integer) 2, csv.getRow(2).get(number));
+        Query query = new Query();
+        query.isGreaterThan(number, 100);
+        assertEquals(33, csv.findRowsByQuery(query).size());
+        csv.setColumnar(false);
+        assertEquals(33, csv.findRowsByQuery(query).size());
+        assertEquals(0, csv.getRow(0).getInt(number));
+        assertEquals(149, csv.getRow(149).getInt(number));
+    }
+
+    @Test
+    public void shouldAggregatePrimitiveValues() {
+        CSV csv = new CSV();
+        csv.setColumnar(true);
+        IntegerColumn number = csv.addIntegerColumn("Number");
+        csv.addRow().set(number, 5);
+        csv.addRow();
+        csv.addRow().set(number, Integer.MAX_VALUE);
+        Sum sum = new Sum(number);
+        Max max = new Max(number);
+        for (Row row : csv.findRows()) {
+            sum.aggregate(row);
+            max.aggregate(row);
+        }
+        assertEquals(new BigDecimal(Integer.MAX_VALUE + 5L), sum.getValue());
+        assertEquals(new BigDecimal(Integer.MAX_VALUE), max.getValue());
+    }
+
+    @Test
+    public void shouldReadSameValuesOffHeap() throws CsvReaderException {
+        CSV rows = new CSV();
+        rows.readFile(getResource("presidents.csv"));
+        try (CSV offHeap = new CSV()) {
+            offHeap.setOffHeap(true);
+            offHeap.setLazyParsing(true);
+            offHeap.readFile(getResource("presidents.csv"));
+            assertTrue(offHeap.isOffHeap());
+            assertTrue(offHeap.isColumnar());
+            for (int y = 0; y < rows.getRowCount(); y++) {
+                for (Column c : rows.getColumns()) {
+                    assertEquals(rows.getRow(y).getObject(c), offHeap.getRow(y).getObject(c));
+                }
+            }
+            Query query = new Query();
+            query.is(offHeap.getStringColumn("Home State"), "Ohio");
+            assertEquals(7, offHeap.findRowsByQuery(query).size());
+        }
+    }
+
+    @Test
+    public void shouldStoreValuesOffHeapAcrossSegments() throws IOException, ClassNotFoundException {
+        CSV csv = new CSV();
+        csv.setOffHeap(true);
+        IntegerColumn number = csv.addIntegerColumn("Number");
+        StringColumn name = csv.addStringColumn("Name");
+        int count = OffHeapVector.SEGMENT_SLOTS + 10;
+        for (int x = 0; x < count; x++) {
+            Row row = csv.addRow().set(name, "Row " + x);
+            if (x % 2 == 0) {
+                row.set(number, x);
+            }
+        }
+        csv.getRow(1).set(name, "Ærlig");
+        csv.getRow(3).setNull(name);
+        assertEquals("Row " + (count - 1), csv.getRow(count - 1).get(name));
+        assertEquals(count - 2, csv.getRow(count - 2).getInt(number));
+        assertTrue(csv.getRow(count - 1).isNull(number));
+        assertEquals("Ærlig", csv.getRow(1).get(name));
+        assertTrue(csv.getRow(3).isNull(name));
+
+        ColumnStore store = new ColumnStore(true);
+        int slot = store.allocate();
+        store.set(new IntegerColumn("Number"), slot, 5);
+        store.set(new StringColumn("Name"), slot, "Bob");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(store);
+        }
+        ColumnStore copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (ColumnStore) in.readObject();
+        }
+        assertEquals(5, copy.getInt(new IntegerColumn("Number"), slot));
+        assertEquals("Bob", copy.get(new StringColumn("Name"), slot));
+
+        csv.setOffHeap(false);
+        assertTrue(csv.isColumnar());
+        assertFalse(csv.isOffHeap());
+        assertEquals("Ærlig", csv.getRow(1).get(name));
+        assertEquals(count - 2, csv.getRow(count - 2).getInt(number));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReadRowsAfterClose() {
+        CSV csv = new CSV();
+        csv.setOffHeap(true);
+        StringColumn name = csv.addStringColumn("Name");
+        Row row = csv.addRow().set(name, "Bob");
+        csv.close();
+        assertEquals(0, csv.getRowCount());
+        assertTrue(csv.isOffHeap());
+        row.get(name);
+    }
+
+    @Test
+    public void shouldUseCodesOfStringValues() throws CsvReaderException {
+        CSV rows = new CSV();
+        rows.readFile(getResource("presidents.csv"));
+        CSV columnar = new CSV();
+        columnar.setColumnar(true);
+        columnar.readFile(getResource("presidents.csv"));
+        StringColumn state = columnar.getStringColumn("Home State");
+        StringDictionary dictionary = columnar.getRow(0).getDictionary(state);
+        assertNotNull(dictionary);
+        assertTrue(dictionary.size() < columnar.getRowCount());
+        int ohio = dictionary.getCode("Ohio");
+        int count = 0;
+        for (Row row : columnar.findRows()) {
+            assertEquals(row.get(state), dictionary.getValue(row.getCode(state)));
+            if (row.getCode(state) == ohio) {
+                count++;
+            }
+        }
+        assertEquals(7, count);
+        assertNull(rows.getRow(0).getDictionary(rows.getStringColumn("Home State")));
+
+        FrequencyDistribution<String> expected = rows.buildFrequencyDistribution(rows.getStringColumn("Home State"));
+        FrequencyDistribution<String> found = columnar.buildFrequencyDistribution(state);
+        assertEquals(expected.getKeys(), found.getKeys());
+        for (String key : expected.getKeys()) {
+            assertEquals(expected.getCount(key), found.getCount(key));
+        }
+        assertEquals(expected.getNullCount(), found.getNullCount());
+
+        Report report = new Report();
+        report.addGroup(state);
+        Node node = report.buildNode(columnar);
+        assertEquals(expected.getKeys(), node.getMap().keySet());
+        assertEquals(7, node.getMap().get("Ohio").getCount());
+
+        Query query = new Query();
+        query.addMatcher(new StringInMatcher(state, "Ohio", "Virginia"));
+        Query expectedQuery = new Query();
+        expectedQuery.addMatcher(new StringInMatcher(rows.getStringColumn("Home State"), "Ohio", "Virginia"));
+        assertEquals(rows.findRowsByQuery(expectedQuery).size(), columnar.findRowsByQuery(query).size());
+        Query oslo = new Query();
+        oslo.addMatcher(new StringInMatcher(state, "Oslo"));
+        assertEquals(0, columnar.findRowsByQuery(oslo).size());
+        columnar.getRow(0).set(state, "Oslo");
+        assertEquals(1, columnar.findRowsByQuery(oslo).size());
+    }
+
+    @Test
+    public void shouldDecodeStringValuesWhenTooManyDistinct() {
+        CSV csv = new CSV();
+        csv.setColumnar(true);
+        StringColumn name = csv.addStringColumn("Name");
+        int count = ColumnVector.StringVector.MAX_CODES + 1;
+        for (int x = 0; x < count; x++) {
+            csv.addRow().set(name, "Name " + x);
+        }
+        assertNull(csv.getRow(0).getDictionary(name));
+        assertEquals(-1, csv.getRow(0).getCode(name));
+        assertEquals("Name 0", csv.getRow(0).get(name));
+        assertEquals("Name " + (count - 1), csv.getRow(count - 1).get(name));
+    }
+}
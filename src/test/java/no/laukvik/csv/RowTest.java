@@ -36,6 +36,7 @@ import java.util.Date;
 import static junit.framework.TestCase.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 
@@ -90,6 +91,21 @@ public class RowTest {
 
     }
 
+    @Test
+    public void setLazy() {
+        CSV csv = new CSV();
+        BigDecimalColumn bdc = csv.addBigDecimalColumn("bigDecimal");
+        IntegerColumn ic = csv.addIntegerColumn("integer");
+        Row r = csv.addRow();
+        r.setLazy(bdc, "123.45").setLazy(ic, "");
+        BigDecimal value = r.get(bdc);
+        assertEquals(new BigDecimal("123.45"), value);
+        assertSame(value, r.getObject(bdc));
+        assertEquals("123.45", r.getRaw(bdc));
+        assertTrue(r.isNull(ic));
+        assertEquals("", r.getRaw(ic));
+    }
+
     @Test
     public void setBigDecimal() {
         CSV csv = new CSV();
@@ -376,4 +376,52 @@ public class DateColumnTest {
         assertEquals("", dc.formatDate(null));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldExtractFieldsLikeCalendar() {
+        GregorianCalendar cal = new GregorianCalendar();
+        long time = getDate(1999, 11, 20, 0, 0, 0, 0).getTime();
+        for (int x = 0; x < 2000; x++) {
+            time += 7 * 3600000L + 123457L;
+            cal.setTimeInMillis(time);
+            assertEquals(cal.get(Calendar.YEAR), DateColumn.getYear(time));
+            assertEquals(cal.get(Calendar.MONTH), DateColumn.getMonth(time));
+            assertEquals(cal.get(Calendar.DAY_OF_MONTH), DateColumn.getDayOfMonth(time));
+            assertEquals(cal.get(Calendar.WEEK_OF_YEAR), DateColumn.getWeekOfYear(time));
+            assertEquals(cal.get(Calendar.DAY_OF_WEEK), DateColumn.getDayOfWeek(time));
+            assertEquals(cal.get(Calendar.HOUR_OF_DAY), DateColumn.getHour(time));
+            assertEquals(cal.get(Calendar.MINUTE), DateColumn.getMinutes(time));
+            assertEquals(cal.get(Calendar.SECOND), DateColumn.getSeconds(time));
+            assertEquals(cal.get(Calendar.MILLISECOND), DateColumn.getMilliseconds(time));
+        }
+    }
+
+    @Test
+    public void shouldParseCachedValuesAsNewDates() {
+        DateColumn c = new DateColumn("created", "yyyy.MM.dd HH:mm");
+        Date d1 = c.parse("2016.3.5 7:30");
+        Date d2 = c.parse("2016.3.5 7:30");
+        assertEquals(getDate(2016, 2, 5, 7, 30, 0, 0), d1);
+        assertEquals(d1, d2);
+        d1.setTime(0);
+        assertEquals(getDate(2016, 2, 5, 7, 30, 0, 0), c.parse("2016.3.5 7:30"));
+        assertEquals(getDate(1970, 0, 1, 12, 0, 0, 0), new DateColumn("time", "HH:mm").parse("12:00"));
+        assertEquals(getDate(1970, 0, 2, 2, 1, 0, 0), new DateColumn("time", "HH:mm:ss").parse("25:61:00"));
+        c.setFormat("dd.MM.yyyy");
+        assertEquals(getDate(2016, 2, 5, 0, 0, 0, 0), c.parse("05.03.2016"));
+        assertNull(c.parse("05-03-2016"));
+    }
+
+
+    @Test
+    public void shouldUseLettersOfSimpleDateFormat() {
+        DateColumn c = new DateColumn("created", "yyyy-MM-dd'T'HH:mm:ss.S");
+        assertEquals(getDate(2016, 0, 1, 12, 0, 0, 5), c.parse("2016-01-01T12:00:00.5"));
+        assertEquals(getDate(2016, 0, 1, 12, 0, 0, 500), c.parse("2016-01-01T12:00:00.500"));
+        assertEquals("2016-01-01T12:00:00.5", c.asString(getDate(2016, 0, 1, 12, 0, 0, 5)));
+        c.setFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        assertEquals("2016-01-01T12:00:00.005", c.asString(getDate(2016, 0, 1, 12, 0, 0, 5)));
+        c.setFormat("yyyy-MM-dd u 'u'");
+        assertEquals("2016-02-01 1 u", c.asString(getDate(2016, 1, 1, 0, 0, 0, 0)));
+        assertEquals(getDate(2016, 1, 1, 0, 0, 0, 0), c.parse("2016-02-01 1 u"));
+    }
+}
@@ -3,10 +3,12 @@ package no.laukvik.csv.io;
 import org.junit.Test;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.PushbackInputStream;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
@@ -115,6 +117,27 @@ public class BOMTest {
         assertNull(BOM.findBom(new File("doesnt_exist")));
     }
 
+    @Test
+    public void readBom() throws IOException {
+        PushbackInputStream in = new PushbackInputStream(new ByteArrayInputStream(
+                new byte[]{(byte) 0xFE, (byte) 0xFF, 0, 'A'}), 4);
+        assertEquals(BOM.UTF16BE, BOM.readBom(in, null));
+        assertEquals(0, in.read());
+        assertEquals('A', in.read());
+
+        in = new PushbackInputStream(new ByteArrayInputStream(new byte[]{(byte) 0xFF, (byte) 0xFE}), 4);
+        assertEquals(BOM.UTF16LE, BOM.readBom(in, null));
+        assertEquals(-1, in.read());
+
+        in = new PushbackInputStream(new ByteArrayInputStream(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}), 4);
+        assertNull(BOM.readBom(in, BOM.UTF16BE.getCharset()));
+        assertEquals(0xEF, in.read());
+
+        in = new PushbackInputStream(new ByteArrayInputStream(new byte[]{'a', 'b'}), 4);
+        assertNull(BOM.readBom(in, null));
+        assertEquals('a', in.read());
+    }
+
     @Test
     public void findBomByCharset() throws IOException {
         Charset utf = Charset.forName("utf-8");
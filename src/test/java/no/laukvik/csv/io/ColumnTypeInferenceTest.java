@@ -0,0 +1,71 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.columns.BigDecimalColumn;
+import no.laukvik.csv.columns.BooleanColumn;
+import no.laukvik.csv.columns.Column;
+import no.laukvik.csv.columns.DoubleColumn;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
+import no.laukvik.csv.columns.LocalDateTimeColumn;
+import no.laukvik.csv.columns.StringColumn;
+import no.laukvik.csv.columns.UrlColumn;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnTypeInferenceTest {
+
+    private static Column infer(String... values) {
+        String[][] rows = new String[values.length][];
+        for (int x = 0; x < values.length; x++) {
+            rows[x] = new String[]{values[x]};
+        }
+        return new ColumnTypeInference().infer(new String[]{"Value"}, Arrays.asList(rows))[0];
+    }
+
+    @Test
+    public void shouldInferTypes() {
+        assertEquals(IntegerColumn.class, infer("1", "-20", "+3").getClass());
+        assertEquals(DoubleColumn.class, infer("1", "2.5", "-1e3", ".5").getClass());
+        assertEquals(DoubleColumn.class, infer("1", "3000000000").getClass());
+        assertEquals(BigDecimalColumn.class, infer("1.5", "0.1234567890123456789").getClass());
+        assertEquals(BooleanColumn.class, infer("true", "FALSE").getClass());
+        assertEquals(LocalDateColumn.class, infer("2016-01-31", "1789-04-30").getClass());
+        assertEquals(LocalDateTimeColumn.class, infer("2016-01-31T12:00", "2016-01-31T12:00:30").getClass());
+        assertEquals(UrlColumn.class, infer("http://laukvik.no", "https://example.com/a?b=c").getClass());
+        assertEquals(StringColumn.class, infer("1", "2", "x").getClass());
+        assertEquals(StringColumn.class, infer("2016-01-31", "true").getClass());
+        assertEquals(StringColumn.class, infer("NaN", "1.0d").getClass());
+        assertEquals("Value", infer("1").getName());
+    }
+
+    @Test
+    public void shouldIgnoreEmptyValues() {
+        Column column = infer("1", "", null, "2");
+        assertEquals(IntegerColumn.class, column.getClass());
+        assertTrue(column.isAllowNulls());
+        assertFalse(infer("1", "2").isAllowNulls());
+        assertEquals(StringColumn.class, infer("", "").getClass());
+    }
+
+    @Test
+    public void shouldInferShortRows() {
+        List<String[]> rows = Arrays.asList(new String[]{"1", "a"}, new String[]{"2"});
+        Column[] columns = new ColumnTypeInference(10).infer(new String[]{"Id", "Name"}, rows);
+        assertEquals(IntegerColumn.class, columns[0].getClass());
+        assertEquals(StringColumn.class, columns[1].getClass());
+    }
+
+    @Test
+    public void shouldNotInferNumbersWithLeadingZeros() {
+        assertEquals(StringColumn.class, infer("0042", "0100").getClass());
+        assertEquals(StringColumn.class, infer("1", "-007.5").getClass());
+        assertEquals(IntegerColumn.class, infer("0", "-0", "10").getClass());
+        assertEquals(DoubleColumn.class, infer("0.5", "1").getClass());
+    }
+}
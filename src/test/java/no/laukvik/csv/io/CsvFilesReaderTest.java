@@ -0,0 +1,97 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.StringColumn;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class CsvFilesReaderTest {
+
+    private static File write(Path folder, String name, String data) throws IOException {
+        return Files.write(folder.resolve(name), data.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    @Test
+    public void shouldAppendFilesInOrder() throws IOException, CsvReaderException {
+        Path folder = Files.createTempDirectory("partitions");
+        StringBuilder big = new StringBuilder("Id(type=int),Name\n");
+        for (int x = 0; x < 10000; x++) {
+            big.append(x).append(",a\n");
+        }
+        write(folder, "2016-01-01.csv", big.toString());
+        write(folder, "2016-01-02.csv", "Id(type=int),Name\n10000,b\n10001,c\n");
+        write(folder, "2016-01-03.csv", "Id(type=int),Name\n10002,d\n");
+        write(folder, "readme.txt", "Not,CSV\n");
+        CSV csv = new CSV();
+        csv.appendFiles(folder, "*.csv", 3);
+        assertEquals(2, csv.getColumnCount());
+        assertEquals(10003, csv.getRowCount());
+        IntegerColumn id = (IntegerColumn) csv.getColumn("Id");
+        for (int x = 0; x < csv.getRowCount(); x++) {
+            assertEquals((Integer) x, csv.getRow(x).get(id));
+        }
+        assertEquals("d", csv.getRow(10002).get((StringColumn) csv.getColumn("Name")));
+    }
+
+    @Test
+    public void shouldAppendToExistingColumns() throws IOException, CsvReaderException {
+        Path folder = Files.createTempDirectory("partitions");
+        File file = write(folder, "a.csv", "Id(type=int),Name\n1,a\n");
+        CSV csv = new CSV();
+        csv.readFile(file);
+        csv.appendFiles(Arrays.asList(write(folder, "b.csv", "Id(type=int),Name\n2,b\n"), file), 2);
+        assertEquals(3, csv.getRowCount());
+        assertEquals((Integer) 2, csv.getRow(1).get(csv.getIntegerColumn("Id")));
+        csv.appendFiles(Collections.emptyList(), 2);
+        assertEquals(3, csv.getRowCount());
+    }
+
+    @Test
+    public void shouldRejectIncompatibleColumns() throws IOException {
+        Path folder = Files.createTempDirectory("partitions");
+        CSV csv = new CSV();
+        try {
+            csv.appendFiles(Arrays.asList(write(folder, "a.csv", "Id(type=int),Name\n1,a\n"),
+                    write(folder, "b.csv", "Key,Name\n2,b\n")), 2);
+            fail("The columns should not match");
+        } catch (CsvReaderException e) {
+            assertEquals(0, csv.getRowCount());
+            assertEquals(0, csv.getColumnCount());
+        }
+    }
+
+    @Test
+    public void shouldParseFilesWithColumnsOfCsv() throws IOException, CsvReaderException {
+        Path folder = Files.createTempDirectory("partitions");
+        CSV csv = new CSV();
+        IntegerColumn id = csv.addIntegerColumn("Id");
+        csv.addStringColumn("Name");
+        csv.appendFiles(Arrays.asList(write(folder, "a.csv", "Id,Name\n1,a\n"),
+                write(folder, "b.csv", "id,name\n2,b\n")), 2);
+        assertEquals(2, csv.getRowCount());
+        assertEquals((Integer) 2, csv.getRow(1).get(id));
+    }
+
+    @Test
+    public void shouldFindAppendedValuesAfterRenamingColumn() throws IOException, CsvReaderException {
+        Path folder = Files.createTempDirectory("partitions");
+        CSV csv = new CSV();
+        csv.readFile(write(folder, "a.csv", "Id(type=int),Name\n1,a\n"));
+        csv.appendFiles(Collections.singletonList(write(folder, "b.csv", "Id(type=int),Name\n2,b\n")), 2);
+        IntegerColumn id = csv.getIntegerColumn("Id");
+        id.setName("Key");
+        assertEquals((Integer) 1, csv.getRow(0).get(id));
+        assertEquals((Integer) 2, csv.getRow(1).get(id));
+    }
+}
@@ -0,0 +1,139 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.Row;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CsvFollowerTest {
+
+    private static File createFile(byte[] bytes) throws IOException {
+        File file = File.createTempFile("follow", ".csv");
+        file.deleteOnExit();
+        append(file, bytes);
+        return file;
+    }
+
+    private static void append(File file, byte[] bytes) throws IOException {
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void shouldReadAppendedRows() throws IOException, CsvReaderException {
+        File file = createFile(utf8("\uFEFFName;Town\nBjørn;Oslo\n"));
+        CSV csv = new CSV();
+        try (CsvFollower follower = csv.followFile(file)) {
+            assertEquals(2, csv.getColumnCount());
+            assertEquals(1, csv.getRowCount());
+            assertEquals((Character) CSV.SEMICOLON, csv.getSeparatorChar());
+            assertEquals(0, follower.poll());
+
+            append(file, utf8("Steve;\"Cuper"));
+            assertEquals(0, follower.poll());
+            append(file, utf8("\ntino\"\nLinus;Hel"));
+            assertEquals(1, follower.poll());
+            assertEquals("Cuper\ntino", csv.getRow(1).getRaw(csv.getColumn("Town")));
+            assertEquals(file.length(), follower.getPosition());
+
+            append(file, utf8("sinki\n"));
+            assertEquals(1, follower.poll());
+            assertEquals("Helsinki", csv.getRow(2).getRaw(csv.getColumn("Town")));
+        }
+    }
+
+    @Test
+    public void shouldKeepPartialCharacters() throws IOException, CsvReaderException {
+        byte[] bytes = utf8("Name\nÅse\n");
+        File file = createFile(new byte[0]);
+        CSV csv = new CSV();
+        CsvFollower follower = new CsvFollower(file, csv, StandardCharsets.UTF_8, null, null);
+        assertEquals(0, follower.poll());
+        append(file, Arrays.copyOfRange(bytes, 0, 6));
+        assertEquals(0, follower.poll());
+        append(file, Arrays.copyOfRange(bytes, 6, bytes.length));
+        assertEquals(1, follower.poll());
+        assertEquals("Åse", csv.getRow(0).getRaw(csv.getColumn("Name")));
+    }
+
+    @Test
+    public void shouldRestartWhenTruncated() throws IOException, CsvReaderException {
+        File file = createFile(utf8("Name\nA\nB\n"));
+        CSV csv = new CSV();
+        CsvFollower follower = csv.followFile(file);
+        assertEquals(2, csv.getRowCount());
+        new FileOutputStream(file).close();
+        append(file, utf8("Name\nC\n"));
+        assertEquals(1, follower.poll());
+        assertEquals(1, csv.getColumnCount());
+        assertEquals("C", csv.getRow(2).getRaw(csv.getColumn("Name")));
+    }
+
+    @Test
+    public void shouldNotifyListenerFromBackgroundThread() throws IOException, InterruptedException {
+        File file = createFile(utf8("Name\nA\n"));
+        List<Row> rows = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        AtomicReference<CsvReaderException> failure = new AtomicReference<>();
+        CSV csv = new CSV();
+        try (CsvFollower follower = new CsvFollower(file, csv, null, null, null)) {
+            follower.setListener(new CsvFollower.Listener() {
+                @Override
+                public void rowRead(Row row) {
+                    rows.add(row);
+                    latch.countDown();
+                }
+
+                @Override
+                public void failed(CsvReaderException e) {
+                    failure.set(e);
+                }
+            });
+            follower.start(50);
+            append(file, utf8("B\n"));
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(2, rows.size());
+        assertEquals(0, csv.getRowCount());
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void shouldKeepRowsUntilParsed() throws IOException, CsvReaderException {
+        File file = createFile(utf8("Id(type=int)\n1\nx\n3\n"));
+        CSV csv = new CSV();
+        CsvFollower follower = new CsvFollower(file, csv, null, null, null);
+        try {
+            follower.poll();
+            fail("Expected x to fail");
+        } catch (CsvReaderException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+        assertEquals(0, csv.getRowCount());
+        csv.setParseErrors(new ParseErrors(10));
+        assertEquals(3, follower.poll());
+        assertEquals(1, csv.getParseErrors().getErrorCount());
+        assertEquals((Integer) 3, csv.getRow(2).get(csv.getIntegerColumn("Id")));
+    }
+}
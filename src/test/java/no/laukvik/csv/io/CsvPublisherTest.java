@@ -0,0 +1,106 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.Row;
+import no.laukvik.csv.columns.StringColumn;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static no.laukvik.csv.io.CsvReaderTest.getResource;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CsvPublisherTest {
+
+    private static class TestSubscriber implements Flow.Subscriber<Row> {
+        final List<Row> rows = new CopyOnWriteArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        volatile Flow.Subscription subscription;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+        }
+
+        @Override
+        public void onNext(Row row) {
+            rows.add(row);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error.set(t);
+            finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            finished.countDown();
+        }
+    }
+
+    @Test
+    public void shouldDeliverRequestedRows() throws InterruptedException {
+        CSV csv = new CSV();
+        CsvPublisher publisher = new CsvPublisher(getResource("presidents.csv"), new CsvReader(null, null, null),
+                csv, 4, task -> new Thread(task).start());
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(3);
+        Thread.sleep(200);
+        assertEquals(3, subscriber.rows.size());
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.finished.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.completed);
+        assertEquals(44, subscriber.rows.size());
+        StringColumn president = csv.getStringColumn("President");
+        assertEquals("George Washington", subscriber.rows.get(0).get(president));
+        assertEquals(0, csv.getRowCount());
+    }
+
+    @Test
+    public void shouldStopWhenCancelled() throws InterruptedException {
+        TestSubscriber subscriber = new TestSubscriber();
+        new CSV().readFilePublisher(getResource("presidents.csv")).subscribe(subscriber);
+        subscriber.subscription.request(2);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        Thread.sleep(200);
+        assertTrue(subscriber.rows.size() <= 2);
+        assertEquals(1, subscriber.finished.getCount());
+    }
+
+    @Test
+    public void shouldFailInvalidRequestsAndSubscribers() throws InterruptedException {
+        CsvPublisher publisher = new CsvPublisher(getResource("presidents.csv"), new CsvReader(null, null, null),
+                new CSV());
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.finished.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.error.get() instanceof IllegalArgumentException);
+
+        TestSubscriber second = new TestSubscriber();
+        publisher.subscribe(second);
+        assertTrue(second.error.get() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void shouldFailWhenFileIsMissing() throws InterruptedException {
+        TestSubscriber subscriber = new TestSubscriber();
+        new CsvPublisher(new File("missing.csv"), new CsvReader(null, null, null), new CSV()).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.finished.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.error.get() instanceof CsvReaderException);
+    }
+}
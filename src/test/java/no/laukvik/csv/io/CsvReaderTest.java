@@ -16,17 +16,41 @@
 package no.laukvik.csv.io;
 
 import no.laukvik.csv.CSV;
+import no.laukvik.csv.Row;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
 import no.laukvik.csv.columns.StringColumn;
+import no.laukvik.csv.columns.UrlColumn;
+import no.laukvik.csv.query.Query;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.SortedMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class CsvReaderTest {
 
@@ -166,6 +190,205 @@ public class CsvReaderTest {
         assertEquals(BOM.UTF32LE.getCharset(), findCharset("charset_utf_32_le.csv"));
     }
 
+    @Test
+    public void shouldSkipBom() throws CsvReaderException, IOException {
+        for (String filename : new String[]{"charset_utf_16_be.csv", "charset_utf_16_le.csv",
+                "charset_utf_32_be.csv", "charset_utf_32_le.csv"}) {
+            CSV csv = new CSV();
+            new CsvReader(null, null, null).readFile(getResource(filename), csv);
+            assertEquals(filename, "Heading1", csv.getColumn(0).getName());
+        }
+        File file = File.createTempFile("shouldSkipBom", ".csv");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(BOM.UTF8.getBytes());
+            out.write("Heading1,Heading2\næ,ø\n".getBytes(StandardCharsets.UTF_8));
+        }
+        CSV csv = new CSV();
+        new CsvReader(StandardCharsets.UTF_8, null, null).readFile(file, csv);
+        assertEquals("Heading1", csv.getColumn(0).getName());
+        assertEquals("æ", csv.getRow(0).getRaw(csv.getColumn(0)));
+    }
+
+    @Test
+    public void readStream() throws CsvReaderException, IOException {
+        byte[] bytes = ("\uFEFFName;Town\nBjørn;Ås\n").getBytes(StandardCharsets.UTF_16LE);
+        CSV csv = new CSV();
+        new CsvReader(null, null, null).readStream(new ByteArrayInputStream(bytes), csv);
+        assertEquals(BOM.UTF16LE.getCharset(), csv.getCharset());
+        assertEquals((Character) CSV.SEMICOLON, csv.getSeparatorChar());
+        assertEquals("Name", csv.getColumn(0).getName());
+        assertEquals("Ås", csv.getRow(0).getRaw(csv.getColumn(1)));
+
+        csv = new CSV();
+        new CsvReader(null, null, null).readChannel(Channels.newChannel(new ByteArrayInputStream(bytes)), csv);
+        assertEquals(1, csv.getRowCount());
+    }
+
+    @Test
+    public void readWithTypeInference() throws CsvReaderException {
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setTypeInference(new ColumnTypeInference(10));
+        reader.readFile(getResource("presidents.csv"), csv);
+        assertEquals(44, csv.getRowCount());
+        IntegerColumn presidency = (IntegerColumn) csv.getColumn("Presidency");
+        assertEquals(UrlColumn.class, csv.getColumn("Wikipedia Entry").getClass());
+        assertEquals(StringColumn.class, csv.getColumn("President").getClass());
+        assertEquals((Integer) 1, csv.getRow(0).get(presidency));
+        assertEquals((Integer) 44, csv.getRow(43).get(presidency));
+
+        csv = new CSV();
+        reader = new CsvReader(null, null, null);
+        reader.setDialect(new Dialect(CSV.SEMICOLON, CSV.QUOTE_DOUBLE, Dialect.LF, false));
+        reader.setTypeInference(new ColumnTypeInference(2));
+        byte[] bytes = "1;2016-01-31\n2;2016-02-01\n3;2016-02-02\n".getBytes(StandardCharsets.UTF_8);
+        reader.readStream(new ByteArrayInputStream(bytes), csv);
+        assertEquals(3, csv.getRowCount());
+        assertEquals(LocalDateColumn.class, csv.getColumn(1).getClass());
+        assertEquals((Integer) 3, csv.getRow(2).get((IntegerColumn) csv.getColumn(0)));
+
+        csv = new CSV();
+        reader = new CsvReader(null, null, null);
+        reader.setTypeInference(new ColumnTypeInference());
+        bytes = "Id(type=varchar),Count\n1,2\n".getBytes(StandardCharsets.UTF_8);
+        reader.readStream(new ByteArrayInputStream(bytes), csv);
+        assertEquals(StringColumn.class, csv.getColumn("Id").getClass());
+        assertEquals(IntegerColumn.class, csv.getColumn("Count").getClass());
+    }
+
+    @Test
+    public void readWithTypeInferenceWideningColumns() throws CsvReaderException, IOException {
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setTypeInference(new ColumnTypeInference(2));
+        byte[] bytes = "Code,Id\n42,1\n100,2\nx,3\n".getBytes(StandardCharsets.UTF_8);
+        reader.readStream(new ByteArrayInputStream(bytes), csv);
+        assertEquals(3, csv.getRowCount());
+        StringColumn code = (StringColumn) csv.getColumn(0);
+        assertEquals("Code", code.getName());
+        assertEquals("42", csv.getRow(0).get(code));
+        assertEquals("x", csv.getRow(2).get(code));
+        assertEquals((Integer) 3, csv.getRow(2).get((IntegerColumn) csv.getColumn(1)));
+
+        File file = File.createTempFile("inference", ".csv");
+        file.deleteOnExit();
+        StringBuilder data = new StringBuilder("Id,Amount\n");
+        for (int x = 0; x < 200000; x++) {
+            data.append(x).append(',').append(x % 7).append('\n');
+        }
+        data.append("200000,many\n");
+        Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.UTF_8));
+        csv = new CSV();
+        reader = new CsvReader(StandardCharsets.UTF_8, CSV.COMMA, null);
+        reader.setTypeInference(new ColumnTypeInference(10));
+        reader.setParallelism(4);
+        reader.readFile(file, csv);
+        assertEquals(200001, csv.getRowCount());
+        assertEquals(IntegerColumn.class, csv.getColumn("Id").getClass());
+        assertEquals("many", csv.getRow(200000).get(csv.getStringColumn("Amount")));
+        assertEquals("6", csv.getRow(6).get(csv.getStringColumn("Amount")));
+    }
+
+    @Test
+    public void readResourceAndPath() throws CsvReaderException, IOException {
+        CSV csv = new CSV();
+        new CsvReader(null, null, null).readResource("presidents.csv", csv);
+        assertEquals(44, csv.getRowCount());
+
+        File zip = File.createTempFile("readPath", ".zip");
+        zip.deleteOnExit();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("presidents.csv"));
+            Files.copy(getResource("presidents.csv").toPath(), out);
+        }
+        try (FileSystem fs = FileSystems.newFileSystem(zip.toPath(), (ClassLoader) null)) {
+            csv = new CSV();
+            new CsvReader(null, null, null).readPath(fs.getPath("presidents.csv"), csv);
+            assertEquals(44, csv.getRowCount());
+        }
+    }
+
+    @Test(expected = CsvReaderException.class)
+    public void readMissingResource() throws CsvReaderException {
+        new CsvReader(null, null, null).readResource("doesnt_exist.csv", new CSV());
+    }
+
+    @Test
+    public void readCompressed() throws CsvReaderException, IOException {
+        byte[] content = Files.readAllBytes(getResource("presidents.csv").toPath());
+        File gzip = File.createTempFile("readCompressed", ".csv.gz");
+        gzip.deleteOnExit();
+        try (GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(gzip))) {
+            out.write(content);
+        }
+        CSV csv = new CSV();
+        new CsvReader(null, null, null).readFile(gzip, csv);
+        assertEquals(44, csv.getRowCount());
+        assertEquals("Presidency", csv.getColumn(0).getName());
+
+        csv = new CSV();
+        new MappedCsvReader(null, null, null).readFile(gzip, csv);
+        assertEquals(44, csv.getRowCount());
+
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(deflated)) {
+            out.write(content);
+        }
+        csv = new CSV();
+        new CsvReader(null, null, null).readStream(new ByteArrayInputStream(deflated.toByteArray()), csv);
+        assertEquals(44, csv.getRowCount());
+    }
+
+    @Test
+    public void readZipFile() throws CsvReaderException, IOException {
+        File zip = File.createTempFile("readZipFile", ".zip");
+        zip.deleteOnExit();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("folder/"));
+            out.putNextEntry(new ZipEntry("folder/presidents.csv"));
+            Files.copy(getResource("presidents.csv").toPath(), out);
+            out.putNextEntry(new ZipEntry("quote_double.csv"));
+            Files.copy(getResource("quote_double.csv").toPath(), out);
+        }
+        CSV csv = new CSV();
+        new CsvReader(null, null, null).readFile(zip, csv);
+        assertEquals(44, csv.getRowCount());
+
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setParallelism(2);
+        Map<String, CSV> entries = reader.readZipFile(zip);
+        assertEquals(Arrays.asList("folder/presidents.csv", "quote_double.csv"), new ArrayList<>(entries.keySet()));
+        assertEquals(44, entries.get("folder/presidents.csv").getRowCount());
+        assertEquals(2, entries.get("quote_double.csv").getRowCount());
+    }
+
+    @Test
+    public void readZipFileWithParseErrors() throws CsvReaderException, IOException {
+        File zip = File.createTempFile("readZipFile", ".zip");
+        zip.deleteOnExit();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("a.csv"));
+            out.write("Id(type=int)\n1\nx\n".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("b.csv"));
+            out.write("Id(type=int)\nx\n2\ny\n".getBytes(StandardCharsets.UTF_8));
+        }
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setParallelism(2);
+        reader.setParseErrors(new ParseErrors(10));
+        Map<String, CSV> entries = reader.readZipFile(zip);
+        assertEquals(1, entries.get("a.csv").getParseErrors().getErrorCount());
+        assertEquals(2, entries.get("b.csv").getParseErrors().getErrorCount());
+        assertEquals(3, entries.get("b.csv").getParseErrors().getErrors().get(1).getRowIndex());
+
+        try {
+            new CsvReader(null, null, null).readZipFile(zip);
+            fail("Expected x to fail");
+        } catch (CsvReaderException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+    }
+
     public Character findSeparator(String filename) throws CsvReaderException {
         CSV csv = new CSV();
         CsvReader r = new CsvReader(null, null, null);
@@ -193,4 +416,105 @@ public class CsvReaderTest {
         assertEquals((Character) CSV.COMMA, findSeparator("separator_comma.csv"));
     }
 
+    @Test
+    public void iterateRows() throws CsvReaderException, IOException {
+        CSV csv = new CSV();
+        int count = 0;
+        try (CsvReader reader = new CsvReader(null, null, null)) {
+            reader.openFile(getResource("presidents.csv"), csv);
+            while (reader.hasNext()) {
+                Row row = reader.next();
+                assertEquals(Integer.toString(count + 1), row.getRaw(csv.getColumn(0)));
+                count++;
+            }
+        }
+        assertEquals(44, count);
+        assertEquals(0, csv.getRowCount());
+    }
+
+    @Test
+    public void readParallel() throws CsvReaderException, IOException {
+        File file = File.createTempFile("readParallel", ".csv");
+        file.deleteOnExit();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write("Id,Text,Amount(type=int)\n");
+            for (int x = 0; x < 100000; x++) {
+                writer.write(x + ",\"line " + x + "\nwith \"\"quotes\"\", æøå\"," + (x % 100) + "\r\n");
+            }
+        }
+        CSV sequential = new CSV();
+        new CsvReader(StandardCharsets.UTF_8, null, null).readFile(file, sequential);
+
+        CSV parallel = new CSV();
+        CsvReader reader = new CsvReader(StandardCharsets.UTF_8, null, null);
+        reader.setParallelism(4);
+        reader.readFile(file, parallel);
+
+        assertEquals(100000, parallel.getRowCount());
+        assertEquals(sequential.getRowCount(), parallel.getRowCount());
+        for (int y = 0; y < sequential.getRowCount(); y++) {
+            for (int x = 0; x < sequential.getColumnCount(); x++) {
+                assertEquals(sequential.getRow(y).getRaw(sequential.getColumn(x)),
+                        parallel.getRow(y).getRaw(parallel.getColumn(x)));
+            }
+        }
+        assertEquals("line 99999\nwith \"quotes\", æøå", parallel.getRow(99999).getRaw(parallel.getColumn(1)));
+    }
+
+    @Test
+    public void readWithQuery() throws CsvReaderException, IOException {
+        File file = File.createTempFile("readWithQuery", ".csv");
+        file.deleteOnExit();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write("Id,Text,Amount(type=int)\n");
+            for (int x = 0; x < 100000; x++) {
+                writer.write(x + ",\"line " + x + "\nwith \"\"quotes\"\"\"," + (x % 100) + "\n");
+            }
+        }
+        Query query = new Query();
+        query.is(new IntegerColumn("Amount"), 7);
+
+        CSV sequential = new CSV();
+        CsvReader reader = new CsvReader(StandardCharsets.UTF_8, null, null);
+        reader.setQuery(query);
+        reader.readFile(file, sequential);
+        assertEquals(1000, sequential.getRowCount());
+        assertEquals("7", sequential.getRow(0).getRaw(sequential.getColumn(0)));
+        assertEquals("line 99907\nwith \"quotes\"", sequential.getRow(999).getRaw(sequential.getColumn(1)));
+
+        CSV parallel = new CSV();
+        reader = new CsvReader(StandardCharsets.UTF_8, null, null);
+        reader.setQuery(query);
+        reader.setParallelism(4);
+        reader.readFile(file, parallel);
+        assertEquals(1000, parallel.getRowCount());
+        assertEquals("99907", parallel.getRow(999).getRaw(parallel.getColumn(0)));
+
+        CSV projected = new CSV();
+        try (CsvReader iterator = new CsvReader(StandardCharsets.UTF_8, null, null)) {
+            iterator.setQuery(query);
+            iterator.setProjection("Id");
+            iterator.openFile(file, projected);
+            int count = 0;
+            while (iterator.hasNext()) {
+                Row row = iterator.next();
+                assertEquals(String.valueOf(count * 100 + 7), row.getRaw(projected.getColumn(0)));
+                count++;
+            }
+            assertEquals(1000, count);
+            assertEquals(1, projected.getColumnCount());
+        }
+    }
+
+    @Test
+    public void readWithQueryIgnoringCase() throws CsvReaderException {
+        Query query = new Query();
+        query.isGreaterThan(new IntegerColumn("id"), 1);
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setQuery(query);
+        reader.readStream(new ByteArrayInputStream("Id(type=int)\n1\n2\n3\n".getBytes(StandardCharsets.UTF_8)), csv);
+        assertEquals(2, csv.getRowCount());
+    }
+
 }
@@ -0,0 +1,85 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CsvTokenizerTest {
+
+    private List<List<String>> tokenize(String text, Character separator, int bufferSize) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(text), separator, CSV.QUOTE_DOUBLE, bufferSize);
+        List<List<String>> rows = new ArrayList<>();
+        while (tokenizer.nextRow()) {
+            List<String> fields = new ArrayList<>();
+            for (int x = 0; x < tokenizer.getFieldCount(); x++) {
+                fields.add(tokenizer.getField(x));
+            }
+            rows.add(fields);
+        }
+        return rows;
+    }
+
+    @Test
+    public void shouldSplitFields() throws IOException {
+        List<List<String>> rows = tokenize("First,Last\r\nBill,Gates\n", null, 3);
+        assertEquals(2, rows.size());
+        assertEquals(List.of("First", "Last"), rows.get(0));
+        assertEquals(List.of("Bill", "Gates"), rows.get(1));
+    }
+
+    @Test
+    public void shouldDetectSeparator() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a|b\nc|d"), null, CSV.QUOTE_DOUBLE);
+        assertTrue(tokenizer.nextRow());
+        assertEquals((Character) CSV.PIPE, tokenizer.getSeparatorChar());
+        assertEquals(2, tokenizer.getFieldCount());
+    }
+
+    @Test
+    public void shouldUnquote() throws IOException {
+        List<List<String>> rows = tokenize("\"a,b\",\"say \"\"hi\"\"\"\n\"multi\nline\",x", ',', 2);
+        assertEquals(List.of("a,b", "say \"hi\""), rows.get(0));
+        assertEquals(List.of("multi\nline", "x"), rows.get(1));
+    }
+
+    @Test
+    public void shouldReuseBuffersAcrossBlocks() throws IOException {
+        StringBuilder b = new StringBuilder();
+        for (int x = 0; x < 1000; x++) {
+            b.append(x).append(',').append("value").append(x).append('\n');
+        }
+        List<List<String>> rows = tokenize(b.toString(), ',', 7);
+        assertEquals(1000, rows.size());
+        assertEquals(List.of("999", "value999"), rows.get(999));
+    }
+
+    @Test
+    public void shouldReturnFalseWhenEmpty() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(""), ',', CSV.QUOTE_DOUBLE);
+        assertFalse(tokenizer.hasNextRow());
+        assertFalse(tokenizer.nextRow());
+    }
+
+    @Test
+    public void shouldSkipFields() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a,\"b,c\",d\n1,\"2\n3\",4"), ',',
+                CSV.QUOTE_DOUBLE, 2);
+        tokenizer.setKeepFields(new boolean[]{false, true});
+        assertTrue(tokenizer.nextRow());
+        assertEquals(3, tokenizer.getFieldCount());
+        assertEquals("", tokenizer.getField(0));
+        assertEquals("b,c", tokenizer.getField(1));
+        assertEquals("", tokenizer.getField(2));
+        assertTrue(tokenizer.nextRow());
+        assertEquals("2\n3", tokenizer.getField(1));
+        assertFalse(tokenizer.nextRow());
+    }
+}
@@ -0,0 +1,88 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static no.laukvik.csv.io.CsvReaderTest.getResource;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DialectSnifferTest {
+
+    private final DialectSniffer sniffer = new DialectSniffer();
+
+    @Test
+    public void shouldPickMostConsistentSeparator() {
+        Dialect dialect = sniffer.sniff("Name,Age;x\nBill;42;a,b\nSteve;56;c\nLinus;46;d\n");
+        assertEquals(CSV.SEMICOLON, dialect.getSeparatorChar());
+        assertEquals(CSV.TAB, sniffer.sniff("a\tb,c\n1\t2\n3\t4\n").getSeparatorChar());
+        assertEquals(CSV.PIPE, sniffer.sniff("a|b\n1|2\n").getSeparatorChar());
+        assertEquals(CSV.COMMA, sniffer.sniff("single\nvalue\n").getSeparatorChar());
+    }
+
+    @Test
+    public void shouldDetectQuoteAndLineEnding() {
+        Dialect dialect = sniffer.sniff("'First';'Last'\r\n'Bill';'Gates, Jr.'\r\n'Steve';'Jobs'\r\n");
+        assertEquals(CSV.QUOTE_SINGLE, dialect.getQuoteChar());
+        assertEquals(CSV.SEMICOLON, dialect.getSeparatorChar());
+        assertEquals(Dialect.CRLF, dialect.getLineEnding());
+        dialect = sniffer.sniff("\"a,b\",c\n\"multi\nline\",d\n");
+        assertEquals(CSV.QUOTE_DOUBLE, dialect.getQuoteChar());
+        assertEquals(CSV.COMMA, dialect.getSeparatorChar());
+        assertEquals(Dialect.LF, dialect.getLineEnding());
+    }
+
+    @Test
+    public void shouldDetectHeader() {
+        assertTrue(sniffer.sniff("Id,Code\n1,AB\n2,CD\n").hasHeader());
+        assertFalse(sniffer.sniff("1,AB\n2,CD\n3,EF\n").hasHeader());
+        assertFalse(sniffer.sniff("NO,Oslo\nSE,Stockholm\nDK,Copenhagen\n").hasHeader());
+        assertTrue(sniffer.sniff("Country,Capital\nNO,Oslo\nSE,Stockholm\n").hasHeader());
+    }
+
+    @Test
+    public void shouldSniffBoundedSample() throws IOException, CsvReaderException {
+        StringBuilder b = new StringBuilder("Id;Text;Flag\n");
+        for (int x = 0; x < 10000; x++) {
+            b.append(x).append(";x;y\n");
+        }
+        byte[] bytes = b.toString().getBytes(StandardCharsets.UTF_8);
+        Dialect dialect = new DialectSniffer(1000, null).sniff(new ByteArrayInputStream(bytes));
+        assertEquals(CSV.SEMICOLON, dialect.getSeparatorChar());
+        assertTrue(dialect.hasHeader());
+        assertEquals(new Dialect(CSV.COMMA, CSV.QUOTE_DOUBLE, Dialect.CRLF, true),
+                sniffer.sniff(getResource("presidents.csv")));
+    }
+
+    @Test
+    public void shouldReadWithoutHeader() throws CsvReaderException {
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setDialect(sniffer.sniff("1;AB\n2;CD\n3;EF\n"));
+        reader.readStream(new ByteArrayInputStream("1;AB\n2;CD\n3;EF\n".getBytes(StandardCharsets.UTF_8)), csv);
+        assertEquals(2, csv.getColumnCount());
+        assertEquals("Column1", csv.getColumn(0).getName());
+        assertEquals(3, csv.getRowCount());
+        assertEquals("AB", csv.getRow(0).getRaw(csv.getColumn(1)));
+    }
+
+    @Test
+    public void shouldReadWithCarriageReturns() throws CsvReaderException {
+        String data = "Name,Town\r\"Bill\",Seattle\rLinus,\"Port\rland\"\r";
+        Dialect dialect = sniffer.sniff(data);
+        assertEquals(Dialect.CR, dialect.getLineEnding());
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setDialect(dialect);
+        reader.readStream(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), csv);
+        assertEquals(2, csv.getColumnCount());
+        assertEquals(2, csv.getRowCount());
+        assertEquals("Bill", csv.getRow(0).getRaw(csv.getColumn("Name")));
+        assertEquals("Port\rland", csv.getRow(1).getRaw(csv.getColumn("Town")));
+    }
+}
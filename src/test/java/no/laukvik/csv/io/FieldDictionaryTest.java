@@ -0,0 +1,54 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.columns.StringColumn;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FieldDictionaryTest {
+
+    @Test
+    public void shouldShareEqualValues() throws CsvReaderException {
+        String data = "Name,Country\nBob,Norway\nAnn,Sweden\nJoe,Norway\n";
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.readStream(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), csv);
+        StringColumn country = (StringColumn) csv.getColumn("Country");
+        assertEquals("Norway", csv.getRow(0).get(country));
+        assertSame(csv.getRow(0).get(country), csv.getRow(2).get(country));
+    }
+
+    @Test
+    public void shouldNotShareWhenDisabled() throws CsvReaderException {
+        String data = "Country\nNorway\nNorway\n";
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setDictionaryThreshold(0);
+        reader.readStream(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), csv);
+        StringColumn country = (StringColumn) csv.getColumn("Country");
+        assertNotSame(csv.getRow(0).get(country), csv.getRow(1).get(country));
+    }
+
+    @Test
+    public void shouldDropWhenThresholdIsExceeded() {
+        FieldDictionary dictionary = new FieldDictionary(100);
+        for (int x = 0; x < 100; x++) {
+            char[] chars = ("v" + x).toCharArray();
+            assertEquals("v" + x, dictionary.get(chars, 0, chars.length));
+        }
+        assertEquals(100, dictionary.size());
+        assertSame(dictionary.get("v42"), dictionary.get("v42".toCharArray(), 0, 3));
+        assertFalse(dictionary.isDropped());
+        dictionary.get("v100");
+        assertTrue(dictionary.isDropped());
+        assertNotSame(dictionary.get("v1".toCharArray(), 0, 2), dictionary.get("v1".toCharArray(), 0, 2));
+    }
+}
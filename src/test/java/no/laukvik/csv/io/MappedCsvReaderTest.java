@@ -0,0 +1,58 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.columns.StringColumn;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static no.laukvik.csv.io.CsvReaderTest.getResource;
+import static org.junit.Assert.assertEquals;
+
+public class MappedCsvReaderTest {
+
+    private void assertSameAsCsvReader(String filename, String charset) throws CsvReaderException {
+        CSV expected = new CSV();
+        new CsvReader(Charset.forName(charset), null, null).readFile(getResource(filename), expected);
+        CSV csv = new CSV();
+        new MappedCsvReader(Charset.forName(charset), null, null).readFile(getResource(filename), csv);
+        assertEquals(expected.getColumnCount(), csv.getColumnCount());
+        assertEquals(expected.getRowCount(), csv.getRowCount());
+        assertEquals(expected.getSeparatorChar(), csv.getSeparatorChar());
+        for (int y = 0; y < expected.getRowCount(); y++) {
+            for (int x = 0; x < expected.getColumnCount(); x++) {
+                assertEquals(expected.getRow(y).getRaw(expected.getColumn(x)),
+                        csv.getRow(y).getRaw(csv.getColumn(x)));
+            }
+        }
+    }
+
+    @Test
+    public void readSameAsCsvReader() throws CsvReaderException {
+        assertSameAsCsvReader("presidents.csv", "utf-8");
+        assertSameAsCsvReader("metadata.csv", "utf-8");
+        assertSameAsCsvReader("acid.csv", "us-ascii");
+        assertSameAsCsvReader("quote_escaped.csv", "utf-8");
+        assertSameAsCsvReader("quote_withcomma.csv", "us-ascii");
+        assertSameAsCsvReader("separator_tab.csv", "utf-8");
+        assertSameAsCsvReader("separator_pipe.csv", "utf-8");
+        assertSameAsCsvReader("lines_crlf.csv", "utf-8");
+        assertSameAsCsvReader("charset_8859-1.csv", "iso-8859-1");
+        assertSameAsCsvReader("charset_windows_1252.csv", "windows-1252");
+    }
+
+    @Test
+    public void readCharset() throws CsvReaderException {
+        CSV csv = new CSV();
+        new MappedCsvReader(null, null, null).readFile(getResource("charset.csv"), csv);
+        StringColumn sc = (StringColumn) csv.getColumn("text");
+        assertEquals("Norwegian æøå and ÆØÅ", csv.getRow(0).get(sc));
+    }
+
+    @Test
+    public void readUtf16UsingCsvReader() throws CsvReaderException {
+        CSV csv = new CSV();
+        new MappedCsvReader(null, null, null).readFile(getResource("charset_utf_16_le.csv"), csv);
+        assertEquals(BOM.UTF16LE.getCharset(), csv.getCharset());
+    }
+}
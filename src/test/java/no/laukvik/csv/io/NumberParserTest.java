@@ -0,0 +1,84 @@
+package no.laukvik.csv.io;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NumberParserTest {
+
+    private static final String[] NUMBERS = {"0", "-0", "+7", "123", "-2147483648", "2147483647", "1.5", "-0.25",
+            ".5", "1.", "3.14159265358979", "123456789012345678", "1e10", "-1.5E-3", "NaN", "Infinity",
+            "0.1", "9999999.9", "1.0d"};
+
+    private static int parseInt(String value) {
+        int fromChars = NumberParser.parseInt(value.toCharArray(), 0, value.length());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        assertEquals(fromChars, NumberParser.parseInt(bytes, 0, bytes.length, StandardCharsets.UTF_8));
+        return fromChars;
+    }
+
+    private static double parseDouble(String value) {
+        double fromChars = NumberParser.parseDouble(value.toCharArray(), 0, value.length());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        assertEquals(fromChars, NumberParser.parseDouble(bytes, 0, bytes.length, StandardCharsets.UTF_8), 0);
+        return fromChars;
+    }
+
+    private static float parseFloat(String value) {
+        float fromChars = NumberParser.parseFloat(value.toCharArray(), 0, value.length());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        assertEquals(fromChars, NumberParser.parseFloat(bytes, 0, bytes.length, StandardCharsets.UTF_8), 0);
+        return fromChars;
+    }
+
+    @Test
+    public void shouldParseLikeString() {
+        for (String value : NUMBERS) {
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(value)),
+                    Double.doubleToLongBits(parseDouble(value)));
+            assertEquals(Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(parseFloat(value)));
+        }
+        assertEquals(-2147483648, parseInt("-2147483648"));
+        assertEquals(2147483647, parseInt("2147483647"));
+        assertEquals(7, parseInt("+7"));
+        assertEquals(-12, parseInt("-12"));
+    }
+
+    @Test
+    public void shouldParseRandomDecimalsExactly() {
+        Random random = new Random(42);
+        for (int x = 0; x < 100000; x++) {
+            String value = random.nextInt(1000000) + "." + random.nextInt(100000000);
+            if (random.nextBoolean()) {
+                value = "-" + value;
+            }
+            assertEquals(value, Double.parseDouble(value), parseDouble(value), 0);
+            assertEquals(value, Float.parseFloat(value), parseFloat(value), 0);
+        }
+    }
+
+    @Test
+    public void shouldFailLikeString() {
+        for (String value : new String[]{"", "-", "1.2", " 1", "2147483648", "abc"}) {
+            try {
+                parseInt(value);
+                fail(value);
+            } catch (NumberFormatException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindBlank() {
+        assertTrue(NumberParser.isBlank(" \t".toCharArray(), 0, 2));
+        assertFalse(NumberParser.isBlank(" 1".toCharArray(), 0, 2));
+        assertTrue(NumberParser.isBlank(new byte[0], 0, 0));
+    }
+}
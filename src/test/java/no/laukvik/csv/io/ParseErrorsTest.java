@@ -0,0 +1,155 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.LocalDateColumn;
+import no.laukvik.csv.query.Query;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParseErrorsTest {
+
+    private static final String DATA = "Id(type=int),Date(type=localdate)\n1,2016-01-01\nx,2016-01-02\n3,bad\n"
+            + "4,2016-01-04\n";
+
+    private static ByteArrayInputStream stream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldCollectErrorsAndContinue() throws CsvReaderException {
+        CSV csv = new CSV();
+        ParseErrors errors = new ParseErrors(10);
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setParseErrors(errors);
+        reader.readStream(stream(DATA), csv);
+        assertEquals(4, csv.getRowCount());
+        IntegerColumn id = (IntegerColumn) csv.getColumn("Id");
+        LocalDateColumn date = (LocalDateColumn) csv.getColumn("Date");
+        assertNull(csv.getRow(1).get(id));
+        assertEquals(LocalDate.of(2016, 1, 2), csv.getRow(1).getObject(date));
+        assertTrue(csv.getRow(2).isNull(date));
+        assertEquals((Integer) 4, csv.getRow(3).get(id));
+        assertEquals(2, errors.getErrorCount());
+        ParseError error = errors.getErrors().get(0);
+        assertEquals(2, error.getRowIndex());
+        assertEquals("Id", error.getColumn().getName());
+        assertEquals("x", error.getValue());
+        assertTrue(error.getCause() instanceof NumberFormatException);
+        assertEquals(3, errors.getErrors().get(1).getRowIndex());
+    }
+
+    @Test
+    public void shouldAbortWhenBudgetIsExceeded() {
+        CSV csv = new CSV();
+        ParseErrors errors = new ParseErrors(1, 0);
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setParseErrors(errors);
+        try {
+            reader.readStream(stream(DATA), csv);
+            fail("Expected the budget to be exceeded");
+        } catch (CsvReaderException e) {
+            assertTrue(e.getCause() instanceof TooManyParseErrorsException);
+            assertEquals(3, ((TooManyParseErrorsException) e.getCause()).getError().getRowIndex());
+        }
+        assertEquals(2, errors.getErrorCount());
+        assertTrue(errors.getErrors().isEmpty());
+    }
+
+    @Test
+    public void shouldFilterInvalidValuesAsNull() throws CsvReaderException {
+        CSV csv = new CSV();
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setParseErrors(new ParseErrors(10));
+        Query query = new Query();
+        query.isGreaterThan(new IntegerColumn("Id"), 1);
+        reader.setQuery(query);
+        reader.readStream(stream(DATA), csv);
+        assertEquals(2, csv.getRowCount());
+    }
+
+    @Test
+    public void shouldReadFilesLeniently() throws IOException, CsvReaderException {
+        File file = File.createTempFile("parseErrors", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), DATA.getBytes(StandardCharsets.UTF_8));
+        CSV csv = new CSV();
+        csv.setParseErrors(new ParseErrors(2));
+        csv.readFile(file);
+        assertEquals(4, csv.getRowCount());
+        assertEquals(2, csv.getParseErrors().getErrorCount());
+
+        ParseErrors errors = new ParseErrors(2);
+        MappedCsvReader reader = new MappedCsvReader(null, null, null);
+        reader.setParseErrors(errors);
+        reader.readFile(file, new CSV());
+        assertEquals(2, errors.getErrors().get(0).getRowIndex());
+    }
+
+    @Test
+    public void shouldCollectErrorsWhenParsingLazily() throws CsvReaderException {
+        CSV csv = new CSV();
+        ParseErrors errors = new ParseErrors(10);
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setLazyParsing(true);
+        reader.setParseErrors(errors);
+        reader.readStream(stream(DATA), csv);
+        assertEquals(4, csv.getRowCount());
+        assertEquals(2, errors.getErrorCount());
+        assertEquals("x", errors.getErrors().get(0).getValue());
+        assertNull(csv.getRow(1).get((IntegerColumn) csv.getColumn("Id")));
+    }
+
+    @Test
+    public void shouldCollectErrorsOfFilteredValues() throws CsvReaderException {
+        String data = "Amount(type=int)\n5\nbad\n7\n";
+        Query query = new Query();
+        query.isGreaterThan(new IntegerColumn("Amount"), 1);
+
+        CSV csv = new CSV();
+        ParseErrors errors = new ParseErrors(10);
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setParseErrors(errors);
+        reader.setQuery(query);
+        reader.readStream(stream(data), csv);
+        assertEquals(2, csv.getRowCount());
+        assertEquals(1, errors.getErrorCount());
+        assertEquals(2, errors.getErrors().get(0).getRowIndex());
+        assertEquals("bad", errors.getErrors().get(0).getValue());
+
+        reader = new CsvReader(null, null, null);
+        reader.setParseErrors(new ParseErrors(0));
+        reader.setQuery(query);
+        try {
+            reader.readStream(stream(data), new CSV());
+            fail("Expected the budget to be exceeded");
+        } catch (CsvReaderException e) {
+            assertTrue(e.getCause() instanceof TooManyParseErrorsException);
+        }
+    }
+
+    @Test
+    public void shouldCollectErrorsOfMatchingValuesOnce() throws CsvReaderException {
+        Query query = new Query();
+        query.isEmpty(new IntegerColumn("Id"));
+        CSV csv = new CSV();
+        ParseErrors errors = new ParseErrors(10);
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setParseErrors(errors);
+        reader.setQuery(query);
+        reader.readStream(stream(DATA), csv);
+        assertEquals(1, csv.getRowCount());
+        assertEquals(1, errors.getErrorCount());
+    }
+}
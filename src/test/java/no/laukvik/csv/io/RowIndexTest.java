@@ -0,0 +1,121 @@
+package no.laukvik.csv.io;
+
+import no.laukvik.csv.CSV;
+import no.laukvik.csv.columns.IntegerColumn;
+import no.laukvik.csv.columns.StringColumn;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+import static no.laukvik.csv.io.CsvReaderTest.getResource;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RowIndexTest {
+
+    private static File copy(String resource) throws IOException {
+        File file = File.createTempFile("rowindex", ".csv");
+        file.deleteOnExit();
+        RowIndex.getIndexFile(file).deleteOnExit();
+        Files.copy(getResource(resource).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    @Test
+    public void shouldIndexRowsOutsideQuotes() throws IOException {
+        File file = File.createTempFile("rowindex", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "a,b\n\"x\ny\",1\n\n2,3".getBytes(StandardCharsets.UTF_8));
+        RowIndex index = RowIndex.build(file, CSV.QUOTE_DOUBLE);
+        assertEquals(4, index.getRowCount());
+        assertEquals(0, index.getOffset(0));
+        assertEquals(4, index.getOffset(1));
+        assertEquals(12, index.getOffset(2));
+        assertEquals(13, index.getOffset(3));
+        assertEquals(file.length(), index.getOffset(4));
+        assertEquals(5, RowIndex.build(file, CSV.QUOTE_SINGLE).getRowCount());
+    }
+
+    @Test
+    public void shouldStoreAndDetectStaleIndex() throws IOException {
+        File file = copy("presidents.csv");
+        assertNull(RowIndex.load(file, CSV.QUOTE_DOUBLE));
+        RowIndex index = RowIndex.open(file, CSV.QUOTE_DOUBLE);
+        assertEquals(45, index.getRowCount());
+        assertTrue(RowIndex.getIndexFile(file).isFile());
+        RowIndex loaded = RowIndex.load(file, CSV.QUOTE_DOUBLE);
+        assertNotNull(loaded);
+        assertEquals(index.getOffset(44), loaded.getOffset(44));
+        assertNull(RowIndex.load(file, CSV.QUOTE_SINGLE));
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            out.write("45,Someone\n".getBytes(StandardCharsets.UTF_8));
+        }
+        assertTrue(index.isStale(file));
+        assertNull(RowIndex.load(file, CSV.QUOTE_DOUBLE));
+        assertEquals(46, RowIndex.open(file, CSV.QUOTE_DOUBLE).getRowCount());
+    }
+
+    @Test
+    public void shouldReadRowRange() throws IOException, CsvReaderException {
+        File file = copy("presidents.csv");
+        CsvReader reader = new CsvReader(null, null, null);
+        reader.setRowIndex(RowIndex.open(file, CSV.QUOTE_DOUBLE));
+        CSV csv = new CSV();
+        reader.readRows(file, csv, 10, 12);
+        assertEquals(9, csv.getColumnCount());
+        assertEquals(2, csv.getRowCount());
+        StringColumn presidency = csv.getStringColumn("Presidency");
+        assertEquals("11", csv.getRow(0).get(presidency));
+        assertEquals("12", csv.getRow(1).get(presidency));
+
+        CSV skipped = new CSV();
+        new CsvReader(null, null, null).readRows(file, skipped, 10, 12);
+        assertEquals("11", skipped.getRow(0).get(skipped.getStringColumn("Presidency")));
+
+        csv.clear();
+        reader.readRows(file, csv, 40, 100);
+        assertEquals(4, csv.getRowCount());
+    }
+
+    @Test
+    public void shouldAppendWithIndex() throws IOException, CsvReaderException {
+        File file = copy("presidents.csv");
+        RowIndex.open(file, CSV.QUOTE_DOUBLE);
+        CSV csv = new CSV();
+        IntegerColumn presidency = csv.addIntegerColumn("Presidency");
+        csv.setCharset(StandardCharsets.UTF_8);
+        csv.appendFile(file, 44);
+        assertEquals(1, csv.getRowCount());
+        assertEquals((Integer) 44, csv.getRow(0).get(presidency));
+
+        csv = new CSV();
+        csv.readRows(file, 0, 3);
+        assertEquals(3, csv.getRowCount());
+        assertEquals("George Washington", csv.getRow(0).get(csv.getStringColumn("President")));
+    }
+
+    @Test
+    public void shouldNotIndexCompressedFiles() throws IOException, CsvReaderException {
+        File file = File.createTempFile("rowindex", ".csv.gz");
+        file.deleteOnExit();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+            out.write("Id\n1\n2\n3\n".getBytes(StandardCharsets.UTF_8));
+        }
+        assertFalse(RowIndex.isSupported(file, StandardCharsets.UTF_8, CSV.QUOTE_DOUBLE));
+        CSV csv = new CSV();
+        csv.readRows(file, 1, 3);
+        assertEquals(2, csv.getRowCount());
+        assertFalse(RowIndex.getIndexFile(file).exists());
+        assertFalse(RowIndex.isSupported(copy("presidents.csv"), StandardCharsets.UTF_16LE, CSV.QUOTE_DOUBLE));
+    }
+}